@@ -2,6 +2,7 @@ package br.com.zapia.wpp.client.docker;
 
 import br.com.zapia.wpp.client.docker.model.DriverState;
 import br.com.zapia.wpp.client.docker.model.OnWsDisconnect;
+import br.com.zapia.wpp.client.docker.model.WsTransport;
 
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
@@ -12,6 +13,16 @@ import java.util.function.Function;
 
 public abstract class BaseConfig {
 
+    private WsTransport wsTransport = WsTransport.JAVA_WEBSOCKET;
+
+    public WsTransport getWsTransport() {
+        return wsTransport;
+    }
+
+    public void setWsTransport(WsTransport wsTransport) {
+        this.wsTransport = wsTransport;
+    }
+
     protected abstract CompletableFuture<WhatsAppWsClient> getWsClient(WhatsAppClient whatsAppClient,
                                                                        Runnable onInit,
                                                                        Consumer<String> onNeedQrCode,
@@ -0,0 +1,342 @@
+package br.com.zapia.wpp.client.docker;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+class CompactJsonNodeFactory extends JsonNodeFactory {
+
+    private static final long serialVersionUID = 1L;
+
+    static final CompactJsonNodeFactory instance = new CompactJsonNodeFactory();
+
+    private static final int INITIAL_CAPACITY = 4;
+    private static final int SHARED_TEXT_MAX_LENGTH = 32;
+    private static final String[] sharedTexts = new String[4096];
+    private static final VarHandle SLOTS = MethodHandles.arrayElementVarHandle(Object[].class);
+
+    protected CompactJsonNodeFactory() {
+        super(false);
+    }
+
+    @Override
+    public ObjectNode objectNode() {
+        return new ObjectNode(this, new CompactObjectMap());
+    }
+
+    @Override
+    public ArrayNode arrayNode() {
+        return new ArrayNode(this, new CompactArrayList(INITIAL_CAPACITY));
+    }
+
+    @Override
+    public ArrayNode arrayNode(int capacity) {
+        return new ArrayNode(this, new CompactArrayList(capacity));
+    }
+
+    private static Object pack(JsonNode node) {
+        if (node instanceof TextNode) {
+            return share(node.textValue());
+        }
+        return node;
+    }
+
+    private static String share(String text) {
+        if (text.length() > SHARED_TEXT_MAX_LENGTH) {
+            return text;
+        }
+        int slot = text.hashCode() & (sharedTexts.length - 1);
+        String shared = sharedTexts[slot];
+        if (text.equals(shared)) {
+            return shared;
+        }
+        sharedTexts[slot] = text;
+        return text;
+    }
+
+    private static JsonNode unpack(Object value) {
+        if (value instanceof String) {
+            return TextNode.valueOf((String) value);
+        }
+        return (JsonNode) value;
+    }
+
+    private static JsonNode unpack(Object[] values, int index) {
+        Object value = SLOTS.getAcquire(values, index);
+        if (value instanceof String) {
+            Object node = TextNode.valueOf((String) value);
+            Object witness = SLOTS.compareAndExchangeRelease(values, index, value, node);
+            return witness == value ? (JsonNode) node : unpack(witness);
+        }
+        return (JsonNode) value;
+    }
+
+    static class CompactObjectMap extends AbstractMap<String, JsonNode> {
+
+        private String[] names;
+        private Object[] values;
+        private int size;
+        private Set<Entry<String, JsonNode>> entrySet;
+
+        private CompactObjectMap() {
+            this.names = new String[INITIAL_CAPACITY];
+            this.values = new Object[INITIAL_CAPACITY];
+        }
+
+        private int indexOf(Object name) {
+            for (int i = 0; i < size; i++) {
+                if (names[i] == name) {
+                    return i;
+                }
+            }
+            if (name != null) {
+                for (int i = 0; i < size; i++) {
+                    if (name.equals(names[i])) {
+                        return i;
+                    }
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean containsKey(Object name) {
+            return indexOf(name) >= 0;
+        }
+
+        @Override
+        public JsonNode get(Object name) {
+            int index = indexOf(name);
+            return index < 0 ? null : unpack(values, index);
+        }
+
+        @Override
+        public JsonNode put(String name, JsonNode value) {
+            int index = indexOf(name);
+            if (index >= 0) {
+                JsonNode old = unpack(values[index]);
+                values[index] = pack(value);
+                return old;
+            }
+            if (size == names.length) {
+                int capacity = size + (size >> 1) + 1;
+                names = Arrays.copyOf(names, capacity);
+                values = Arrays.copyOf(values, capacity);
+            }
+            names[size] = name;
+            values[size] = pack(value);
+            size++;
+            return null;
+        }
+
+        @Override
+        public JsonNode remove(Object name) {
+            int index = indexOf(name);
+            if (index < 0) {
+                return null;
+            }
+            JsonNode old = unpack(values[index]);
+            removeAt(index);
+            return old;
+        }
+
+        private void removeAt(int index) {
+            int moved = size - index - 1;
+            if (moved > 0) {
+                System.arraycopy(names, index + 1, names, index, moved);
+                System.arraycopy(values, index + 1, values, index, moved);
+            }
+            size--;
+            names[size] = null;
+            values[size] = null;
+        }
+
+        @Override
+        public void clear() {
+            Arrays.fill(names, 0, size, null);
+            Arrays.fill(values, 0, size, null);
+            size = 0;
+        }
+
+        @Override
+        public Set<Entry<String, JsonNode>> entrySet() {
+            if (entrySet == null) {
+                entrySet = new EntrySet();
+            }
+            return entrySet;
+        }
+
+        private class EntrySet extends AbstractSet<Entry<String, JsonNode>> {
+
+            @Override
+            public int size() {
+                return size;
+            }
+
+            @Override
+            public void clear() {
+                CompactObjectMap.this.clear();
+            }
+
+            @Override
+            public Iterator<Entry<String, JsonNode>> iterator() {
+                return new Iterator<>() {
+
+                    private int next;
+                    private int last = -1;
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < size;
+                    }
+
+                    @Override
+                    public Entry<String, JsonNode> next() {
+                        if (next >= size) {
+                            throw new NoSuchElementException();
+                        }
+                        last = next++;
+                        return new CompactEntry(last);
+                    }
+
+                    @Override
+                    public void remove() {
+                        if (last < 0) {
+                            throw new IllegalStateException();
+                        }
+                        removeAt(last);
+                        next = last;
+                        last = -1;
+                    }
+                };
+            }
+        }
+
+        private class CompactEntry implements Map.Entry<String, JsonNode> {
+
+            private final String name;
+            private final int index;
+
+            private CompactEntry(int index) {
+                this.name = names[index];
+                this.index = index;
+            }
+
+            @Override
+            public String getKey() {
+                return name;
+            }
+
+            @Override
+            public JsonNode getValue() {
+                return index < size && names[index] == name ? unpack(values, index) : get(name);
+            }
+
+            @Override
+            public JsonNode setValue(JsonNode value) {
+                return put(name, value);
+            }
+
+            @Override
+            public boolean equals(Object o) {
+                if (!(o instanceof Map.Entry)) {
+                    return false;
+                }
+                Map.Entry<?, ?> that = (Map.Entry<?, ?>) o;
+                return name.equals(that.getKey()) && getValue().equals(that.getValue());
+            }
+
+            @Override
+            public int hashCode() {
+                return name.hashCode() ^ getValue().hashCode();
+            }
+
+            @Override
+            public String toString() {
+                return name + "=" + getValue();
+            }
+        }
+    }
+
+    static class CompactArrayList extends AbstractList<JsonNode> {
+
+        private Object[] elements;
+        private int size;
+
+        private CompactArrayList(int capacity) {
+            this.elements = new Object[Math.max(1, capacity)];
+        }
+
+        @Override
+        public JsonNode get(int index) {
+            checkIndex(index, size);
+            return unpack(elements, index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public JsonNode set(int index, JsonNode element) {
+            checkIndex(index, size);
+            JsonNode old = unpack(elements[index]);
+            elements[index] = pack(element);
+            return old;
+        }
+
+        @Override
+        public void add(int index, JsonNode element) {
+            checkIndex(index, size + 1);
+            if (size == elements.length) {
+                elements = Arrays.copyOf(elements, size + (size >> 1) + 1);
+            }
+            System.arraycopy(elements, index, elements, index + 1, size - index);
+            elements[index] = pack(element);
+            size++;
+            modCount++;
+        }
+
+        @Override
+        public JsonNode remove(int index) {
+            checkIndex(index, size);
+            JsonNode old = unpack(elements[index]);
+            System.arraycopy(elements, index + 1, elements, index, size - index - 1);
+            elements[--size] = null;
+            modCount++;
+            return old;
+        }
+
+        @Override
+        public void clear() {
+            Arrays.fill(elements, 0, size, null);
+            size = 0;
+            modCount++;
+        }
+
+        private static void checkIndex(int index, int length) {
+            if (index < 0 || index >= length) {
+                throw new IndexOutOfBoundsException("Index {" + index + "} out of bounds for length {" + length + "}");
+            }
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package br.com.zapia.wpp.client.docker;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+class DefaultEventDispatcher implements EventDispatcher {
+
+    private final ExecutorService executorService;
+    private final Function<Runnable, Runnable> runnableFactory;
+
+    protected DefaultEventDispatcher(ExecutorService executorService, Function<Runnable, Runnable> runnableFactory) {
+        this.executorService = executorService;
+        this.runnableFactory = runnableFactory;
+    }
+
+    @Override
+    public void submit(Runnable task) {
+        executorService.submit(runnableFactory.apply(task));
+    }
+
+    @Override
+    public void sequence(Runnable action) {
+        action.run();
+    }
+
+    @Override
+    public <T> void deliver(String key, List<Consumer<T>> listeners, T event) {
+        Iterator<Consumer<T>> iterator = listeners.iterator();
+        while (iterator.hasNext()) {
+            Consumer<T> listener = iterator.next();
+            if (iterator.hasNext()) {
+                executorService.submit(runnableFactory.apply(() -> listener.accept(event)));
+            } else {
+                listener.accept(event);
+            }
+        }
+    }
+
+    @Override
+    public void shutdown() {
+    }
+}
@@ -123,7 +123,7 @@ public class DockerConfig extends BaseConfig {
                     }
                 }
                 if (!localPort.isEmpty()) {
-                    webSocketConfig = new WebSocketConfig(remoteAddress, Integer.parseInt(localPort));
+                    webSocketConfig = new WebSocketConfig(remoteAddress, Integer.parseInt(localPort), getWsTransport());
                     return webSocketConfig.getWsClient(whatsAppClient, onInit, onNeedQrCode, onUpdateDriverState, onError, onLowBattery, onPhoneDisconnect, onWsConnect, onWsDisconnect, onPing, runnableFactory, callableFactory, threadFactory, executorService, scheduledExecutorService).get();
                 }
             } catch (Exception e) {
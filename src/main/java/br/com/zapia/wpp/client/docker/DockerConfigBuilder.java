@@ -1,5 +1,7 @@
 package br.com.zapia.wpp.client.docker;
 
+import br.com.zapia.wpp.client.docker.model.WsTransport;
+
 public class DockerConfigBuilder {
 
     private final String identity;
@@ -12,6 +14,7 @@ public class DockerConfigBuilder {
     private int maxMemoryMB;
     private boolean autoUpdateBaseImage;
     private boolean autoRemoveContainer;
+    private WsTransport wsTransport;
 
     public DockerConfigBuilder(String identity, String dockerImageName, String remoteAddress) {
         this.identity = identity;
@@ -21,6 +24,7 @@ public class DockerConfigBuilder {
         this.insideDockerHostVolumeLocation = "/home/docker/zapia/wpp-client-docker/caches";
         this.maxMemoryMB = 500;
         this.autoUpdateBaseImage = true;
+        this.wsTransport = WsTransport.JAVA_WEBSOCKET;
     }
 
     public DockerConfigBuilder withRemotePort(int remotePort) {
@@ -58,7 +62,14 @@ public class DockerConfigBuilder {
         return this;
     }
 
+    public DockerConfigBuilder withWsTransport(WsTransport wsTransport) {
+        this.wsTransport = wsTransport;
+        return this;
+    }
+
     public DockerConfig build() {
-        return new DockerConfig(identity, dockerImageName, dockerUserName, dockerPassword, remoteAddress, remotePort, insideDockerHostVolumeLocation, maxMemoryMB, autoUpdateBaseImage, autoRemoveContainer);
+        DockerConfig dockerConfig = new DockerConfig(identity, dockerImageName, dockerUserName, dockerPassword, remoteAddress, remotePort, insideDockerHostVolumeLocation, maxMemoryMB, autoUpdateBaseImage, autoRemoveContainer);
+        dockerConfig.setWsTransport(wsTransport);
+        return dockerConfig;
     }
 }
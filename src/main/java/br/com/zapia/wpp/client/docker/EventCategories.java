@@ -0,0 +1,47 @@
+package br.com.zapia.wpp.client.docker;
+
+import br.com.zapia.wpp.api.model.handlersWebSocket.EventWebSocket;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+final class EventCategories {
+
+    private static final Set<EventWebSocket> READ_ONLY = EnumSet.of(
+            EventWebSocket.FindChat,
+            EventWebSocket.FindChatByNumber,
+            EventWebSocket.FindContact,
+            EventWebSocket.FindContactByNumber,
+            EventWebSocket.FindMessage,
+            EventWebSocket.FindPicture,
+            EventWebSocket.GetAllChats,
+            EventWebSocket.GetAllContacts,
+            EventWebSocket.GetAllQuickReplies,
+            EventWebSocket.GetDriverState,
+            EventWebSocket.GetGroupInviteInfo,
+            EventWebSocket.GetGroupParticipants,
+            EventWebSocket.GetQrCode,
+            EventWebSocket.GetSelfInfo);
+
+    private static final Set<EventWebSocket> NON_IDEMPOTENT = EnumSet.of(
+            EventWebSocket.SendMessage,
+            EventWebSocket.ForwardMessage,
+            EventWebSocket.DeleteMessage,
+            EventWebSocket.DeleteChat,
+            EventWebSocket.ClearChat,
+            EventWebSocket.JoinGroupByInviteLink,
+            EventWebSocket.LoadEarly,
+            EventWebSocket.AddChatMessageListener,
+            EventWebSocket.Logout);
+
+    private EventCategories() {
+    }
+
+    static boolean isReadOnly(EventWebSocket event) {
+        return event != null && READ_ONLY.contains(event);
+    }
+
+    static boolean isNonIdempotent(EventWebSocket event) {
+        return event != null && NON_IDEMPOTENT.contains(event);
+    }
+}
@@ -0,0 +1,97 @@
+package br.com.zapia.wpp.client.docker;
+
+import br.com.zapia.wpp.client.docker.model.CoalescingStats;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+
+class EventCoalescer {
+
+    private final long windowNanos;
+    private final ScheduledExecutorService scheduledExecutorService;
+    private final EventDispatcher eventDispatcher;
+    private final Map<String, Pending<?>> pending;
+    private final AtomicLong generations;
+    private final LongAdder received;
+    private final LongAdder folded;
+    private final LongAdder dispatched;
+
+    protected EventCoalescer(Duration window, ScheduledExecutorService scheduledExecutorService, EventDispatcher eventDispatcher) {
+        this.windowNanos = window.toNanos();
+        this.scheduledExecutorService = scheduledExecutorService;
+        this.eventDispatcher = eventDispatcher;
+        this.pending = new ConcurrentHashMap<>();
+        this.generations = new AtomicLong();
+        this.received = new LongAdder();
+        this.folded = new LongAdder();
+        this.dispatched = new LongAdder();
+    }
+
+    protected <T> void offer(String key, T value, BinaryOperator<T> merge, Consumer<T> flush) {
+        received.increment();
+        Pending<?>[] created = new Pending<?>[1];
+        pending.compute(key, (key1, current) -> {
+            if (current == null) {
+                created[0] = new Pending<>(generations.incrementAndGet(), value, flush);
+                return created[0];
+            }
+            folded.increment();
+            @SuppressWarnings("unchecked")
+            Pending<T> currentPending = (Pending<T>) current;
+            return new Pending<>(currentPending.generation, merge.apply(currentPending.value, value), flush);
+        });
+        if (created[0] != null) {
+            long generation = created[0].generation;
+            scheduledExecutorService.schedule(() -> {
+                eventDispatcher.submit(() -> eventDispatcher.sequence(() -> flush(key, generation)));
+            }, windowNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    protected void flush(String key) {
+        flush(key, -1);
+    }
+
+    protected CoalescingStats getStats() {
+        return new CoalescingStats(received.sum(), folded.sum(), dispatched.sum(), pending.size());
+    }
+
+    private void flush(String key, long generation) {
+        Pending<?>[] removed = new Pending<?>[1];
+        pending.computeIfPresent(key, (key1, current) -> {
+            if (generation >= 0 && current.generation != generation) {
+                return current;
+            }
+            removed[0] = current;
+            return null;
+        });
+        if (removed[0] != null) {
+            dispatched.increment();
+            removed[0].flush();
+        }
+    }
+
+    private static class Pending<T> {
+
+        private final long generation;
+        private final T value;
+        private final Consumer<T> flush;
+
+        private Pending(long generation, T value, Consumer<T> flush) {
+            this.generation = generation;
+            this.value = value;
+            this.flush = flush;
+        }
+
+        private void flush() {
+            flush.accept(value);
+        }
+    }
+}
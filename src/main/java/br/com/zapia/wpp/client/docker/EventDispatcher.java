@@ -0,0 +1,15 @@
+package br.com.zapia.wpp.client.docker;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+interface EventDispatcher {
+
+    void submit(Runnable task);
+
+    void sequence(Runnable action);
+
+    <T> void deliver(String key, List<Consumer<T>> listeners, T event);
+
+    void shutdown();
+}
@@ -0,0 +1,61 @@
+package br.com.zapia.wpp.client.docker;
+
+import org.java_websocket.client.WebSocketClient;
+import org.java_websocket.framing.Framedata;
+import org.java_websocket.framing.TextFrame;
+import org.java_websocket.handshake.ServerHandshake;
+
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+class JavaWebSocketConnection extends WebSocketClient implements WsConnection {
+
+    private final Listener listener;
+
+    protected JavaWebSocketConnection(URI serverUri, Listener listener) {
+        super(serverUri);
+        this.listener = listener;
+    }
+
+    @Override
+    public void sendTextFrames(List<ByteBuffer> payloads) {
+        if (payloads.size() == 1) {
+            sendFrame(textFrame(payloads.get(0)));
+            return;
+        }
+        List<Framedata> frames = new ArrayList<>(payloads.size());
+        for (ByteBuffer payload : payloads) {
+            frames.add(textFrame(payload));
+        }
+        sendFrame(frames);
+    }
+
+    private static TextFrame textFrame(ByteBuffer payload) {
+        TextFrame textFrame = new TextFrame();
+        textFrame.setPayload(payload);
+        textFrame.setFin(true);
+        return textFrame;
+    }
+
+    @Override
+    public void onOpen(ServerHandshake serverHandshake) {
+        listener.onOpen();
+    }
+
+    @Override
+    public void onMessage(String s) {
+        listener.onMessage(s);
+    }
+
+    @Override
+    public void onClose(int code, String reason, boolean remote) {
+        listener.onClose(code, reason, remote);
+    }
+
+    @Override
+    public void onError(Exception e) {
+        listener.onError(e);
+    }
+}
@@ -0,0 +1,265 @@
+package br.com.zapia.wpp.client.docker;
+
+import br.com.zapia.wpp.client.docker.model.Chat;
+import br.com.zapia.wpp.client.docker.model.Contact;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+class LocalStore {
+
+    static final Duration DEFAULT_CONTACT_MAX_AGE = Duration.ofMinutes(10);
+
+    private final long contactMaxAgeMillis;
+    private final Map<String, Versioned<Chat>> chats;
+    private final Map<String, Versioned<Contact>> contacts;
+    private final PhoneIndex chatNumbers;
+    private final PhoneIndex contactNumbers;
+    private final AtomicLong sequence;
+    private final ConcurrentSkipListSet<Long> pending;
+    private final Queue<String> tombstones;
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private volatile long invalidatedAt;
+    private volatile boolean ready;
+    private volatile long seededAt;
+    private volatile long lastEventAt;
+
+    protected LocalStore() {
+        this(DEFAULT_CONTACT_MAX_AGE);
+    }
+
+    protected LocalStore(Duration contactMaxAge) {
+        this.contactMaxAgeMillis = contactMaxAge.toMillis();
+        this.chats = new ConcurrentHashMap<>();
+        this.contacts = new ConcurrentHashMap<>();
+        this.chatNumbers = new PhoneIndex();
+        this.contactNumbers = new PhoneIndex();
+        this.sequence = new AtomicLong();
+        this.pending = new ConcurrentSkipListSet<>();
+        this.tombstones = new ConcurrentLinkedQueue<>();
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+    }
+
+    protected long nextSequence() {
+        long seq = sequence.incrementAndGet();
+        pending.add(seq);
+        return seq;
+    }
+
+    protected void release(long seq) {
+        if (pending.remove(seq)) {
+            purgeTombstones();
+        }
+    }
+
+    protected synchronized void seed(long seq, List<Chat> chatList, List<Contact> contactList) {
+        try {
+            if (seq <= invalidatedAt) {
+                return;
+            }
+            for (Chat chat : chatList) {
+                storeChat(seq, chat);
+            }
+            long now = System.currentTimeMillis();
+            for (Contact contact : contactList) {
+                contacts.put(contact.getId(), new Versioned<>(contact, now));
+                contactNumbers.put(contact.getId());
+            }
+            seededAt = now;
+            ready = true;
+        } finally {
+            release(seq);
+        }
+    }
+
+    protected synchronized void invalidate() {
+        invalidatedAt = sequence.incrementAndGet();
+        pending.headSet(invalidatedAt).clear();
+        ready = false;
+        chats.clear();
+        contacts.clear();
+        chatNumbers.clear();
+        contactNumbers.clear();
+        tombstones.clear();
+    }
+
+    protected void putChat(long seq, Chat chat) {
+        try {
+            if (seq <= invalidatedAt) {
+                return;
+            }
+            storeChat(seq, chat);
+            lastEventAt = System.currentTimeMillis();
+        } finally {
+            release(seq);
+        }
+    }
+
+    protected void removeChat(long seq, String id) {
+        try {
+            if (seq <= invalidatedAt) {
+                return;
+            }
+            boolean[] removed = new boolean[1];
+            chats.compute(id, (id1, current) -> {
+                if (current == null || current.version < seq) {
+                    chatNumbers.remove(id1);
+                    removed[0] = true;
+                    return new Versioned<>(null, seq);
+                }
+                return current;
+            });
+            if (removed[0]) {
+                tombstones.add(id);
+            }
+            lastEventAt = System.currentTimeMillis();
+        } finally {
+            release(seq);
+        }
+    }
+
+    protected void putContact(Contact contact) {
+        if (ready) {
+            contacts.put(contact.getId(), new Versioned<>(contact, System.currentTimeMillis()));
+            contactNumbers.put(contact.getId());
+        }
+    }
+
+    protected Chat getChat(String id) {
+        if (!ready) {
+            return null;
+        }
+        Versioned<Chat> versioned = chats.get(id);
+        return count(versioned == null ? null : versioned.value);
+    }
+
+    protected Chat getChatByNumber(String number) {
+        if (!ready) {
+            return null;
+        }
+        String id = chatNumbers.get(number);
+        return id == null ? count(null) : getChat(id);
+    }
+
+    protected Contact getContact(String id) {
+        if (!ready) {
+            return null;
+        }
+        Versioned<Contact> versioned = contacts.get(id);
+        if (versioned != null && System.currentTimeMillis() - versioned.version > contactMaxAgeMillis) {
+            versioned = null;
+        }
+        return count(versioned == null ? null : versioned.value);
+    }
+
+    protected Contact getContactByNumber(String number) {
+        if (!ready) {
+            return null;
+        }
+        String id = contactNumbers.get(number);
+        return id == null ? count(null) : getContact(id);
+    }
+
+    protected boolean isReady() {
+        return ready;
+    }
+
+    protected int getChats() {
+        int size = 0;
+        for (Versioned<Chat> versioned : chats.values()) {
+            if (versioned.value != null) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    protected int getTombstones() {
+        int size = 0;
+        for (Versioned<Chat> versioned : chats.values()) {
+            if (versioned.value == null) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    protected int getContacts() {
+        return contacts.size();
+    }
+
+    protected int getIndexedNumbers() {
+        return chatNumbers.size() + contactNumbers.size();
+    }
+
+    protected long getHits() {
+        return hits.sum();
+    }
+
+    protected long getMisses() {
+        return misses.sum();
+    }
+
+    protected long getSeededAt() {
+        return seededAt;
+    }
+
+    protected long getLastEventAt() {
+        return lastEventAt;
+    }
+
+    private void storeChat(long seq, Chat chat) {
+        chats.compute(chat.getId(), (id, current) -> {
+            if (current == null || current.version < seq) {
+                chatNumbers.put(id);
+                return new Versioned<>(chat, seq);
+            }
+            return current;
+        });
+    }
+
+    private synchronized void purgeTombstones() {
+        Long oldest = pending.ceiling(Long.MIN_VALUE);
+        long watermark = oldest == null ? Long.MAX_VALUE : oldest;
+        String id;
+        while ((id = tombstones.peek()) != null) {
+            Versioned<Chat> current = chats.get(id);
+            if (current != null && current.value == null) {
+                if (current.version >= watermark) {
+                    return;
+                }
+                chats.remove(id, current);
+            }
+            tombstones.poll();
+        }
+    }
+
+    private <T> T count(T value) {
+        if (value == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return value;
+    }
+
+    private static class Versioned<T> {
+
+        private final T value;
+        private final long version;
+
+        private Versioned(T value, long version) {
+            this.value = value;
+            this.version = version;
+        }
+    }
+}
@@ -0,0 +1,485 @@
+package br.com.zapia.wpp.client.docker;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.CRC32;
+
+class MediaCache implements AutoCloseable {
+
+    static final long DEFAULT_MAX_BYTES = 512L * 1024 * 1024;
+    static final Duration DEFAULT_PICTURE_TTL = Duration.ofHours(1);
+
+    private static final String OBJECTS_DIRECTORY = "objects";
+    private static final String INDEX_FILE = "index.log";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final int MIN_INDEX_LINES_TO_COMPACT = 1024;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final File objectsDirectory;
+    private final Path indexPath;
+    private final long maxBytes;
+    private final Duration pictureTtl;
+    private final LinkedHashMap<String, CachedObject> objects;
+    private final Map<String, Key> keys;
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final LongAdder bytesSaved;
+    private final LongAdder evictions;
+    private FileChannel index;
+    private long bytes;
+    private int indexLines;
+
+    protected MediaCache(File directory, long maxBytes, Duration pictureTtl) throws IOException {
+        this.objectsDirectory = new File(directory, OBJECTS_DIRECTORY);
+        this.indexPath = new File(directory, INDEX_FILE).toPath();
+        this.maxBytes = maxBytes;
+        this.pictureTtl = pictureTtl;
+        this.objects = new LinkedHashMap<>(16, 0.75f, true);
+        this.keys = new HashMap<>();
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+        this.bytesSaved = new LongAdder();
+        this.evictions = new LongAdder();
+        Files.createDirectories(objectsDirectory.toPath());
+        recover();
+    }
+
+    static String messageKey(String msgId) {
+        return "message:" + msgId;
+    }
+
+    static String mediaKey(String mediaHash) {
+        return mediaHash == null || mediaHash.isEmpty() ? null : "media:" + mediaHash;
+    }
+
+    static String pictureKey(String contactId, boolean full) {
+        return "picture:" + contactId + (full ? ":full" : ":thumb");
+    }
+
+    protected File get(String... cacheKeys) throws IOException {
+        FileChannel source = null;
+        String filename = null;
+        synchronized (this) {
+            long now = System.currentTimeMillis();
+            for (String cacheKey : cacheKeys) {
+                if (cacheKey == null) {
+                    continue;
+                }
+                Key key = keys.get(cacheKey);
+                if (key == null || isExpired(key, now)) {
+                    continue;
+                }
+                CachedObject cachedObject = objects.get(key.hash);
+                if (cachedObject == null) {
+                    continue;
+                }
+                try {
+                    source = FileChannel.open(cachedObject.file.toPath(), StandardOpenOption.READ);
+                } catch (NoSuchFileException e) {
+                    evict(key.hash);
+                    continue;
+                }
+                cachedObject.file.setLastModified(now);
+                hits.increment();
+                bytesSaved.add(cachedObject.size);
+                filename = key.filename;
+                break;
+            }
+        }
+        if (source == null) {
+            misses.increment();
+            return null;
+        }
+        try (FileChannel channel = source) {
+            return copy(channel, filename);
+        }
+    }
+
+    protected File put(InputStream inputStream, String filename, String... cacheKeys) throws IOException {
+        File tempFile = File.createTempFile("media-", TEMP_SUFFIX, objectsDirectory);
+        try {
+            MessageDigest digest = sha256();
+            long size = 0;
+            try (FileChannel channel = FileChannel.open(tempFile.toPath(), StandardOpenOption.WRITE)) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int read;
+                while ((read = inputStream.read(buffer)) != -1) {
+                    digest.update(buffer, 0, read);
+                    ByteBuffer byteBuffer = ByteBuffer.wrap(buffer, 0, read);
+                    while (byteBuffer.hasRemaining()) {
+                        channel.write(byteBuffer);
+                    }
+                    size += read;
+                }
+                channel.force(true);
+            }
+            String hash = toHex(digest.digest());
+            FileChannel source;
+            synchronized (this) {
+                CachedObject cachedObject = objects.get(hash);
+                if (cachedObject == null || !cachedObject.file.isFile()) {
+                    File file = new File(objectsDirectory, hash + extensionOf(filename));
+                    move(tempFile, file);
+                    cachedObject = new CachedObject(hash, file, size);
+                    objects.put(hash, cachedObject);
+                    bytes += size;
+                }
+                long now = System.currentTimeMillis();
+                for (String cacheKey : cacheKeys) {
+                    if (cacheKey != null) {
+                        putKey(new Key(cacheKey, hash, now, filename));
+                    }
+                }
+                evictOverflow(hash);
+                source = FileChannel.open(cachedObject.file.toPath(), StandardOpenOption.READ);
+            }
+            try (FileChannel channel = source) {
+                return copy(channel, filename);
+            }
+        } finally {
+            Files.deleteIfExists(tempFile.toPath());
+        }
+    }
+
+    protected synchronized int getEntries() {
+        return objects.size();
+    }
+
+    protected synchronized long getBytes() {
+        return bytes;
+    }
+
+    protected long getMaxBytes() {
+        return maxBytes;
+    }
+
+    protected long getHits() {
+        return hits.sum();
+    }
+
+    protected long getMisses() {
+        return misses.sum();
+    }
+
+    protected long getBytesSaved() {
+        return bytesSaved.sum();
+    }
+
+    protected long getEvictions() {
+        return evictions.sum();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (index != null) {
+            index.close();
+            index = null;
+        }
+    }
+
+    private boolean isExpired(Key key, long now) {
+        return key.name.startsWith("picture:") && pictureTtl != null && now - key.storedAt > pictureTtl.toMillis();
+    }
+
+    private void putKey(Key key) throws IOException {
+        Key previous = keys.put(key.name, key);
+        if (previous != null && !previous.hash.equals(key.hash)) {
+            CachedObject previousObject = objects.get(previous.hash);
+            if (previousObject != null) {
+                previousObject.keys.remove(key.name);
+                if (previousObject.keys.isEmpty()) {
+                    evict(previous.hash);
+                }
+            }
+        }
+        CachedObject cachedObject = objects.get(key.hash);
+        if (cachedObject != null) {
+            cachedObject.keys.add(key.name);
+        }
+        appendIndex(key);
+    }
+
+    private void evictOverflow(String keep) {
+        Iterator<CachedObject> iterator = objects.values().iterator();
+        List<String> evicted = new ArrayList<>();
+        long remaining = bytes;
+        while (remaining > maxBytes && iterator.hasNext()) {
+            CachedObject cachedObject = iterator.next();
+            if (cachedObject.hash.equals(keep)) {
+                continue;
+            }
+            evicted.add(cachedObject.hash);
+            remaining -= cachedObject.size;
+        }
+        for (String hash : evicted) {
+            evict(hash);
+        }
+    }
+
+    private void evict(String hash) {
+        CachedObject cachedObject = objects.remove(hash);
+        if (cachedObject == null) {
+            return;
+        }
+        bytes -= cachedObject.size;
+        for (String name : cachedObject.keys) {
+            keys.remove(name);
+        }
+        cachedObject.file.delete();
+        evictions.increment();
+    }
+
+    private void appendIndex(Key key) throws IOException {
+        if (index == null) {
+            index = FileChannel.open(indexPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        }
+        ByteBuffer byteBuffer = StandardCharsets.UTF_8.encode(key.toLine());
+        while (byteBuffer.hasRemaining()) {
+            index.write(byteBuffer);
+        }
+        indexLines++;
+        if (indexLines > MIN_INDEX_LINES_TO_COMPACT && indexLines > keys.size() * 2) {
+            compactIndex();
+        }
+    }
+
+    private void compactIndex() throws IOException {
+        Path tempPath = indexPath.resolveSibling(INDEX_FILE + TEMP_SUFFIX);
+        try (BufferedWriter writer = Files.newBufferedWriter(tempPath, StandardCharsets.UTF_8)) {
+            for (Key key : keys.values()) {
+                writer.write(key.toLine());
+            }
+        }
+        try (FileChannel channel = FileChannel.open(tempPath, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        if (index != null) {
+            index.close();
+            index = null;
+        }
+        move(tempPath.toFile(), indexPath.toFile());
+        indexLines = keys.size();
+    }
+
+    private void recover() throws IOException {
+        List<File> files = new ArrayList<>();
+        File[] listFiles = objectsDirectory.listFiles();
+        if (listFiles != null) {
+            for (File file : listFiles) {
+                if (file.getName().endsWith(TEMP_SUFFIX)) {
+                    file.delete();
+                } else if (file.isFile()) {
+                    files.add(file);
+                }
+            }
+        }
+        files.sort((a, b) -> Long.compare(a.lastModified(), b.lastModified()));
+        for (File file : files) {
+            String name = file.getName();
+            int dot = name.indexOf('.');
+            String hash = dot < 0 ? name : name.substring(0, dot);
+            objects.put(hash, new CachedObject(hash, file, file.length()));
+            bytes += file.length();
+        }
+        Files.deleteIfExists(indexPath.resolveSibling(INDEX_FILE + TEMP_SUFFIX));
+        if (Files.exists(indexPath)) {
+            try (BufferedReader reader = Files.newBufferedReader(indexPath, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    Key key = Key.parse(line);
+                    indexLines++;
+                    if (key == null) {
+                        continue;
+                    }
+                    Key previous = keys.get(key.name);
+                    if (previous != null) {
+                        CachedObject previousObject = objects.get(previous.hash);
+                        if (previousObject != null) {
+                            previousObject.keys.remove(key.name);
+                        }
+                    }
+                    CachedObject cachedObject = objects.get(key.hash);
+                    if (cachedObject == null) {
+                        keys.remove(key.name);
+                        continue;
+                    }
+                    keys.put(key.name, key);
+                    cachedObject.keys.add(key.name);
+                }
+            }
+        }
+        Collection<CachedObject> unreferenced = new ArrayList<>();
+        for (CachedObject cachedObject : objects.values()) {
+            if (cachedObject.keys.isEmpty()) {
+                unreferenced.add(cachedObject);
+            }
+        }
+        for (CachedObject cachedObject : unreferenced) {
+            objects.remove(cachedObject.hash);
+            bytes -= cachedObject.size;
+            cachedObject.file.delete();
+        }
+        evictOverflow(null);
+        compactIndex();
+    }
+
+    private static File copy(FileChannel source, String filename) throws IOException {
+        String name = filename == null || filename.isEmpty() ? "media" : filename.replace('/', '_').replace('\\', '_');
+        Path target = Files.createTempFile(name + "#", extensionOf(filename));
+        try (FileChannel channel = FileChannel.open(target, StandardOpenOption.WRITE)) {
+            long size = source.size();
+            long position = 0;
+            while (position < size) {
+                long transferred = source.transferTo(position, size - position, channel);
+                if (transferred <= 0) {
+                    break;
+                }
+                position += transferred;
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(target);
+            throw e;
+        }
+        return target.toFile();
+    }
+
+    private static void move(File source, File target) throws IOException {
+        try {
+            Files.move(source.toPath(), target.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static String extensionOf(String filename) {
+        if (filename == null) {
+            return "";
+        }
+        int dot = filename.indexOf('.');
+        if (dot < 0 || dot == filename.length() - 1) {
+            return "";
+        }
+        StringBuilder extension = new StringBuilder(".");
+        for (int i = dot + 1; i < filename.length() && extension.length() <= 16; i++) {
+            char c = filename.charAt(i);
+            if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')) {
+                extension.append(c);
+            } else if (c == '.') {
+                extension.append('_');
+            }
+        }
+        return extension.length() == 1 ? "" : extension.toString();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[i * 2] = Character.forDigit((bytes[i] >> 4) & 0xF, 16);
+            chars[i * 2 + 1] = Character.forDigit(bytes[i] & 0xF, 16);
+        }
+        return new String(chars);
+    }
+
+    private static class CachedObject {
+
+        private final String hash;
+        private final File file;
+        private final long size;
+        private final Set<String> keys;
+
+        private CachedObject(String hash, File file, long size) {
+            this.hash = hash;
+            this.file = file;
+            this.size = size;
+            this.keys = new HashSet<>(2);
+        }
+    }
+
+    private static class Key {
+
+        private final String name;
+        private final String hash;
+        private final long storedAt;
+        private final String filename;
+
+        private Key(String name, String hash, long storedAt, String filename) {
+            this.name = name;
+            this.hash = hash;
+            this.storedAt = storedAt;
+            this.filename = filename == null || filename.isEmpty() ? null : filename.replace('\t', ' ').replace('\n', ' ').replace('\r', ' ');
+        }
+
+        private String toLine() {
+            String record = hash + '\t' + storedAt + '\t' + (filename == null ? "" : filename) + '\t' + name;
+            return Long.toHexString(checksum(record)) + '\t' + record + '\n';
+        }
+
+        private static Key parse(String line) {
+            int separator = line.indexOf('\t');
+            if (separator < 0) {
+                return null;
+            }
+            String record = line.substring(separator + 1);
+            int first = record.indexOf('\t');
+            int second = first < 0 ? -1 : record.indexOf('\t', first + 1);
+            if (second < 0 || second == record.length() - 1) {
+                return null;
+            }
+            int third = record.indexOf('\t', second + 1);
+            try {
+                if (Long.parseLong(line.substring(0, separator), 16) != checksum(record)) {
+                    return null;
+                }
+                long storedAt = Long.parseLong(record.substring(first + 1, second));
+                if (third < 0) {
+                    return new Key(record.substring(second + 1), record.substring(0, first), storedAt, null);
+                }
+                if (third == record.length() - 1) {
+                    return null;
+                }
+                return new Key(record.substring(third + 1), record.substring(0, first), storedAt, record.substring(second + 1, third));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+        private static long checksum(String record) {
+            CRC32 crc32 = new CRC32();
+            crc32.update(record.getBytes(StandardCharsets.UTF_8));
+            return crc32.getValue();
+        }
+    }
+}
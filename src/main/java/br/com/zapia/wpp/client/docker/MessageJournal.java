@@ -0,0 +1,800 @@
+package br.com.zapia.wpp.client.docker;
+
+import br.com.zapia.wpp.client.docker.model.Message;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+class MessageJournal implements AutoCloseable {
+
+    static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String LOG_SUFFIX = ".log";
+    private static final String INDEX_SUFFIX = ".idx";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final String CHECKPOINT_FILE = "chats" + INDEX_SUFFIX;
+    private static final byte PUT = 1;
+    private static final byte REMOVE = 2;
+    private static final int HEADER_SIZE = 4 + 4 + 1 + 8;
+    private static final int INDEX_MAGIC = 0x57504A49;
+    private static final int CHECKPOINT_MAGIC = 0x57504A43;
+    private static final int MAX_TASKS_PER_DRAIN = 64;
+    private static final Comparator<Entry> CHRONOLOGICAL = Comparator.<Entry>comparingLong(entry -> entry.timestamp).thenComparingLong(entry -> entry.ordinal);
+    private static final Comparator<Entry> STORED = Comparator.<Entry>comparingLong(entry -> entry.segment.id).thenComparingInt(entry -> entry.offset);
+
+    private final File directory;
+    private final int segmentSize;
+    private final ObjectMapper objectMapper;
+    private final Executor executor;
+    private final Consumer<Throwable> onError;
+    private final TreeMap<Long, Segment> segments;
+    private final Map<String, Entry> messages;
+    private final Map<String, NavigableSet<Entry>> chats;
+    private final ReentrantReadWriteLock lock;
+    private final Queue<Runnable> tasks;
+    private final AtomicBoolean draining;
+    private final AtomicBoolean compacting;
+    private final Object maintenance;
+    private Segment active;
+    private List<Record> activeRecords;
+    private int activeRecordsFrom;
+    private long ordinals;
+    private volatile boolean closed;
+
+    protected MessageJournal(File directory, int segmentSize, ObjectMapper objectMapper, Executor executor, Consumer<Throwable> onError) throws IOException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.objectMapper = objectMapper;
+        this.executor = executor;
+        this.onError = onError;
+        this.segments = new TreeMap<>();
+        this.messages = new HashMap<>();
+        this.chats = new HashMap<>();
+        this.lock = new ReentrantReadWriteLock();
+        this.tasks = new ConcurrentLinkedQueue<>();
+        this.draining = new AtomicBoolean();
+        this.compacting = new AtomicBoolean();
+        this.maintenance = new Object();
+        this.activeRecords = new ArrayList<>();
+        Files.createDirectories(directory.toPath());
+        recover();
+    }
+
+    protected void append(String event, byte[] payload) {
+        if (closed) {
+            return;
+        }
+        tasks.offer(() -> {
+            try {
+                JsonNode jsonNode = objectMapper.readTree(payload);
+                if (jsonNode.isArray()) {
+                    for (JsonNode jsonNode1 : jsonNode) {
+                        append(event, jsonNode1);
+                    }
+                } else {
+                    append(event, jsonNode);
+                }
+            } catch (IOException e) {
+                onError.accept(e);
+            }
+        });
+        schedule();
+    }
+
+    protected List<Message> history(String chatId, long beforeTimestamp, int limit, Function<JsonNode, Message> builder) throws IOException {
+        List<byte[]> payloads = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            NavigableSet<Entry> entries = chats.get(chatId);
+            if (entries != null) {
+                Entry before = new Entry(null, chatId, beforeTimestamp, Long.MIN_VALUE, null, 0, 0);
+                Iterator<Entry> iterator = entries.headSet(before, false).descendingIterator();
+                while (iterator.hasNext() && payloads.size() < limit) {
+                    payloads.add(readPayload(iterator.next()));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<Message> result = new ArrayList<>(payloads.size());
+        for (int i = payloads.size() - 1; i >= 0; i--) {
+            result.add(builder.apply(objectMapper.readTree(payloads.get(i))));
+        }
+        return result;
+    }
+
+    protected Message find(String id, Function<JsonNode, Message> builder) throws IOException {
+        byte[] payload;
+        lock.readLock().lock();
+        try {
+            Entry entry = messages.get(id);
+            if (entry == null) {
+                return null;
+            }
+            payload = readPayload(entry);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return builder.apply(objectMapper.readTree(payload));
+    }
+
+    protected int getMessages() {
+        lock.readLock().lock();
+        try {
+            return messages.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    protected int getSegments() {
+        lock.readLock().lock();
+        try {
+            return segments.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    protected void compact() throws IOException {
+        if (!compacting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            compactSealed();
+        } finally {
+            compacting.set(false);
+        }
+    }
+
+    private void compactSealed() throws IOException {
+        synchronized (maintenance) {
+            List<Segment> sealed;
+            List<Entry> live = new ArrayList<>();
+            lock.readLock().lock();
+            try {
+                sealed = new ArrayList<>(segments.headMap(active.id, false).values());
+                for (Entry entry : messages.values()) {
+                    if (entry.segment != active) {
+                        live.add(entry);
+                    }
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            if (sealed.isEmpty()) {
+                return;
+            }
+            live.sort(STORED);
+            List<List<Entry>> sources = new ArrayList<>();
+            List<List<Record>> outputs = new ArrayList<>();
+            List<Integer> positions = new ArrayList<>();
+            FileChannel channel = null;
+            int capacity = 0;
+            int position = 0;
+            try {
+                for (Entry entry : live) {
+                    if (channel == null || (position + entry.length + 4 > capacity && outputs.size() < sealed.size())) {
+                        if (channel != null) {
+                            channel.force(true);
+                            channel.close();
+                            positions.add(position);
+                        }
+                        channel = FileChannel.open(tempFile(sealed.get(outputs.size()).file).toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+                        capacity = Math.max(segmentSize, entry.segment.buffer.capacity());
+                        position = 0;
+                        sources.add(new ArrayList<>());
+                        outputs.add(new ArrayList<>());
+                    }
+                    ByteBuffer record = entry.segment.slice(entry.offset, entry.length);
+                    while (record.hasRemaining()) {
+                        channel.write(record);
+                    }
+                    sources.get(sources.size() - 1).add(entry);
+                    outputs.get(outputs.size() - 1).add(new Record(PUT, entry.id, entry.chatId, entry.timestamp, position, entry.length));
+                    position += entry.length;
+                }
+                if (channel != null) {
+                    channel.force(true);
+                    positions.add(position);
+                }
+            } finally {
+                if (channel != null) {
+                    channel.close();
+                }
+            }
+            Files.deleteIfExists(checkpointFile().toPath());
+            List<Segment> rewritten = new ArrayList<>();
+            for (int i = 0; i < outputs.size(); i++) {
+                Segment segment = sealed.get(i);
+                Files.deleteIfExists(segment.indexFile().toPath());
+                Files.move(tempFile(segment.file).toPath(), segment.file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                Segment compacted = openSegment(segment.id, 0, true);
+                compacted.position = positions.get(i);
+                compacted.writeIndex(outputs.get(i));
+                rewritten.add(compacted);
+            }
+            for (int i = outputs.size(); i < sealed.size(); i++) {
+                sealed.get(i).delete();
+            }
+            lock.writeLock().lock();
+            try {
+                for (Segment segment : sealed) {
+                    segments.remove(segment.id);
+                }
+                for (int i = 0; i < rewritten.size(); i++) {
+                    Segment compacted = rewritten.get(i);
+                    segments.put(compacted.id, compacted);
+                    List<Entry> moved = sources.get(i);
+                    List<Record> records = outputs.get(i);
+                    for (int j = 0; j < moved.size(); j++) {
+                        Entry entry = moved.get(j);
+                        Record record = records.get(j);
+                        compacted.total += record.length;
+                        if (messages.get(entry.id) == entry) {
+                            replace(entry, new Entry(entry.id, entry.chatId, entry.timestamp, entry.ordinal, compacted, record.offset, record.length));
+                        }
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            checkpoint();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        lock.writeLock().lock();
+        try {
+            for (Segment segment : segments.values()) {
+                segment.force();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        checkpoint();
+    }
+
+    private void schedule() {
+        if (draining.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        try {
+            Runnable task;
+            int executed = 0;
+            while (executed < MAX_TASKS_PER_DRAIN && (task = tasks.poll()) != null) {
+                try {
+                    task.run();
+                } catch (Exception e) {
+                    onError.accept(e);
+                }
+                executed++;
+            }
+        } finally {
+            draining.set(false);
+            if (!tasks.isEmpty()) {
+                schedule();
+            }
+        }
+    }
+
+    private void append(String event, JsonNode jsonNode) throws IOException {
+        Message message = Message.build(null, jsonNode);
+        if (message.getId() == null) {
+            return;
+        }
+        boolean rolled;
+        lock.writeLock().lock();
+        try {
+            if (closed) {
+                return;
+            }
+            long before = active.id;
+            if ("remove-msg".equals(event)) {
+                Entry entry = messages.get(message.getId());
+                if (entry == null) {
+                    return;
+                }
+                apply(writeRecord(REMOVE, message.getId(), entry.chatId, entry.timestamp, new byte[0]), active);
+            } else {
+                String chatId = message.getChatId() == null ? "" : message.getChatId();
+                apply(writeRecord(PUT, message.getId(), chatId, message.getTimestamp(), objectMapper.writeValueAsBytes(jsonNode)), active);
+            }
+            rolled = active.id != before;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (rolled) {
+            if (shouldCompact()) {
+                compact();
+            } else {
+                checkpoint();
+            }
+        }
+    }
+
+    private Record writeRecord(byte type, String id, String chatId, long timestamp, byte[] payload) throws IOException {
+        byte[] idBytes = id.getBytes(StandardCharsets.UTF_8);
+        byte[] chatIdBytes = chatId.getBytes(StandardCharsets.UTF_8);
+        int length = HEADER_SIZE + 2 + idBytes.length + 2 + chatIdBytes.length + payload.length;
+        ByteBuffer record = ByteBuffer.allocate(length);
+        record.putInt(length);
+        record.putInt(0);
+        record.put(type);
+        record.putLong(timestamp);
+        record.putShort((short) idBytes.length);
+        record.put(idBytes);
+        record.putShort((short) chatIdBytes.length);
+        record.put(chatIdBytes);
+        record.put(payload);
+        CRC32 crc32 = new CRC32();
+        crc32.update(record.array(), 8, length - 8);
+        record.putInt(4, (int) crc32.getValue());
+        record.flip();
+        Segment segment = segmentFor(length);
+        Record written = new Record(type, id, chatId, timestamp, segment.write(record), length);
+        activeRecords.add(written);
+        return written;
+    }
+
+    private Segment segmentFor(int length) throws IOException {
+        if (active.remaining() >= length + 4) {
+            return active;
+        }
+        active.force();
+        List<Record> records = activeRecords;
+        if (activeRecordsFrom > 0) {
+            records = new ArrayList<>();
+            active.scan(0, activeRecordsFrom, records);
+            records.addAll(activeRecords);
+        }
+        active.writeIndex(records);
+        Segment segment = openSegment(active.id + 1, Math.max(segmentSize, length + 4), false);
+        segments.put(segment.id, segment);
+        active = segment;
+        activeRecords = new ArrayList<>();
+        activeRecordsFrom = 0;
+        return active;
+    }
+
+    private void apply(Record record, Segment segment) {
+        segment.total += record.length;
+        Entry current = messages.remove(record.id);
+        if (current != null) {
+            current.segment.live -= current.length;
+            NavigableSet<Entry> entries = chats.get(current.chatId);
+            if (entries != null) {
+                entries.remove(current);
+                if (entries.isEmpty()) {
+                    chats.remove(current.chatId);
+                }
+            }
+        }
+        if (record.type == REMOVE) {
+            return;
+        }
+        index(new Entry(record.id, record.chatId, record.timestamp, current == null ? ordinals++ : current.ordinal, segment, record.offset, record.length));
+    }
+
+    private void index(Entry entry) {
+        entry.segment.live += entry.length;
+        messages.put(entry.id, entry);
+        chats.computeIfAbsent(entry.chatId, key -> new TreeSet<>(CHRONOLOGICAL)).add(entry);
+    }
+
+    private void replace(Entry current, Entry entry) {
+        current.segment.live -= current.length;
+        chats.get(current.chatId).remove(current);
+        index(entry);
+    }
+
+    private boolean shouldCompact() {
+        lock.readLock().lock();
+        try {
+            long total = 0;
+            long live = 0;
+            for (Segment segment : segments.headMap(active.id, false).values()) {
+                total += segment.total;
+                live += segment.live;
+            }
+            return total > 0 && live * 2 < total;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private byte[] readPayload(Entry entry) {
+        ByteBuffer record = entry.segment.slice(entry.offset, entry.length);
+        record.position(HEADER_SIZE);
+        record.position(record.position() + 2 + record.getShort(HEADER_SIZE));
+        record.position(record.position() + 2 + record.getShort(record.position()));
+        byte[] payload = new byte[record.remaining()];
+        record.get(payload);
+        return payload;
+    }
+
+    private void checkpoint() throws IOException {
+        synchronized (maintenance) {
+            long[] ids;
+            int[] positions;
+            long[] totals;
+            long nextOrdinal;
+            List<Entry[]> chatEntries;
+            lock.readLock().lock();
+            try {
+                ids = new long[segments.size()];
+                positions = new int[ids.length];
+                totals = new long[ids.length];
+                int i = 0;
+                for (Segment segment : segments.values()) {
+                    ids[i] = segment.id;
+                    positions[i] = segment.position;
+                    totals[i] = segment.total;
+                    i++;
+                }
+                nextOrdinal = ordinals;
+                chatEntries = new ArrayList<>(chats.size());
+                for (NavigableSet<Entry> entries : chats.values()) {
+                    chatEntries.add(entries.toArray(new Entry[0]));
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            File checkpoint = checkpointFile();
+            File temp = tempFile(checkpoint);
+            CRC32 crc32 = new CRC32();
+            try (DataOutputStream outputStream = new DataOutputStream(new CheckedOutputStream(new BufferedOutputStream(Files.newOutputStream(temp.toPath())), crc32))) {
+                outputStream.writeInt(CHECKPOINT_MAGIC);
+                outputStream.writeLong(nextOrdinal);
+                outputStream.writeInt(ids.length);
+                for (int i = 0; i < ids.length; i++) {
+                    outputStream.writeLong(ids[i]);
+                    outputStream.writeInt(positions[i]);
+                    outputStream.writeLong(totals[i]);
+                }
+                outputStream.writeInt(chatEntries.size());
+                for (Entry[] entries : chatEntries) {
+                    outputStream.writeUTF(entries[0].chatId);
+                    outputStream.writeInt(entries.length);
+                    for (Entry entry : entries) {
+                        outputStream.writeUTF(entry.id);
+                        outputStream.writeLong(entry.timestamp);
+                        outputStream.writeLong(entry.ordinal);
+                        outputStream.writeLong(entry.segment.id);
+                        outputStream.writeInt(entry.offset);
+                        outputStream.writeInt(entry.length);
+                    }
+                }
+                outputStream.writeLong(crc32.getValue());
+            }
+            Files.move(temp.toPath(), checkpoint.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+
+    private long loadCheckpoint() {
+        File checkpoint = checkpointFile();
+        if (!checkpoint.isFile()) {
+            return -1;
+        }
+        long nextOrdinal;
+        long[] ids;
+        int[] positions;
+        long[] totals;
+        List<Entry> entries = new ArrayList<>();
+        CRC32 crc32 = new CRC32();
+        try (DataInputStream inputStream = new DataInputStream(new CheckedInputStream(new BufferedInputStream(Files.newInputStream(checkpoint.toPath())), crc32))) {
+            if (inputStream.readInt() != CHECKPOINT_MAGIC) {
+                return -1;
+            }
+            nextOrdinal = inputStream.readLong();
+            ids = new long[inputStream.readInt()];
+            positions = new int[ids.length];
+            totals = new long[ids.length];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = inputStream.readLong();
+                positions[i] = inputStream.readInt();
+                totals[i] = inputStream.readLong();
+                if (!segments.containsKey(ids[i])) {
+                    return -1;
+                }
+            }
+            int chatCount = inputStream.readInt();
+            for (int i = 0; i < chatCount; i++) {
+                String chatId = inputStream.readUTF();
+                int size = inputStream.readInt();
+                for (int j = 0; j < size; j++) {
+                    String id = inputStream.readUTF();
+                    long timestamp = inputStream.readLong();
+                    long ordinal = inputStream.readLong();
+                    Segment segment = segments.get(inputStream.readLong());
+                    if (segment == null) {
+                        return -1;
+                    }
+                    entries.add(new Entry(id, chatId, timestamp, ordinal, segment, inputStream.readInt(), inputStream.readInt()));
+                }
+            }
+            long expected = crc32.getValue();
+            if (inputStream.readLong() != expected) {
+                return -1;
+            }
+        } catch (IOException e) {
+            return -1;
+        }
+        if (ids.length == 0 || segments.headMap(ids[ids.length - 1], true).size() != ids.length) {
+            return -1;
+        }
+        for (int i = 0; i < ids.length; i++) {
+            Segment segment = segments.get(ids[i]);
+            segment.position = positions[i];
+            segment.total = totals[i];
+        }
+        for (Entry entry : entries) {
+            index(entry);
+        }
+        ordinals = nextOrdinal;
+        return ids[ids.length - 1];
+    }
+
+    private void recover() throws IOException {
+        File[] files = directory.listFiles();
+        for (File file : files == null ? new File[0] : files) {
+            String name = file.getName();
+            if (name.endsWith(TEMP_SUFFIX)) {
+                Files.deleteIfExists(file.toPath());
+            } else if (name.startsWith(SEGMENT_PREFIX) && name.endsWith(LOG_SUFFIX)) {
+                long id = segmentId(file);
+                if (id >= 0) {
+                    segments.put(id, openSegment(id, 0, true));
+                }
+            }
+        }
+        long resumeId = loadCheckpoint();
+        List<Segment> replay = new ArrayList<>(segments.tailMap(resumeId, true).values());
+        for (int i = 0; i < replay.size(); i++) {
+            Segment segment = replay.get(i);
+            boolean last = i == replay.size() - 1;
+            int from = segment.id == resumeId ? segment.position : 0;
+            List<Record> records = from == 0 && !last ? segment.readIndex() : null;
+            if (records == null) {
+                records = new ArrayList<>();
+                segment.position = segment.scan(from, segment.buffer.capacity(), records);
+            }
+            for (Record record : records) {
+                apply(record, segment);
+            }
+            if (last) {
+                activeRecords = records;
+                activeRecordsFrom = from;
+            }
+        }
+        if (segments.isEmpty()) {
+            active = openSegment(0, segmentSize, false);
+            segments.put(active.id, active);
+        } else {
+            active = segments.lastEntry().getValue();
+        }
+    }
+
+    private Segment openSegment(long id, int size, boolean existing) throws IOException {
+        File file = new File(directory, SEGMENT_PREFIX + String.format("%020d", id) + LOG_SUFFIX);
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            int capacity = existing ? (int) Math.max(channel.size(), segmentSize) : size;
+            return new Segment(id, file, channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity));
+        }
+    }
+
+    private File checkpointFile() {
+        return new File(directory, CHECKPOINT_FILE);
+    }
+
+    private static File tempFile(File file) {
+        return new File(file.getParentFile(), file.getName() + TEMP_SUFFIX);
+    }
+
+    private static long segmentId(File file) {
+        String name = file.getName();
+        try {
+            return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - LOG_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static class Record {
+
+        private final byte type;
+        private final String id;
+        private final String chatId;
+        private final long timestamp;
+        private final int offset;
+        private final int length;
+
+        private Record(byte type, String id, String chatId, long timestamp, int offset, int length) {
+            this.type = type;
+            this.id = id;
+            this.chatId = chatId;
+            this.timestamp = timestamp;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+
+    private static class Entry {
+
+        private final String id;
+        private final String chatId;
+        private final long timestamp;
+        private final long ordinal;
+        private final Segment segment;
+        private final int offset;
+        private final int length;
+
+        private Entry(String id, String chatId, long timestamp, long ordinal, Segment segment, int offset, int length) {
+            this.id = id;
+            this.chatId = chatId;
+            this.timestamp = timestamp;
+            this.ordinal = ordinal;
+            this.segment = segment;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+
+    private static class Segment {
+
+        private final long id;
+        private final File file;
+        private final MappedByteBuffer buffer;
+        private int position;
+        private long total;
+        private long live;
+
+        private Segment(long id, File file, MappedByteBuffer buffer) {
+            this.id = id;
+            this.file = file;
+            this.buffer = buffer;
+        }
+
+        private int remaining() {
+            return buffer.capacity() - position;
+        }
+
+        private int write(ByteBuffer record) {
+            int offset = position;
+            position += record.remaining();
+            ByteBuffer target = buffer.duplicate();
+            target.position(offset);
+            target.put(record);
+            return offset;
+        }
+
+        private ByteBuffer slice(int offset, int length) {
+            ByteBuffer slice = buffer.duplicate();
+            slice.position(offset).limit(offset + length);
+            return slice.slice();
+        }
+
+        private void force() {
+            buffer.force();
+        }
+
+        private File indexFile() {
+            return new File(file.getParentFile(), file.getName().substring(0, file.getName().length() - LOG_SUFFIX.length()) + INDEX_SUFFIX);
+        }
+
+        private void writeIndex(List<Record> records) throws IOException {
+            File index = indexFile();
+            File temp = tempFile(index);
+            try (DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp.toPath())))) {
+                outputStream.writeInt(INDEX_MAGIC);
+                outputStream.writeInt(position);
+                outputStream.writeInt(records.size());
+                for (Record record : records) {
+                    outputStream.writeByte(record.type);
+                    outputStream.writeUTF(record.id);
+                    outputStream.writeUTF(record.chatId);
+                    outputStream.writeLong(record.timestamp);
+                    outputStream.writeInt(record.offset);
+                    outputStream.writeInt(record.length);
+                }
+            }
+            Files.move(temp.toPath(), index.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+
+        private List<Record> readIndex() {
+            File index = indexFile();
+            if (!index.isFile()) {
+                return null;
+            }
+            List<Record> records;
+            int end;
+            try (DataInputStream inputStream = new DataInputStream(new BufferedInputStream(Files.newInputStream(index.toPath())))) {
+                if (inputStream.readInt() != INDEX_MAGIC) {
+                    return null;
+                }
+                end = inputStream.readInt();
+                int size = inputStream.readInt();
+                records = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    records.add(new Record(inputStream.readByte(), inputStream.readUTF(), inputStream.readUTF(), inputStream.readLong(), inputStream.readInt(), inputStream.readInt()));
+                }
+            } catch (IOException e) {
+                return null;
+            }
+            position = end;
+            return records;
+        }
+
+        private int scan(int from, int limit, List<Record> records) {
+            int offset = from;
+            CRC32 crc32 = new CRC32();
+            while (offset + HEADER_SIZE <= limit) {
+                int length = buffer.getInt(offset);
+                if (length < HEADER_SIZE || offset + length > limit) {
+                    break;
+                }
+                ByteBuffer record = slice(offset, length);
+                crc32.reset();
+                crc32.update(slice(offset + 8, length - 8));
+                if ((int) crc32.getValue() != record.getInt(4)) {
+                    break;
+                }
+                byte type = record.get(8);
+                long timestamp = record.getLong(9);
+                record.position(HEADER_SIZE);
+                records.add(new Record(type, readString(record), readString(record), timestamp, offset, length));
+                offset += length;
+            }
+            return offset;
+        }
+
+        private static String readString(ByteBuffer record) {
+            byte[] bytes = new byte[record.getShort()];
+            record.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        private void delete() throws IOException {
+            Files.deleteIfExists(indexFile().toPath());
+            Files.deleteIfExists(file.toPath());
+        }
+    }
+}
@@ -0,0 +1,519 @@
+package br.com.zapia.wpp.client.docker;
+
+import br.com.zapia.wpp.client.docker.model.MediaMessage;
+import br.com.zapia.wpp.client.docker.model.Message;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+class MessageSearchIndex {
+
+    private static final int MAX_TOKEN_LENGTH = 64;
+    private static final int MAX_TASKS_PER_DRAIN = 64;
+    private static final int TIMESTAMP_BLOCK_SIZE = 1024;
+    private static final String CHAT_TERM_PREFIX = "\u0000chat:";
+    private static final int MIN_DOCUMENTS_TO_COMPACT = 1024;
+
+    private final ObjectMapper objectMapper;
+    private final Executor executor;
+    private final Consumer<Throwable> onError;
+    private final ReentrantReadWriteLock lock;
+    private final Queue<Runnable> tasks;
+    private final AtomicBoolean draining;
+    private Map<String, PostingList> postings;
+    private Map<String, Integer> documents;
+    private BitSet deleted;
+    private String[] ids;
+    private long[] timestamps;
+    private long[] fingerprints;
+    private long[] maxTimestamps;
+    private int size;
+    private int tombstones;
+
+    protected MessageSearchIndex(ObjectMapper objectMapper, Executor executor, Consumer<Throwable> onError) {
+        this.objectMapper = objectMapper;
+        this.executor = executor;
+        this.onError = onError;
+        this.lock = new ReentrantReadWriteLock();
+        this.tasks = new ConcurrentLinkedQueue<>();
+        this.draining = new AtomicBoolean();
+        this.postings = new HashMap<>();
+        this.documents = new HashMap<>();
+        this.deleted = new BitSet();
+        this.ids = new String[1024];
+        this.timestamps = new long[1024];
+        this.fingerprints = new long[1024];
+        this.maxTimestamps = new long[1];
+    }
+
+    protected void append(String event, byte[] payload) {
+        tasks.offer(() -> {
+            try {
+                JsonNode jsonNode = objectMapper.readTree(payload);
+                if (jsonNode.isArray()) {
+                    for (JsonNode jsonNode1 : jsonNode) {
+                        apply(event, Message.build(null, jsonNode1));
+                    }
+                } else {
+                    apply(event, Message.build(null, jsonNode));
+                }
+            } catch (IOException e) {
+                onError.accept(e);
+            }
+        });
+        schedule();
+    }
+
+    protected List<String> search(String chatId, String query, int limit) {
+        Set<String> terms = new LinkedHashSet<>();
+        tokenize(query, terms);
+        if (terms.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+        if (chatId != null) {
+            terms.add(CHAT_TERM_PREFIX + chatId);
+        }
+        lock.readLock().lock();
+        try {
+            PostingList[] lists = new PostingList[terms.size()];
+            int i = 0;
+            for (String term : terms) {
+                PostingList postingList = postings.get(term);
+                if (postingList == null) {
+                    return Collections.emptyList();
+                }
+                lists[i++] = postingList;
+            }
+            Arrays.sort(lists, (a, b) -> Integer.compare(a.count, b.count));
+            Probe[] probes = new Probe[lists.length - 1];
+            for (int j = 1; j < lists.length; j++) {
+                probes[j - 1] = new Probe(lists[j]);
+            }
+            PriorityQueue<Integer> top = new PriorityQueue<>(limit + 1, (a, b) -> compareRecency(b, a));
+            int[] docs = new int[PostingList.BLOCK_SIZE];
+            for (int block = lists[0].blocks() - 1; block >= 0; block--) {
+                int count = lists[0].decodeBlock(block, docs);
+                for (int k = count - 1; k >= 0; k--) {
+                    int doc = docs[k];
+                    if (deleted.get(doc) || !containsAll(probes, doc)) {
+                        continue;
+                    }
+                    if (top.size() < limit) {
+                        top.offer(doc);
+                    } else if (compareRecency(doc, top.peek()) < 0) {
+                        top.poll();
+                        top.offer(doc);
+                    }
+                }
+                if (top.size() == limit && docs[0] > 0 && timestamps[top.peek()] >= maxTimestampBefore(docs[0])) {
+                    break;
+                }
+            }
+            return ranked(top);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    protected int getDocuments() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    protected int getTerms() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    protected int getTombstones() {
+        lock.readLock().lock();
+        try {
+            return tombstones;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static boolean containsAll(Probe[] probes, int doc) {
+        for (Probe probe : probes) {
+            if (!probe.contains(doc)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long maxTimestampBefore(int doc) {
+        return maxTimestamps[(doc - 1) / TIMESTAMP_BLOCK_SIZE];
+    }
+
+    private int compareRecency(int a, int b) {
+        int compare = Long.compare(timestamps[b], timestamps[a]);
+        return compare != 0 ? compare : Integer.compare(b, a);
+    }
+
+    private List<String> ranked(PriorityQueue<Integer> top) {
+        String[] result = new String[top.size()];
+        for (int i = result.length - 1; i >= 0; i--) {
+            result[i] = ids[top.poll()];
+        }
+        return Arrays.asList(result);
+    }
+
+    private void apply(String event, Message message) {
+        String id = message.getId();
+        if (id == null) {
+            return;
+        }
+        Set<String> terms = new LinkedHashSet<>();
+        if (!"remove-msg".equals(event)) {
+            tokenize(textOf(message), terms);
+        }
+        if (terms.isEmpty() && "update-msg".equals(event)) {
+            return;
+        }
+        if (!terms.isEmpty() && message.getChatId() != null) {
+            terms.add(CHAT_TERM_PREFIX + message.getChatId());
+        }
+        long fingerprint = fingerprint(terms, message.getTimestamp());
+        Integer current = documents.get(id);
+        if (current != null && !terms.isEmpty() && fingerprints[current] == fingerprint) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            Integer previous = documents.remove(id);
+            if (previous != null) {
+                deleted.set(previous);
+                ids[previous] = null;
+                tombstones++;
+            }
+            if (!terms.isEmpty()) {
+                int doc = size++;
+                if (doc == ids.length) {
+                    int capacity = ids.length * 2;
+                    ids = Arrays.copyOf(ids, capacity);
+                    timestamps = Arrays.copyOf(timestamps, capacity);
+                    fingerprints = Arrays.copyOf(fingerprints, capacity);
+                }
+                ids[doc] = id;
+                timestamps[doc] = message.getTimestamp();
+                fingerprints[doc] = fingerprint;
+                int timestampBlock = doc / TIMESTAMP_BLOCK_SIZE;
+                if (timestampBlock == maxTimestamps.length) {
+                    maxTimestamps = Arrays.copyOf(maxTimestamps, timestampBlock * 2);
+                }
+                if (doc % TIMESTAMP_BLOCK_SIZE == 0) {
+                    maxTimestamps[timestampBlock] = timestampBlock == 0 ? Long.MIN_VALUE : maxTimestamps[timestampBlock - 1];
+                }
+                maxTimestamps[timestampBlock] = Math.max(maxTimestamps[timestampBlock], message.getTimestamp());
+                documents.put(id, doc);
+                for (String term : terms) {
+                    postings.computeIfAbsent(term, key -> new PostingList()).add(doc);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (size >= MIN_DOCUMENTS_TO_COMPACT && tombstones * 2 > size) {
+            compact();
+        }
+    }
+
+    private void compact() {
+        int[] remap = new int[size];
+        int live = 0;
+        for (int doc = 0; doc < size; doc++) {
+            remap[doc] = deleted.get(doc) ? -1 : live++;
+        }
+        int capacity = Math.max(1024, Integer.highestOneBit(Math.max(1, live)) * 2);
+        String[] compactedIds = new String[capacity];
+        long[] compactedTimestamps = new long[capacity];
+        long[] compactedFingerprints = new long[capacity];
+        long[] compactedMaxTimestamps = new long[Math.max(1, (capacity + TIMESTAMP_BLOCK_SIZE - 1) / TIMESTAMP_BLOCK_SIZE)];
+        long maxTimestamp = Long.MIN_VALUE;
+        for (int doc = 0; doc < size; doc++) {
+            int target = remap[doc];
+            if (target < 0) {
+                continue;
+            }
+            compactedIds[target] = ids[doc];
+            compactedTimestamps[target] = timestamps[doc];
+            compactedFingerprints[target] = fingerprints[doc];
+            maxTimestamp = Math.max(maxTimestamp, timestamps[doc]);
+            compactedMaxTimestamps[target / TIMESTAMP_BLOCK_SIZE] = maxTimestamp;
+        }
+        Map<String, Integer> compactedDocuments = new HashMap<>(Math.max(16, live * 4 / 3 + 1));
+        for (int doc = 0; doc < live; doc++) {
+            compactedDocuments.put(compactedIds[doc], doc);
+        }
+        Map<String, PostingList> compactedPostings = new HashMap<>(Math.max(16, postings.size() * 4 / 3 + 1));
+        int[] docs = new int[PostingList.BLOCK_SIZE];
+        for (Map.Entry<String, PostingList> entry : postings.entrySet()) {
+            PostingList postingList = entry.getValue();
+            PostingList compacted = null;
+            for (int block = 0; block < postingList.blocks(); block++) {
+                int count = postingList.decodeBlock(block, docs);
+                for (int k = 0; k < count; k++) {
+                    int target = remap[docs[k]];
+                    if (target >= 0) {
+                        if (compacted == null) {
+                            compacted = new PostingList();
+                        }
+                        compacted.add(target);
+                    }
+                }
+            }
+            if (compacted != null) {
+                compactedPostings.put(entry.getKey(), compacted);
+            }
+        }
+        lock.writeLock().lock();
+        try {
+            postings = compactedPostings;
+            documents = compactedDocuments;
+            deleted = new BitSet();
+            ids = compactedIds;
+            timestamps = compactedTimestamps;
+            fingerprints = compactedFingerprints;
+            maxTimestamps = compactedMaxTimestamps;
+            size = live;
+            tombstones = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static long fingerprint(Set<String> terms, long timestamp) {
+        long hash = 0xCBF29CE484222325L ^ timestamp;
+        for (String term : terms) {
+            for (int i = 0, n = term.length(); i < n; i++) {
+                hash = (hash ^ term.charAt(i)) * 0x100000001B3L;
+            }
+            hash = (hash ^ 0xFFFF) * 0x100000001B3L;
+        }
+        return hash;
+    }
+
+    private static String textOf(Message message) {
+        if (message instanceof MediaMessage) {
+            return ((MediaMessage) message).getCaption();
+        }
+        if ("chat".equals(message.getType())) {
+            return message.getBody();
+        }
+        return null;
+    }
+
+    static void tokenize(String text, Set<String> terms) {
+        if (text == null) {
+            return;
+        }
+        char[] token = new char[MAX_TOKEN_LENGTH];
+        int length = 0;
+        for (int i = 0, n = text.length(); i <= n; i++) {
+            char c = i < n ? fold(text.charAt(i)) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                if (length < MAX_TOKEN_LENGTH) {
+                    token[length++] = c;
+                }
+            } else if (length > 0) {
+                terms.add(new String(token, 0, length));
+                length = 0;
+            }
+        }
+    }
+
+    static char fold(char c) {
+        if (c < 0x80) {
+            return c >= 'A' && c <= 'Z' ? (char) (c + 32) : c;
+        }
+        switch (Character.toLowerCase(c)) {
+            case 'á':
+            case 'à':
+            case 'â':
+            case 'ã':
+            case 'ä':
+            case 'å':
+            case 'ª':
+                return 'a';
+            case 'é':
+            case 'è':
+            case 'ê':
+            case 'ë':
+                return 'e';
+            case 'í':
+            case 'ì':
+            case 'î':
+            case 'ï':
+                return 'i';
+            case 'ó':
+            case 'ò':
+            case 'ô':
+            case 'õ':
+            case 'ö':
+            case 'º':
+                return 'o';
+            case 'ú':
+            case 'ù':
+            case 'û':
+            case 'ü':
+                return 'u';
+            case 'ç':
+                return 'c';
+            case 'ñ':
+                return 'n';
+            default:
+                return Character.toLowerCase(c);
+        }
+    }
+
+    private void schedule() {
+        if (draining.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        try {
+            Runnable task;
+            int executed = 0;
+            while (executed < MAX_TASKS_PER_DRAIN && (task = tasks.poll()) != null) {
+                try {
+                    task.run();
+                } catch (Exception e) {
+                    onError.accept(e);
+                }
+                executed++;
+            }
+        } finally {
+            draining.set(false);
+            if (!tasks.isEmpty()) {
+                schedule();
+            }
+        }
+    }
+
+    static class PostingList {
+
+        private static final int BLOCK_SIZE = 128;
+
+        private byte[] data;
+        private int length;
+        private int count;
+        private int last;
+        private int[] blockDocs;
+        private int[] blockOffsets;
+
+        private PostingList() {
+            this.data = new byte[8];
+            this.blockDocs = new int[1];
+            this.blockOffsets = new int[1];
+        }
+
+        private void add(int doc) {
+            int block = count / BLOCK_SIZE;
+            if (count % BLOCK_SIZE == 0) {
+                if (block == blockDocs.length) {
+                    blockDocs = Arrays.copyOf(blockDocs, block * 2);
+                    blockOffsets = Arrays.copyOf(blockOffsets, block * 2);
+                }
+                blockDocs[block] = doc;
+                blockOffsets[block] = length;
+                writeVarInt(doc);
+            } else {
+                writeVarInt(doc - last);
+            }
+            last = doc;
+            count++;
+        }
+
+        private int blocks() {
+            return (count + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        }
+
+        private int decodeBlock(int block, int[] docs) {
+            int size = Math.min(BLOCK_SIZE, count - block * BLOCK_SIZE);
+            int position = blockOffsets[block];
+            int doc = 0;
+            for (int i = 0; i < size; i++) {
+                int value = 0;
+                int shift = 0;
+                byte b;
+                do {
+                    b = data[position++];
+                    value |= (b & 0x7F) << shift;
+                    shift += 7;
+                } while (b < 0);
+                doc = i == 0 ? value : doc + value;
+                docs[i] = doc;
+            }
+            return size;
+        }
+
+        private void writeVarInt(int value) {
+            if (length + 5 > data.length) {
+                data = Arrays.copyOf(data, Math.max(data.length * 2, length + 5));
+            }
+            while ((value & ~0x7F) != 0) {
+                data[length++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            data[length++] = (byte) value;
+        }
+    }
+
+    private static class Probe {
+
+        private final PostingList postingList;
+        private final int[] docs;
+        private int block;
+        private int size;
+
+        private Probe(PostingList postingList) {
+            this.postingList = postingList;
+            this.docs = new int[PostingList.BLOCK_SIZE];
+            this.block = -1;
+        }
+
+        private boolean contains(int doc) {
+            int found = Arrays.binarySearch(postingList.blockDocs, 0, postingList.blocks(), doc);
+            if (found >= 0) {
+                return true;
+            }
+            int candidate = -found - 2;
+            if (candidate < 0) {
+                return false;
+            }
+            if (candidate != block) {
+                size = postingList.decodeBlock(candidate, docs);
+                block = candidate;
+            }
+            return Arrays.binarySearch(docs, 0, size, doc) >= 0;
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package br.com.zapia.wpp.client.docker;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.handler.codec.http.HttpClientCodec;
+import io.netty.handler.codec.http.HttpObjectAggregator;
+import io.netty.handler.codec.http.websocketx.CloseWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.PingWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.TextWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.WebSocketClientProtocolConfig;
+import io.netty.handler.codec.http.websocketx.WebSocketClientProtocolHandler;
+import io.netty.handler.codec.http.websocketx.WebSocketFrame;
+import io.netty.handler.codec.http.websocketx.WebSocketFrameAggregator;
+import io.netty.handler.codec.http.websocketx.WebSocketVersion;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+class NettyWsConnection implements WsConnection {
+
+    private static final int MAX_HANDSHAKE_SIZE = 64 * 1024;
+    private static final int MAX_FRAME_SIZE = 256 * 1024 * 1024;
+    private static final int NORMAL_CLOSE = 1000;
+    private static final int NO_STATUS_CLOSE = 1005;
+    private static final int ABNORMAL_CLOSE = 1006;
+    private static final int NEVER_CONNECTED = -1;
+
+    private final URI serverUri;
+    private final Listener listener;
+    private final EventLoopGroup eventLoopGroup;
+    private final CompletableFuture<Boolean> handshake;
+    private final AtomicBoolean closed;
+    private volatile Channel channel;
+    private volatile boolean open;
+    private volatile boolean closedLocally;
+    private volatile int closeCode;
+    private volatile String closeReason;
+
+    protected NettyWsConnection(URI serverUri, Listener listener, EventLoopGroup eventLoopGroup) {
+        this.serverUri = serverUri;
+        this.listener = listener;
+        this.eventLoopGroup = eventLoopGroup;
+        this.handshake = new CompletableFuture<>();
+        this.closed = new AtomicBoolean();
+        this.closeCode = ABNORMAL_CLOSE;
+        this.closeReason = "";
+    }
+
+    @Override
+    public boolean connectBlocking(long timeout, TimeUnit timeUnit) throws InterruptedException {
+        WebSocketClientProtocolConfig protocolConfig = WebSocketClientProtocolConfig.newBuilder()
+                .webSocketUri(serverUri)
+                .version(WebSocketVersion.V13)
+                .allowExtensions(false)
+                .maxFramePayloadLength(MAX_FRAME_SIZE)
+                .handleCloseFrames(false)
+                .handshakeTimeoutMillis(timeUnit.toMillis(timeout))
+                .build();
+        Bootstrap bootstrap = new Bootstrap()
+                .group(eventLoopGroup)
+                .channel(NioSocketChannel.class)
+                .option(ChannelOption.TCP_NODELAY, true)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) Math.min(Integer.MAX_VALUE, timeUnit.toMillis(timeout)))
+                .handler(new ChannelInitializer<SocketChannel>() {
+                    @Override
+                    protected void initChannel(SocketChannel socketChannel) {
+                        socketChannel.pipeline().addLast(
+                                new HttpClientCodec(),
+                                new HttpObjectAggregator(MAX_HANDSHAKE_SIZE),
+                                new WebSocketClientProtocolHandler(protocolConfig),
+                                new WebSocketFrameAggregator(MAX_FRAME_SIZE),
+                                new FrameHandler());
+                    }
+                });
+        int port = serverUri.getPort() == -1 ? 80 : serverUri.getPort();
+        ChannelFuture connectFuture = bootstrap.connect(serverUri.getHost(), port);
+        channel = connectFuture.channel();
+        connectFuture.addListener((ChannelFutureListener) future -> {
+            if (!future.isSuccess()) {
+                failHandshake(future.cause());
+            }
+        });
+        try {
+            return handshake.get(timeout, timeUnit);
+        } catch (ExecutionException | TimeoutException e) {
+            channel.close();
+            return false;
+        }
+    }
+
+    @Override
+    public boolean isOpen() {
+        return open;
+    }
+
+    @Override
+    public void sendTextFrames(List<ByteBuffer> frames) {
+        Channel channel = this.channel;
+        if (!open || channel == null || !channel.isActive()) {
+            throw new IllegalStateException("Websocket not connected");
+        }
+        for (ByteBuffer frame : frames) {
+            ByteBuf content = channel.alloc().buffer(frame.remaining());
+            content.writeBytes(frame.duplicate());
+            channel.write(new TextWebSocketFrame(content));
+        }
+        channel.flush();
+    }
+
+    @Override
+    public void sendPing() {
+        Channel channel = this.channel;
+        if (open && channel != null) {
+            channel.writeAndFlush(new PingWebSocketFrame());
+        }
+    }
+
+    @Override
+    public void close() {
+        Channel channel = this.channel;
+        if (channel == null) {
+            return;
+        }
+        if (!closedLocally && !closed.get()) {
+            closedLocally = true;
+            closeCode = NORMAL_CLOSE;
+        }
+        if (open) {
+            open = false;
+            channel.writeAndFlush(new CloseWebSocketFrame(NORMAL_CLOSE, "")).addListener(ChannelFutureListener.CLOSE);
+        } else {
+            channel.close();
+        }
+    }
+
+    @Override
+    public InetSocketAddress getRemoteSocketAddress() {
+        Channel channel = this.channel;
+        return channel == null ? null : (InetSocketAddress) channel.remoteAddress();
+    }
+
+    private void failHandshake(Throwable cause) {
+        Exception exception = cause instanceof Exception ? (Exception) cause : new RuntimeException(cause);
+        if (handshake.completeExceptionally(exception)) {
+            listener.onError(exception);
+            if (closed.compareAndSet(false, true)) {
+                listener.onClose(NEVER_CONNECTED, String.valueOf(cause.getMessage()), false);
+            }
+        }
+    }
+
+    private class FrameHandler extends SimpleChannelInboundHandler<WebSocketFrame> {
+
+        @Override
+        public void userEventTriggered(ChannelHandlerContext ctx, Object evt) throws Exception {
+            if (evt == WebSocketClientProtocolHandler.ClientHandshakeStateEvent.HANDSHAKE_COMPLETE) {
+                open = true;
+                if (handshake.complete(true)) {
+                    listener.onOpen();
+                }
+            } else if (evt == WebSocketClientProtocolHandler.ClientHandshakeStateEvent.HANDSHAKE_TIMEOUT) {
+                failHandshake(new TimeoutException("Websocket handshake timed out"));
+                ctx.close();
+            }
+            super.userEventTriggered(ctx, evt);
+        }
+
+        @Override
+        protected void channelRead0(ChannelHandlerContext ctx, WebSocketFrame frame) {
+            if (frame instanceof TextWebSocketFrame) {
+                listener.onMessage(((TextWebSocketFrame) frame).text());
+            } else if (frame instanceof CloseWebSocketFrame) {
+                CloseWebSocketFrame closeFrame = (CloseWebSocketFrame) frame;
+                int statusCode = closeFrame.statusCode();
+                if (!closedLocally) {
+                    closeCode = statusCode == -1 ? NO_STATUS_CLOSE : statusCode;
+                    closeReason = closeFrame.reasonText();
+                }
+                if (open) {
+                    open = false;
+                    CloseWebSocketFrame reply = statusCode == -1 ? new CloseWebSocketFrame() : new CloseWebSocketFrame(statusCode, closeFrame.reasonText());
+                    ctx.writeAndFlush(reply).addListener(ChannelFutureListener.CLOSE);
+                } else {
+                    ctx.close();
+                }
+            }
+        }
+
+        @Override
+        public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+            open = false;
+            if (!handshake.isDone()) {
+                failHandshake(new IllegalStateException("Connection closed before websocket handshake"));
+            } else if (closed.compareAndSet(false, true)) {
+                listener.onClose(closeCode, closeReason, !closedLocally);
+            }
+            super.channelInactive(ctx);
+        }
+
+        @Override
+        public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+            if (!handshake.isDone()) {
+                failHandshake(cause);
+            } else {
+                listener.onError(cause instanceof Exception ? (Exception) cause : new RuntimeException(cause));
+            }
+            ctx.close();
+        }
+    }
+}
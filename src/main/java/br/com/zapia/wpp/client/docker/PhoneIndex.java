@@ -0,0 +1,186 @@
+package br.com.zapia.wpp.client.docker;
+
+import java.util.Arrays;
+
+class PhoneIndex {
+
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int MAX_DIGITS = 18;
+    private static final String USER_SUFFIX = "@c.us";
+
+    private long[] keys;
+    private String[] values;
+    private int size;
+
+    protected PhoneIndex() {
+        this.keys = new long[INITIAL_CAPACITY];
+        this.values = new String[INITIAL_CAPACITY];
+    }
+
+    protected synchronized void put(String id) {
+        long key = keyOfId(id);
+        if (key <= 0) {
+            return;
+        }
+        if ((size + 1) * 4 > keys.length * 3) {
+            resize(keys.length * 2);
+        }
+        int mask = keys.length - 1;
+        int slot = slot(key, mask);
+        while (keys[slot] != 0) {
+            if (keys[slot] == key) {
+                values[slot] = id;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = id;
+        size++;
+    }
+
+    protected synchronized void remove(String id) {
+        long key = keyOfId(id);
+        if (key <= 0) {
+            return;
+        }
+        int mask = keys.length - 1;
+        int slot = slot(key, mask);
+        while (keys[slot] != 0) {
+            if (keys[slot] == key) {
+                if (id.equals(values[slot])) {
+                    delete(slot, mask);
+                }
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    protected String get(String number) {
+        long key = keyOfNumber(number);
+        if (key <= 0) {
+            return null;
+        }
+        String id = get(key);
+        if (id == null) {
+            long alternative = alternativeKey(key);
+            if (alternative > 0) {
+                id = get(alternative);
+            }
+        }
+        return id;
+    }
+
+    protected synchronized int size() {
+        return size;
+    }
+
+    protected synchronized void clear() {
+        Arrays.fill(keys, 0);
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    private synchronized String get(long key) {
+        int mask = keys.length - 1;
+        int slot = slot(key, mask);
+        while (keys[slot] != 0) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    private void delete(int slot, int mask) {
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (keys[next] != 0) {
+            int home = slot(keys[next], mask);
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[hole] = 0;
+        values[hole] = null;
+        size--;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        String[] oldValues = values;
+        keys = new long[capacity];
+        values = new String[capacity];
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int slot = slot(oldKeys[i], mask);
+                while (keys[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private static int slot(long key, int mask) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    static long keyOfId(String id) {
+        if (id == null || !id.endsWith(USER_SUFFIX)) {
+            return -1;
+        }
+        return parseDigits(id, 0, id.length() - USER_SUFFIX.length(), false);
+    }
+
+    static long keyOfNumber(String number) {
+        if (number == null) {
+            return -1;
+        }
+        int end = number.indexOf('@');
+        return parseDigits(number, 0, end < 0 ? number.length() : end, true);
+    }
+
+    private static long parseDigits(String value, int start, int end, boolean skipFormatting) {
+        long key = 0;
+        int digits = 0;
+        for (int i = start; i < end; i++) {
+            char c = value.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (++digits > MAX_DIGITS) {
+                    return -1;
+                }
+                key = key * 10 + (c - '0');
+            } else if (!skipFormatting || (c != ' ' && c != '+' && c != '(' && c != ')' && c != '-' && c != '.')) {
+                return -1;
+            }
+        }
+        return digits == 0 ? -1 : key;
+    }
+
+    private static long alternativeKey(long key) {
+        if (key >= 55_00_9_0000_0000L && key < 56_00_0_0000_0000L) {
+            long local = key % 1_0000_0000L;
+            long ninth = key / 1_0000_0000L % 10;
+            long area = key / 10_0000_0000L % 100;
+            if (ninth == 9) {
+                return (5500 + area) * 1_0000_0000L + local;
+            }
+            return -1;
+        }
+        if (key >= 55_00_0000_0000L && key < 56_00_0000_0000L) {
+            long local = key % 1_0000_0000L;
+            long area = key / 1_0000_0000L % 100;
+            return ((5500 + area) * 10 + 9) * 1_0000_0000L + local;
+        }
+        return -1;
+    }
+}
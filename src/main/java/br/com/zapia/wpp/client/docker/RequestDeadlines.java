@@ -0,0 +1,36 @@
+package br.com.zapia.wpp.client.docker;
+
+import br.com.zapia.wpp.api.model.handlersWebSocket.EventWebSocket;
+import io.netty.util.Timeout;
+import io.netty.util.Timer;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+class RequestDeadlines {
+
+    private final Timer timer;
+    private final Duration defaultTimeout;
+    private final Map<EventWebSocket, Duration> eventTimeouts;
+
+    protected RequestDeadlines(Duration defaultTimeout, Map<EventWebSocket, Duration> eventTimeouts, Timer timer) {
+        this.timer = timer;
+        this.defaultTimeout = defaultTimeout;
+        this.eventTimeouts = eventTimeouts.isEmpty() ? new EnumMap<>(EventWebSocket.class) : new EnumMap<>(eventTimeouts);
+    }
+
+    protected void arm(CompletableFuture<?> future, EventWebSocket event, Duration requestTimeout) {
+        Duration timeout = requestTimeout != null ? requestTimeout : eventTimeouts.getOrDefault(event, defaultTimeout);
+        if (timeout == null || timeout.isZero() || timeout.isNegative() || future.isDone()) {
+            return;
+        }
+        Timeout scheduled = timer.newTimeout(timeout1 -> {
+            future.completeExceptionally(new TimeoutException("Event {" + event + "} timed out after {" + timeout.toMillis() + "}ms"));
+        }, timeout.toNanos(), TimeUnit.NANOSECONDS);
+        future.whenComplete((o, throwable) -> scheduled.cancel());
+    }
+}
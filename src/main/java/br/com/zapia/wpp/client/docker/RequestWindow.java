@@ -0,0 +1,139 @@
+package br.com.zapia.wpp.client.docker;
+
+import br.com.zapia.wpp.api.model.handlersWebSocket.EventWebSocket;
+import br.com.zapia.wpp.client.docker.model.RequestOverflowPolicy;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+class RequestWindow {
+
+    private final int maxInFlight;
+    private final Map<EventWebSocket, Integer> eventLimits;
+    private final RequestOverflowPolicy overflowPolicy;
+    private final Executor executor;
+    private final Map<EventWebSocket, Integer> eventInFlight;
+    private final Deque<Ticket> queue;
+    private int inFlight;
+
+    protected RequestWindow(int maxInFlight, Map<EventWebSocket, Integer> eventLimits, RequestOverflowPolicy overflowPolicy, Executor executor) {
+        this.maxInFlight = maxInFlight;
+        this.eventLimits = eventLimits.isEmpty() ? new EnumMap<>(EventWebSocket.class) : new EnumMap<>(eventLimits);
+        this.overflowPolicy = overflowPolicy;
+        this.executor = executor;
+        this.eventInFlight = new EnumMap<>(EventWebSocket.class);
+        this.queue = new ArrayDeque<>();
+    }
+
+    protected void submit(EventWebSocket event, CompletableFuture<?> future, Runnable send) {
+        Ticket ticket = new Ticket(event, future, send);
+        future.whenComplete((o, throwable) -> release(ticket));
+        synchronized (this) {
+            if (ticket.released) {
+                return;
+            }
+            if (!hasCapacity(event)) {
+                if (overflowPolicy == RequestOverflowPolicy.REJECT) {
+                    ticket.released = true;
+                } else {
+                    queue.addLast(ticket);
+                    return;
+                }
+            } else {
+                acquire(ticket);
+            }
+        }
+        if (ticket.acquired) {
+            send.run();
+        } else {
+            future.completeExceptionally(new RejectedExecutionException("Too many in flight requests for event {" + event + "}, in flight {" + getInFlight() + "}"));
+        }
+    }
+
+    protected synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    protected synchronized int getInFlight(EventWebSocket event) {
+        return eventInFlight.getOrDefault(event, 0);
+    }
+
+    protected synchronized int getQueued() {
+        return queue.size();
+    }
+
+    private void release(Ticket ticket) {
+        List<Ticket> ready;
+        synchronized (this) {
+            if (ticket.released) {
+                return;
+            }
+            ticket.released = true;
+            if (!ticket.acquired) {
+                queue.remove(ticket);
+                return;
+            }
+            inFlight--;
+            eventInFlight.merge(ticket.event, -1, Integer::sum);
+            ready = pollReady();
+        }
+        for (Ticket next : ready) {
+            try {
+                executor.execute(next.send);
+            } catch (RejectedExecutionException e) {
+                next.future.completeExceptionally(e);
+            }
+        }
+    }
+
+    private List<Ticket> pollReady() {
+        List<Ticket> ready = new ArrayList<>();
+        Iterator<Ticket> iterator = queue.iterator();
+        while (iterator.hasNext() && (maxInFlight <= 0 || inFlight < maxInFlight)) {
+            Ticket next = iterator.next();
+            if (hasCapacity(next.event)) {
+                iterator.remove();
+                acquire(next);
+                ready.add(next);
+            }
+        }
+        return ready;
+    }
+
+    private boolean hasCapacity(EventWebSocket event) {
+        if (maxInFlight > 0 && inFlight >= maxInFlight) {
+            return false;
+        }
+        Integer eventLimit = eventLimits.get(event);
+        return eventLimit == null || eventLimit <= 0 || eventInFlight.getOrDefault(event, 0) < eventLimit;
+    }
+
+    private void acquire(Ticket ticket) {
+        ticket.acquired = true;
+        inFlight++;
+        eventInFlight.merge(ticket.event, 1, Integer::sum);
+    }
+
+    private static class Ticket {
+
+        private final EventWebSocket event;
+        private final CompletableFuture<?> future;
+        private final Runnable send;
+        private boolean acquired;
+        private boolean released;
+
+        private Ticket(EventWebSocket event, CompletableFuture<?> future, Runnable send) {
+            this.event = event;
+            this.future = future;
+            this.send = send;
+        }
+    }
+}
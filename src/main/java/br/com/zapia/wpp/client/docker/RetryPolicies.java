@@ -0,0 +1,35 @@
+package br.com.zapia.wpp.client.docker;
+
+import br.com.zapia.wpp.api.model.handlersWebSocket.EventWebSocket;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+class RetryPolicies {
+
+    private static final RetryPolicy STANDARD = RetryPolicy.standard();
+    private static final RetryPolicy READ_ONLY = RetryPolicy.readOnly();
+    private static final RetryPolicy NON_IDEMPOTENT = RetryPolicy.nonIdempotent();
+
+    private final RetryPolicy defaultPolicy;
+    private final Map<EventWebSocket, RetryPolicy> eventPolicies;
+
+    protected RetryPolicies(RetryPolicy defaultPolicy, Map<EventWebSocket, RetryPolicy> eventPolicies) {
+        this.defaultPolicy = defaultPolicy;
+        this.eventPolicies = eventPolicies.isEmpty() ? new EnumMap<>(EventWebSocket.class) : new EnumMap<>(eventPolicies);
+    }
+
+    protected RetryPolicy forEvent(EventWebSocket event) {
+        RetryPolicy retryPolicy = event == null ? null : eventPolicies.get(event);
+        if (retryPolicy != null) {
+            return retryPolicy;
+        } else if (defaultPolicy != null) {
+            return defaultPolicy;
+        } else if (EventCategories.isReadOnly(event)) {
+            return READ_ONLY;
+        } else if (EventCategories.isNonIdempotent(event)) {
+            return NON_IDEMPOTENT;
+        }
+        return STANDARD;
+    }
+}
@@ -0,0 +1,158 @@
+package br.com.zapia.wpp.client.docker;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+public class RetryPolicy {
+
+    public static final RetryPolicy NONE = builder().maxRetries(0).build();
+
+    private final int maxRetries;
+    private final long initialDelayMillis;
+    private final long maxDelayMillis;
+    private final double multiplier;
+    private final long maxElapsedMillis;
+    private final boolean retryOnSendFailure;
+    private final int[] retryOnStatus;
+
+    private RetryPolicy(Builder builder) {
+        this.maxRetries = builder.maxRetries;
+        this.initialDelayMillis = builder.initialDelay.toMillis();
+        this.maxDelayMillis = builder.maxDelay.toMillis();
+        this.multiplier = builder.multiplier;
+        this.maxElapsedMillis = builder.maxElapsed == null ? Long.MAX_VALUE : builder.maxElapsed.toMillis();
+        this.retryOnSendFailure = builder.retryOnSendFailure;
+        this.retryOnStatus = builder.retryOnStatus.clone();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static RetryPolicy standard() {
+        return builder().build();
+    }
+
+    public static RetryPolicy readOnly() {
+        return builder()
+                .maxRetries(5)
+                .initialDelay(Duration.ofMillis(200))
+                .maxDelay(Duration.ofSeconds(10))
+                .maxElapsed(Duration.ofMinutes(1))
+                .build();
+    }
+
+    public static RetryPolicy nonIdempotent() {
+        return builder()
+                .maxRetries(3)
+                .initialDelay(Duration.ofSeconds(2))
+                .maxDelay(Duration.ofMinutes(1))
+                .maxElapsed(Duration.ofMinutes(3))
+                .retryOnStatus(429)
+                .build();
+    }
+
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    public boolean retriesSendFailure() {
+        return retryOnSendFailure;
+    }
+
+    public boolean retriesStatus(int status) {
+        for (int retryStatus : retryOnStatus) {
+            if (retryStatus == status) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public long nextDelayMillis(int retry, long elapsedMillis) {
+        if (retry > maxRetries) {
+            return -1;
+        }
+        double exponential = initialDelayMillis * Math.pow(multiplier, retry - 1);
+        long cap = (long) Math.min(maxDelayMillis, exponential);
+        long delay = cap <= 0 ? 0 : ThreadLocalRandom.current().nextLong(cap + 1);
+        if (elapsedMillis + delay > maxElapsedMillis) {
+            return -1;
+        }
+        return delay;
+    }
+
+    @Override
+    public String toString() {
+        return "RetryPolicy{" +
+                "maxRetries=" + maxRetries +
+                ", initialDelayMillis=" + initialDelayMillis +
+                ", maxDelayMillis=" + maxDelayMillis +
+                ", multiplier=" + multiplier +
+                ", maxElapsedMillis=" + maxElapsedMillis +
+                ", retryOnSendFailure=" + retryOnSendFailure +
+                ", retryOnStatus=" + Arrays.toString(retryOnStatus) +
+                '}';
+    }
+
+    public static class Builder {
+
+        private int maxRetries;
+        private Duration initialDelay;
+        private Duration maxDelay;
+        private double multiplier;
+        private Duration maxElapsed;
+        private boolean retryOnSendFailure;
+        private int[] retryOnStatus;
+
+        private Builder() {
+            this.maxRetries = 3;
+            this.initialDelay = Duration.ofSeconds(1);
+            this.maxDelay = Duration.ofMinutes(1);
+            this.multiplier = 2;
+            this.maxElapsed = Duration.ofMinutes(5);
+            this.retryOnSendFailure = true;
+            this.retryOnStatus = new int[]{500, 429};
+        }
+
+        public Builder maxRetries(int maxRetries) {
+            this.maxRetries = maxRetries;
+            return this;
+        }
+
+        public Builder initialDelay(Duration initialDelay) {
+            this.initialDelay = initialDelay;
+            return this;
+        }
+
+        public Builder maxDelay(Duration maxDelay) {
+            this.maxDelay = maxDelay;
+            return this;
+        }
+
+        public Builder multiplier(double multiplier) {
+            this.multiplier = multiplier;
+            return this;
+        }
+
+        public Builder maxElapsed(Duration maxElapsed) {
+            this.maxElapsed = maxElapsed;
+            return this;
+        }
+
+        public Builder retryOnSendFailure(boolean retryOnSendFailure) {
+            this.retryOnSendFailure = retryOnSendFailure;
+            return this;
+        }
+
+        public Builder retryOnStatus(int... retryOnStatus) {
+            this.retryOnStatus = retryOnStatus;
+            return this;
+        }
+
+        public RetryPolicy build() {
+            return new RetryPolicy(this);
+        }
+    }
+}
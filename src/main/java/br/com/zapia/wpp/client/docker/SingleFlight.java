@@ -0,0 +1,56 @@
+package br.com.zapia.wpp.client.docker;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+class SingleFlight<K, V> {
+
+    private final Map<K, CompletableFuture<V>> inFlight;
+    private final LongAdder executed;
+    private final LongAdder deduplicated;
+
+    protected SingleFlight() {
+        this.inFlight = new ConcurrentHashMap<>();
+        this.executed = new LongAdder();
+        this.deduplicated = new LongAdder();
+    }
+
+    protected CompletableFuture<V> execute(K key, Supplier<CompletableFuture<V>> supplier) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            deduplicated.increment();
+            return existing.copy();
+        }
+        executed.increment();
+        try {
+            supplier.get().whenComplete((value, throwable) -> {
+                inFlight.remove(key, flight);
+                if (throwable != null) {
+                    flight.completeExceptionally(throwable);
+                } else {
+                    flight.complete(value);
+                }
+            });
+        } catch (Exception e) {
+            inFlight.remove(key, flight);
+            flight.completeExceptionally(e);
+        }
+        return flight.copy();
+    }
+
+    protected long getExecuted() {
+        return executed.sum();
+    }
+
+    protected long getDeduplicated() {
+        return deduplicated.sum();
+    }
+
+    protected int getInFlight() {
+        return inFlight.size();
+    }
+}
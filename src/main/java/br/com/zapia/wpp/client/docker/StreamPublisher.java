@@ -0,0 +1,211 @@
+package br.com.zapia.wpp.client.docker;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+class StreamPublisher<T> implements Flow.Publisher<T> {
+
+    static final int DEFAULT_CAPACITY = 256;
+
+    private final Executor executor;
+    private final int capacity;
+    private final Consumer<StreamPublisher<T>> source;
+    private final AtomicBoolean subscribed;
+    private final Queue<T> items;
+    private final AtomicInteger buffered;
+    private final AtomicLong demand;
+    private final AtomicInteger wip;
+    private volatile Flow.Subscriber<? super T> subscriber;
+    private volatile Runnable onDemand;
+    private volatile Runnable onCancel;
+    private volatile boolean throttled;
+    private volatile boolean done;
+    private volatile boolean cancelled;
+    private Throwable error;
+
+    protected StreamPublisher(Executor executor, int capacity, Consumer<StreamPublisher<T>> source) {
+        this.executor = executor;
+        this.capacity = capacity;
+        this.source = source;
+        this.subscribed = new AtomicBoolean();
+        this.items = new ConcurrentLinkedQueue<>();
+        this.buffered = new AtomicInteger();
+        this.demand = new AtomicLong();
+        this.wip = new AtomicInteger();
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super T> subscriber) {
+        if (!subscribed.compareAndSet(false, true)) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+            subscriber.onError(new IllegalStateException("Publisher allows only one subscriber"));
+            return;
+        }
+        this.subscriber = subscriber;
+        subscriber.onSubscribe(new StreamSubscription());
+        if (cancelled) {
+            return;
+        }
+        try {
+            source.accept(this);
+        } catch (Exception e) {
+            error(e);
+        }
+    }
+
+    protected void next(T item) {
+        if (done || cancelled) {
+            return;
+        }
+        items.offer(item);
+        buffered.incrementAndGet();
+        drain();
+    }
+
+    protected void complete() {
+        if (done) {
+            return;
+        }
+        done = true;
+        drain();
+    }
+
+    protected void error(Throwable throwable) {
+        if (done) {
+            return;
+        }
+        error = throwable;
+        done = true;
+        drain();
+    }
+
+    protected boolean isCancelled() {
+        return cancelled;
+    }
+
+    protected boolean isSaturated() {
+        if (buffered.get() < capacity) {
+            return false;
+        }
+        throttled = true;
+        return buffered.get() >= capacity;
+    }
+
+    protected void setOnDemand(Runnable onDemand) {
+        this.onDemand = onDemand;
+    }
+
+    protected void setOnCancel(Runnable onCancel) {
+        this.onCancel = onCancel;
+        if (cancelled) {
+            onCancel.run();
+        }
+    }
+
+    private void drain() {
+        if (wip.getAndIncrement() != 0) {
+            return;
+        }
+        try {
+            executor.execute(this::drainLoop);
+        } catch (RejectedExecutionException e) {
+            cancelled = true;
+            items.clear();
+            buffered.set(0);
+            release();
+        }
+    }
+
+    private void drainLoop() {
+        int missed = 1;
+        do {
+            Flow.Subscriber<? super T> subscriber = this.subscriber;
+            if (subscriber != null) {
+                if (cancelled) {
+                    items.clear();
+                    buffered.set(0);
+                    return;
+                }
+                long requested = demand.get();
+                long emitted = 0;
+                while (emitted != requested && !cancelled) {
+                    T item = items.poll();
+                    if (item == null) {
+                        break;
+                    }
+                    buffered.decrementAndGet();
+                    subscriber.onNext(item);
+                    emitted++;
+                }
+                if (emitted != 0 && requested != Long.MAX_VALUE) {
+                    demand.addAndGet(-emitted);
+                }
+                if (throttled && !cancelled && buffered.get() < capacity) {
+                    throttled = false;
+                    Runnable onDemand = this.onDemand;
+                    if (onDemand != null) {
+                        onDemand.run();
+                    }
+                }
+                if (!cancelled && done && items.isEmpty()) {
+                    cancelled = true;
+                    if (error != null) {
+                        subscriber.onError(error);
+                    } else {
+                        subscriber.onComplete();
+                    }
+                    return;
+                }
+            }
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private void release() {
+        Runnable onCancel = this.onCancel;
+        if (onCancel != null) {
+            onCancel.run();
+        }
+    }
+
+    private class StreamSubscription implements Flow.Subscription {
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                items.clear();
+                buffered.set(0);
+                error(new IllegalArgumentException("Requested {" + n + "} elements, demand must be positive"));
+                release();
+                return;
+            }
+            demand.getAndUpdate(current -> current + n < 0 ? Long.MAX_VALUE : current + n);
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            if (cancelled) {
+                return;
+            }
+            cancelled = true;
+            release();
+            drain();
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package br.com.zapia.wpp.client.docker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+class StripedEventDispatcher implements EventDispatcher {
+
+    private static final int STRIPES_PER_WORKER = 4;
+    private static final int MAX_TASKS_PER_DRAIN = 64;
+    private static final Slot RELEASING = new Slot();
+
+    private final Executor executor;
+    private final int parallelism;
+    private final Queue<Runnable> queued;
+    private final AtomicInteger running;
+    private final Function<Runnable, Runnable> runnableFactory;
+    private final Consumer<Throwable> onError;
+    private final Queue<Slot> slots;
+    private final AtomicInteger releasing;
+    private final ThreadLocal<Slot> current;
+    private final SerialQueue[] stripes;
+    private volatile boolean shutdown;
+
+    protected StripedEventDispatcher(int workers, Executor executor, Function<Runnable, Runnable> runnableFactory, Consumer<Throwable> onError) {
+        this.executor = executor;
+        this.parallelism = workers;
+        this.queued = new ConcurrentLinkedQueue<>();
+        this.running = new AtomicInteger();
+        this.runnableFactory = runnableFactory;
+        this.onError = onError;
+        this.slots = new ConcurrentLinkedQueue<>();
+        this.releasing = new AtomicInteger();
+        this.current = new ThreadLocal<>();
+        this.stripes = new SerialQueue[workers * STRIPES_PER_WORKER];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new SerialQueue();
+        }
+    }
+
+    @Override
+    public void submit(Runnable task) {
+        Slot slot = new Slot();
+        slots.offer(slot);
+        Runnable runnable = runnableFactory.apply(task);
+        dispatch(() -> {
+            current.set(slot);
+            try {
+                runnable.run();
+            } catch (Exception e) {
+                onError.accept(e);
+            } finally {
+                current.remove();
+                slot.done = true;
+                release();
+            }
+        });
+    }
+
+    @Override
+    public void sequence(Runnable action) {
+        Slot slot = current.get();
+        if (slot == RELEASING) {
+            action.run();
+        } else if (slot != null) {
+            slot.actions.add(action);
+        } else {
+            slot = new Slot();
+            slot.actions.add(action);
+            slot.done = true;
+            slots.offer(slot);
+            release();
+        }
+    }
+
+    @Override
+    public <T> void deliver(String key, List<Consumer<T>> listeners, T event) {
+        SerialQueue stripe = stripeFor(key);
+        sequence(() -> stripe.execute(() -> {
+            for (Consumer<T> listener : listeners) {
+                try {
+                    listener.accept(event);
+                } catch (Exception e) {
+                    onError.accept(e);
+                }
+            }
+        }));
+    }
+
+    @Override
+    public void shutdown() {
+        shutdown = true;
+        queued.clear();
+    }
+
+    private void dispatch(Runnable task) {
+        if (shutdown) {
+            throw new RejectedExecutionException("Event dispatcher already shutdown");
+        }
+        queued.offer(task);
+        startWorkers();
+    }
+
+    private void startWorkers() {
+        int current;
+        while (!queued.isEmpty() && (current = running.get()) < parallelism) {
+            if (running.compareAndSet(current, current + 1)) {
+                try {
+                    executor.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    running.decrementAndGet();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private void drain() {
+        try {
+            Runnable task;
+            while (!shutdown && (task = queued.poll()) != null) {
+                try {
+                    task.run();
+                } catch (Exception e) {
+                    onError.accept(e);
+                }
+            }
+        } finally {
+            running.decrementAndGet();
+        }
+        if (!shutdown) {
+            startWorkers();
+        }
+    }
+
+    private void release() {
+        if (releasing.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            Slot slot;
+            while ((slot = slots.peek()) != null && slot.done) {
+                slots.poll();
+                current.set(RELEASING);
+                try {
+                    for (Runnable action : slot.actions) {
+                        try {
+                            action.run();
+                        } catch (Exception e) {
+                            onError.accept(e);
+                        }
+                    }
+                } finally {
+                    current.remove();
+                }
+            }
+            missed = releasing.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private SerialQueue stripeFor(String key) {
+        if (key == null) {
+            return stripes[0];
+        }
+        int hash = key.hashCode();
+        hash ^= hash >>> 16;
+        return stripes[Math.floorMod(hash, stripes.length)];
+    }
+
+    private static class Slot {
+
+        private final List<Runnable> actions;
+        private volatile boolean done;
+
+        private Slot() {
+            this.actions = new ArrayList<>(1);
+        }
+    }
+
+    private class SerialQueue implements Runnable {
+
+        private final Queue<Runnable> tasks;
+        private final AtomicBoolean scheduled;
+
+        private SerialQueue() {
+            this.tasks = new ConcurrentLinkedQueue<>();
+            this.scheduled = new AtomicBoolean();
+        }
+
+        private void execute(Runnable task) {
+            tasks.offer(runnableFactory.apply(task));
+            schedule();
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                dispatch(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                Runnable task;
+                int executed = 0;
+                while (executed < MAX_TASKS_PER_DRAIN && (task = tasks.poll()) != null) {
+                    executed++;
+                    try {
+                        task.run();
+                    } catch (Exception e) {
+                        onError.accept(e);
+                    }
+                }
+            } finally {
+                scheduled.set(false);
+                if (!tasks.isEmpty()) {
+                    schedule();
+                }
+            }
+        }
+    }
+}
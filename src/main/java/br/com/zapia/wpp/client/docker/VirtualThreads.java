@@ -0,0 +1,50 @@
+package br.com.zapia.wpp.client.docker;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+final class VirtualThreads {
+
+    private static final Logger logger = Logger.getLogger(VirtualThreads.class.getName());
+
+    private static final ThreadFactory FACTORY = createFactory();
+
+    private VirtualThreads() {
+    }
+
+    static boolean isSupported() {
+        return FACTORY != null;
+    }
+
+    static ExecutorService newExecutor() {
+        if (FACTORY == null) {
+            throw new UnsupportedOperationException("Virtual threads are not supported by this JVM {" + Runtime.version() + "}");
+        }
+        try {
+            return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class).invoke(null, FACTORY);
+        } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+            throw new UnsupportedOperationException("Virtual threads are not supported by this JVM {" + Runtime.version() + "}", e);
+        }
+    }
+
+    private static ThreadFactory createFactory() {
+        try {
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, "wpp-virtual-", 0L);
+            ThreadFactory threadFactory = (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+            threadFactory.newThread(() -> {
+            });
+            return threadFactory;
+        } catch (ClassNotFoundException | NoSuchMethodException e) {
+            return null;
+        } catch (IllegalAccessException | InvocationTargetException | RuntimeException e) {
+            logger.log(Level.FINE, "Virtual threads unavailable", e);
+            return null;
+        }
+    }
+}
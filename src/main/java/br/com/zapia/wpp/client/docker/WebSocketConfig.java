@@ -2,6 +2,7 @@ package br.com.zapia.wpp.client.docker;
 
 import br.com.zapia.wpp.client.docker.model.DriverState;
 import br.com.zapia.wpp.client.docker.model.OnWsDisconnect;
+import br.com.zapia.wpp.client.docker.model.WsTransport;
 
 import java.net.URI;
 import java.util.concurrent.*;
@@ -14,9 +15,10 @@ class WebSocketConfig extends BaseConfig {
     private final int remotePort;
     private WhatsAppWsClient whatsAppWsClient;
 
-    protected WebSocketConfig(String remoteAddress, int remotePort) {
+    protected WebSocketConfig(String remoteAddress, int remotePort, WsTransport wsTransport) {
         this.remoteAddress = remoteAddress;
         this.remotePort = remotePort;
+        setWsTransport(wsTransport);
     }
 
     @Override
@@ -25,7 +27,7 @@ class WebSocketConfig extends BaseConfig {
         return CompletableFuture.supplyAsync(() -> {
             try {
                 for (int tries = 0; tries < 1200; tries++) {
-                    var whatsAppWsClient = new WhatsAppWsClient(URI.create("ws://" + remoteAddress + ":" + remotePort + "/api/ws"), whatsAppClient, onInit, onNeedQrCode, onUpdateDriverState, onError, onLowBattery, onPhoneDisconnect, onWsConnect, onWsDisconnect, runnableFactory, callableFactory, threadFactory, executorService, scheduledExecutorService);
+                    var whatsAppWsClient = new WhatsAppWsClient(URI.create("ws://" + remoteAddress + ":" + remotePort + "/api/ws"), whatsAppClient, onInit, onNeedQrCode, onUpdateDriverState, onError, onLowBattery, onPhoneDisconnect, onWsConnect, onWsDisconnect, runnableFactory, callableFactory, threadFactory, executorService, scheduledExecutorService, getWsTransport());
                     if (whatsAppWsClient.connectBlocking(1, TimeUnit.MINUTES)) {
                         this.whatsAppWsClient = whatsAppWsClient;
                         return whatsAppWsClient;
@@ -1,13 +1,21 @@
 package br.com.zapia.wpp.client.docker;
 
+import br.com.zapia.wpp.api.model.handlersWebSocket.EventWebSocket;
 import br.com.zapia.wpp.api.model.payloads.SendMessageRequest;
 import br.com.zapia.wpp.api.model.payloads.StatsResponse;
+import br.com.zapia.wpp.api.model.payloads.WebSocketResponse;
 import br.com.zapia.wpp.client.docker.model.*;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import io.netty.channel.EventLoopGroup;
+import okhttp3.OkHttpClient;
 
 import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
 import java.util.List;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.logging.Logger;
@@ -30,6 +38,18 @@ public class WhatsAppClient {
     private final Function<Runnable, Thread> threadFactory;
     private final ExecutorService executorService;
     private final ScheduledExecutorService scheduledExecutorService;
+    private final WhatsAppRuntime runtime;
+    private final AtomicBoolean shutdown;
+    private final EventDispatcher eventDispatcher;
+    private final EventCoalescer eventCoalescer;
+    private final RequestDeadlines requestDeadlines;
+    private final RequestWindow requestWindow;
+    private final RetryPolicies retryPolicies;
+    private final SingleFlight<String, WebSocketResponse> readSingleFlight;
+    private final LocalStore localStore;
+    private final MessageJournal messageJournal;
+    private final MediaCache mediaCache;
+    private final MessageSearchIndex messageSearchIndex;
 
     private WhatsAppWsClient whatsAppWsClient;
     private final BaseConfig baseConfig;
@@ -38,9 +58,14 @@ public class WhatsAppClient {
     private boolean successConnect;
     private long ping;
     private final ObjectMapper objectMapper;
+    private final JsonNodeFactory nodeFactory;
     private ScheduledFuture<?> pingFuture;
 
     public WhatsAppClient(BaseConfig baseConfig, Runnable onInit, Consumer<String> onNeedQrCode, Consumer<DriverState> onUpdateDriverState, Consumer<Throwable> onError, Consumer<Integer> onLowBattery, Runnable onPhoneDisconnect, Runnable onWsConnect, OnWsDisconnect onWsDisconnect, Consumer<Long> onPing, Function<Runnable, Runnable> runnableFactory, Function<Callable, Callable> callableFactory, Function<Runnable, Thread> threadFactory) {
+        this(baseConfig, onInit, onNeedQrCode, onUpdateDriverState, onError, onLowBattery, onPhoneDisconnect, onWsConnect, onWsDisconnect, onPing, runnableFactory, callableFactory, threadFactory, new WhatsAppClientOptions());
+    }
+
+    public WhatsAppClient(BaseConfig baseConfig, Runnable onInit, Consumer<String> onNeedQrCode, Consumer<DriverState> onUpdateDriverState, Consumer<Throwable> onError, Consumer<Integer> onLowBattery, Runnable onPhoneDisconnect, Runnable onWsConnect, OnWsDisconnect onWsDisconnect, Consumer<Long> onPing, Function<Runnable, Runnable> runnableFactory, Function<Callable, Callable> callableFactory, Function<Runnable, Thread> threadFactory, WhatsAppClientOptions options) {
         this.baseConfig = baseConfig;
         this.onInit = onInit;
         this.onNeedQrCode = onNeedQrCode;
@@ -58,9 +83,65 @@ public class WhatsAppClient {
         this.runnableFactory = runnableFactory;
         this.callableFactory = callableFactory;
         this.threadFactory = threadFactory;
-        this.executorService = Executors.newCachedThreadPool(r -> threadFactory.apply(r));
-        this.scheduledExecutorService = Executors.newScheduledThreadPool(20, r -> threadFactory.apply(r));
-        this.objectMapper = new ObjectMapper();
+        WhatsAppRuntime runtime = options.getRuntime();
+        boolean virtualThreads = options.isVirtualThreads();
+        if (runtime != null && virtualThreads && !runtime.isVirtualThreads() && WhatsAppRuntime.isVirtualThreadsSupported()) {
+            throw new IllegalArgumentException("Virtual threads requested but the shared runtime uses platform threads, create the runtime with virtualThreads {true}");
+        }
+        if (runtime != null) {
+            this.runtime = runtime.retain();
+        } else if (threadFactory == WhatsAppRuntime.DEFAULT_THREAD_FACTORY) {
+            this.runtime = WhatsAppRuntime.shared(virtualThreads);
+        } else {
+            this.runtime = new WhatsAppRuntime(20, threadFactory, virtualThreads);
+        }
+        this.executorService = this.runtime.getExecutorService();
+        this.scheduledExecutorService = this.runtime.getScheduledExecutorService();
+        this.objectMapper = this.runtime.getObjectMapper();
+        this.nodeFactory = options.isCompactModelDecoding() ? CompactJsonNodeFactory.instance : objectMapper.getNodeFactory();
+        if (options.getOrderedEventDispatchWorkers() > 0) {
+            this.eventDispatcher = new StripedEventDispatcher(options.getOrderedEventDispatchWorkers(), executorService, runnableFactory, onError);
+        } else {
+            this.eventDispatcher = new DefaultEventDispatcher(executorService, runnableFactory);
+        }
+        Duration updateCoalescingWindow = options.getUpdateCoalescingWindow();
+        if (updateCoalescingWindow != null && !updateCoalescingWindow.isZero() && !updateCoalescingWindow.isNegative()) {
+            this.eventCoalescer = new EventCoalescer(updateCoalescingWindow, scheduledExecutorService, eventDispatcher);
+        } else {
+            this.eventCoalescer = null;
+        }
+        this.requestDeadlines = new RequestDeadlines(options.getRequestTimeout(), options.getEventRequestTimeouts(), this.runtime.getTimer());
+        this.requestWindow = new RequestWindow(options.getMaxInFlightRequests(), options.getEventMaxInFlightRequests(), options.getRequestOverflowPolicy(), runnable -> executorService.execute(runnableFactory.apply(runnable)));
+        this.retryPolicies = new RetryPolicies(options.getRetryPolicy(), options.getEventRetryPolicies());
+        this.readSingleFlight = new SingleFlight<>();
+        this.localStore = options.isLocalStore() ? new LocalStore() : null;
+        this.messageSearchIndex = options.isMessageSearchIndex() ? new MessageSearchIndex(objectMapper, executorService, onError) : null;
+        File messageJournalDirectory = options.getMessageJournalDirectory();
+        if (messageJournalDirectory != null) {
+            try {
+                this.messageJournal = new MessageJournal(messageJournalDirectory, options.getMessageJournalSegmentSize(), objectMapper, executorService, onError);
+            } catch (IOException e) {
+                this.eventDispatcher.shutdown();
+                this.runtime.release();
+                throw new RuntimeException("Fail on open message journal {" + messageJournalDirectory + "}", e);
+            }
+        } else {
+            this.messageJournal = null;
+        }
+        File mediaCacheDirectory = options.getMediaCacheDirectory();
+        if (mediaCacheDirectory != null) {
+            try {
+                this.mediaCache = new MediaCache(mediaCacheDirectory, options.getMediaCacheMaxBytes(), options.getMediaCachePictureTtl());
+            } catch (IOException e) {
+                closeMessageJournal();
+                this.eventDispatcher.shutdown();
+                this.runtime.release();
+                throw new RuntimeException("Fail on open media cache {" + mediaCacheDirectory + "}", e);
+            }
+        } else {
+            this.mediaCache = null;
+        }
+        this.shutdown = new AtomicBoolean();
     }
 
     public CompletableFuture<Boolean> start() {
@@ -89,6 +170,23 @@ public class WhatsAppClient {
         }, executorService);
     }
 
+    public CompletableFuture<Void> shutdown() {
+        return stop().whenComplete((unused, throwable) -> {
+            if (shutdown.compareAndSet(false, true)) {
+                eventDispatcher.shutdown();
+                closeMessageJournal();
+                if (mediaCache != null) {
+                    try {
+                        mediaCache.close();
+                    } catch (IOException e) {
+                        onError.accept(e);
+                    }
+                }
+                runtime.release();
+            }
+        });
+    }
+
     public CompletableFuture<StatsResponse> getStats() {
         return whatsAppWsClient.getStats();
     }
@@ -125,6 +223,10 @@ public class WhatsAppClient {
         return whatsAppWsClient.findChatById(id);
     }
 
+    public CompletableFuture<Chat> fetchChatById(String id) {
+        return whatsAppWsClient.fetchChatById(id);
+    }
+
     public CompletableFuture<Chat> findChatByNumber(String number) {
         return whatsAppWsClient.findChatByNumber(number);
     }
@@ -137,6 +239,47 @@ public class WhatsAppClient {
         return whatsAppWsClient.findContactByNumber(number);
     }
 
+    public CompletableFuture<List<Message>> getLocalMessageHistory(String chatId, int limit) {
+        return getLocalMessageHistory(chatId, Long.MAX_VALUE, limit);
+    }
+
+    public CompletableFuture<List<Message>> getLocalMessageHistory(String chatId, long beforeTimestamp, int limit) {
+        if (messageJournal == null) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Message journal is disabled"));
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return messageJournal.history(chatId, beforeTimestamp, limit, jsonNode -> Message.build(this, jsonNode));
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, executorService);
+    }
+
+    public CompletableFuture<Message> findLocalMessage(String id) {
+        if (messageJournal == null) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Message journal is disabled"));
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return messageJournal.find(id, jsonNode -> Message.build(this, jsonNode));
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, executorService);
+    }
+
+    public CompletableFuture<List<String>> searchMessages(String query, int limit) {
+        return searchMessages(null, query, limit);
+    }
+
+    public CompletableFuture<List<String>> searchMessages(String chatId, String query, int limit) {
+        if (messageSearchIndex == null) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Message search index is disabled"));
+        }
+        return CompletableFuture.completedFuture(messageSearchIndex.search(chatId, query, limit));
+    }
+
     public CompletableFuture<List<Chat>> getAllChats() {
         return whatsAppWsClient.getAllChats();
     }
@@ -145,6 +288,14 @@ public class WhatsAppClient {
         return whatsAppWsClient.getAllContacts();
     }
 
+    public Flow.Publisher<Chat> streamAllChats() {
+        return whatsAppWsClient.streamAllChats();
+    }
+
+    public Flow.Publisher<Contact> streamAllContacts() {
+        return whatsAppWsClient.streamAllContacts();
+    }
+
     public CompletableFuture<List<QuickReply>> getAllQuickReplies() {
         return whatsAppWsClient.getAllQuickReplies();
     }
@@ -162,7 +313,11 @@ public class WhatsAppClient {
     }
 
     public CompletableFuture<File> downloadMediaMessage(String msgId) {
-        return whatsAppWsClient.downloadMediaMessage(msgId);
+        return downloadMediaMessage(msgId, null);
+    }
+
+    public CompletableFuture<File> downloadMediaMessage(String msgId, String mediaHash) {
+        return whatsAppWsClient.downloadMediaMessage(msgId, mediaHash);
     }
 
     public CompletableFuture<File> getProfilePic(String contactId) {
@@ -288,6 +443,113 @@ public class WhatsAppClient {
         return whatsAppWsClient.getRemoteEndPoint();
     }
 
+    public CoalescingStats getCoalescingStats() {
+        if (eventCoalescer == null) {
+            return new CoalescingStats(0, 0, 0, 0);
+        }
+        return eventCoalescer.getStats();
+    }
+
+    public int getInFlightRequests() {
+        return requestWindow.getInFlight();
+    }
+
+    public int getInFlightRequests(EventWebSocket event) {
+        return requestWindow.getInFlight(event);
+    }
+
+    public int getQueuedRequests() {
+        return requestWindow.getQueued();
+    }
+
+    public SingleFlightStats getSingleFlightStats() {
+        return new SingleFlightStats(readSingleFlight.getExecuted(), readSingleFlight.getDeduplicated(), readSingleFlight.getInFlight());
+    }
+
+    public LocalStoreStats getLocalStoreStats() {
+        if (localStore == null) {
+            return new LocalStoreStats(false, false, 0, 0, 0, 0, 0, 0, 0);
+        }
+        return new LocalStoreStats(true, localStore.isReady(), localStore.getChats(), localStore.getContacts(), localStore.getIndexedNumbers(), localStore.getHits(), localStore.getMisses(), localStore.getSeededAt(), localStore.getLastEventAt());
+    }
+
+    public boolean isVirtualThreads() {
+        return runtime.isVirtualThreads();
+    }
+
+    public MediaCacheStats getMediaCacheStats() {
+        if (mediaCache == null) {
+            return new MediaCacheStats(false, 0, 0, 0, 0, 0, 0, 0);
+        }
+        return new MediaCacheStats(true, mediaCache.getEntries(), mediaCache.getBytes(), mediaCache.getMaxBytes(), mediaCache.getHits(), mediaCache.getMisses(), mediaCache.getBytesSaved(), mediaCache.getEvictions());
+    }
+
+    private void closeMessageJournal() {
+        if (messageJournal != null) {
+            try {
+                messageJournal.close();
+            } catch (IOException e) {
+                onError.accept(e);
+            }
+        }
+    }
+
+    SingleFlight<String, WebSocketResponse> getReadSingleFlight() {
+        return readSingleFlight;
+    }
+
+    LocalStore getLocalStore() {
+        return localStore;
+    }
+
+    MessageJournal getMessageJournal() {
+        return messageJournal;
+    }
+
+    MediaCache getMediaCache() {
+        return mediaCache;
+    }
+
+    MessageSearchIndex getMessageSearchIndex() {
+        return messageSearchIndex;
+    }
+
+    ObjectMapper getObjectMapper() {
+        return objectMapper;
+    }
+
+    JsonNodeFactory getNodeFactory() {
+        return nodeFactory;
+    }
+
+    EventLoopGroup getEventLoopGroup() {
+        return runtime.getEventLoopGroup();
+    }
+
+    OkHttpClient getHttpClient() {
+        return runtime.getHttpClient();
+    }
+
+    RetryPolicies getRetryPolicies() {
+        return retryPolicies;
+    }
+
+    RequestWindow getRequestWindow() {
+        return requestWindow;
+    }
+
+    RequestDeadlines getRequestDeadlines() {
+        return requestDeadlines;
+    }
+
+    EventCoalescer getEventCoalescer() {
+        return eventCoalescer;
+    }
+
+    EventDispatcher getEventDispatcher() {
+        return eventDispatcher;
+    }
+
     public boolean isOpen() {
         return whatsAppWsClient != null && whatsAppWsClient.isOpen();
     }
@@ -1,8 +1,12 @@
 package br.com.zapia.wpp.client.docker;
 
+import br.com.zapia.wpp.api.model.handlersWebSocket.EventWebSocket;
 import br.com.zapia.wpp.client.docker.model.DriverState;
 import br.com.zapia.wpp.client.docker.model.OnWsDisconnect;
+import br.com.zapia.wpp.client.docker.model.RequestOverflowPolicy;
 
+import java.io.File;
+import java.time.Duration;
 import java.util.concurrent.Callable;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -26,6 +30,7 @@ public class WhatsAppClientBuilder {
     private Function<Runnable, Runnable> runnableFactory;
     private Function<Callable, Callable> callableFactory;
     private Function<Runnable, Thread> threadFactory;
+    private final WhatsAppClientOptions options;
 
     public WhatsAppClientBuilder(BaseConfig baseConfig) {
         this.baseConfig = baseConfig;
@@ -40,7 +45,7 @@ public class WhatsAppClientBuilder {
         };
         this.runnableFactory = runnable -> () -> runnable.run();
         this.callableFactory = callable -> () -> callable.call();
-        this.threadFactory = runnable -> new Thread(runnable);
+        this.threadFactory = WhatsAppRuntime.DEFAULT_THREAD_FACTORY;
         this.onError = throwable -> {
             logger.log(Level.SEVERE, "WhatsAppClient", throwable);
         };
@@ -53,6 +58,7 @@ public class WhatsAppClientBuilder {
         this.onPing = (ping) -> {
             logger.log(Level.INFO, "Ping::" + ping + "ms");
         };
+        this.options = new WhatsAppClientOptions();
     }
 
     public WhatsAppClientBuilder onInit(Runnable onInit) {
@@ -115,7 +121,102 @@ public class WhatsAppClientBuilder {
         return this;
     }
 
+    public WhatsAppClientBuilder orderedEventDispatch(int workers) {
+        options.orderedEventDispatch(workers);
+        return this;
+    }
+
+    public WhatsAppClientBuilder coalesceUpdateEvents(Duration window) {
+        options.coalesceUpdateEvents(window);
+        return this;
+    }
+
+    public WhatsAppClientBuilder requestTimeout(Duration requestTimeout) {
+        options.requestTimeout(requestTimeout);
+        return this;
+    }
+
+    public WhatsAppClientBuilder requestTimeout(EventWebSocket event, Duration requestTimeout) {
+        options.requestTimeout(event, requestTimeout);
+        return this;
+    }
+
+    public WhatsAppClientBuilder maxInFlightRequests(int maxInFlightRequests) {
+        options.maxInFlightRequests(maxInFlightRequests);
+        return this;
+    }
+
+    public WhatsAppClientBuilder maxInFlightRequests(EventWebSocket event, int maxInFlightRequests) {
+        options.maxInFlightRequests(event, maxInFlightRequests);
+        return this;
+    }
+
+    public WhatsAppClientBuilder requestOverflowPolicy(RequestOverflowPolicy requestOverflowPolicy) {
+        options.requestOverflowPolicy(requestOverflowPolicy);
+        return this;
+    }
+
+    public WhatsAppClientBuilder retryPolicy(RetryPolicy retryPolicy) {
+        options.retryPolicy(retryPolicy);
+        return this;
+    }
+
+    public WhatsAppClientBuilder retryPolicy(EventWebSocket event, RetryPolicy retryPolicy) {
+        options.retryPolicy(event, retryPolicy);
+        return this;
+    }
+
+    public WhatsAppClientBuilder runtime(WhatsAppRuntime runtime) {
+        options.runtime(runtime);
+        return this;
+    }
+
+    public WhatsAppClientBuilder virtualThreads(boolean virtualThreads) {
+        options.virtualThreads(virtualThreads);
+        return this;
+    }
+
+    public WhatsAppClientBuilder compactModelDecoding(boolean compactModelDecoding) {
+        options.compactModelDecoding(compactModelDecoding);
+        return this;
+    }
+
+    public WhatsAppClientBuilder localStore(boolean localStore) {
+        options.localStore(localStore);
+        return this;
+    }
+
+    public WhatsAppClientBuilder messageJournal(File directory) {
+        options.messageJournal(directory);
+        return this;
+    }
+
+    public WhatsAppClientBuilder messageJournal(File directory, int segmentSize) {
+        options.messageJournal(directory, segmentSize);
+        return this;
+    }
+
+    public WhatsAppClientBuilder messageSearchIndex(boolean messageSearchIndex) {
+        options.messageSearchIndex(messageSearchIndex);
+        return this;
+    }
+
+    public WhatsAppClientBuilder mediaCache(File directory) {
+        options.mediaCache(directory);
+        return this;
+    }
+
+    public WhatsAppClientBuilder mediaCache(File directory, long maxBytes) {
+        options.mediaCache(directory, maxBytes);
+        return this;
+    }
+
+    public WhatsAppClientBuilder mediaCache(File directory, long maxBytes, Duration pictureTtl) {
+        options.mediaCache(directory, maxBytes, pictureTtl);
+        return this;
+    }
+
     public WhatsAppClient builder() {
-        return new WhatsAppClient(baseConfig, onInit, onNeedQrCode, onUpdateDriverState, onError, onLowBattery, onPhoneDisconnect, onWsConnect, onWsDisconnect, onPing, runnableFactory, callableFactory, threadFactory);
+        return new WhatsAppClient(baseConfig, onInit, onNeedQrCode, onUpdateDriverState, onError, onLowBattery, onPhoneDisconnect, onWsConnect, onWsDisconnect, onPing, runnableFactory, callableFactory, threadFactory, options);
     }
 }
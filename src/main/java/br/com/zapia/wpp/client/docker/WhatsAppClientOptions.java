@@ -0,0 +1,214 @@
+package br.com.zapia.wpp.client.docker;
+
+import br.com.zapia.wpp.api.model.handlersWebSocket.EventWebSocket;
+import br.com.zapia.wpp.client.docker.model.RequestOverflowPolicy;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+public class WhatsAppClientOptions {
+
+    private int orderedEventDispatchWorkers;
+    private Duration updateCoalescingWindow;
+    private Duration requestTimeout;
+    private final Map<EventWebSocket, Duration> eventRequestTimeouts;
+    private int maxInFlightRequests;
+    private final Map<EventWebSocket, Integer> eventMaxInFlightRequests;
+    private RequestOverflowPolicy requestOverflowPolicy;
+    private RetryPolicy retryPolicy;
+    private final Map<EventWebSocket, RetryPolicy> eventRetryPolicies;
+    private WhatsAppRuntime runtime;
+    private boolean virtualThreads;
+    private boolean compactModelDecoding;
+    private boolean localStore;
+    private File messageJournalDirectory;
+    private int messageJournalSegmentSize;
+    private boolean messageSearchIndex;
+    private File mediaCacheDirectory;
+    private long mediaCacheMaxBytes;
+    private Duration mediaCachePictureTtl;
+
+    public WhatsAppClientOptions() {
+        this.requestTimeout = Duration.ofMinutes(10);
+        this.eventRequestTimeouts = new EnumMap<>(EventWebSocket.class);
+        this.eventMaxInFlightRequests = new EnumMap<>(EventWebSocket.class);
+        this.requestOverflowPolicy = RequestOverflowPolicy.QUEUE;
+        this.eventRetryPolicies = new EnumMap<>(EventWebSocket.class);
+        this.messageJournalSegmentSize = MessageJournal.DEFAULT_SEGMENT_SIZE;
+        this.mediaCacheMaxBytes = MediaCache.DEFAULT_MAX_BYTES;
+        this.mediaCachePictureTtl = MediaCache.DEFAULT_PICTURE_TTL;
+    }
+
+    public WhatsAppClientOptions orderedEventDispatch(int workers) {
+        this.orderedEventDispatchWorkers = workers;
+        return this;
+    }
+
+    public WhatsAppClientOptions coalesceUpdateEvents(Duration window) {
+        this.updateCoalescingWindow = window;
+        return this;
+    }
+
+    public WhatsAppClientOptions requestTimeout(Duration requestTimeout) {
+        this.requestTimeout = requestTimeout;
+        return this;
+    }
+
+    public WhatsAppClientOptions requestTimeout(EventWebSocket event, Duration requestTimeout) {
+        this.eventRequestTimeouts.put(event, requestTimeout);
+        return this;
+    }
+
+    public WhatsAppClientOptions maxInFlightRequests(int maxInFlightRequests) {
+        this.maxInFlightRequests = maxInFlightRequests;
+        return this;
+    }
+
+    public WhatsAppClientOptions maxInFlightRequests(EventWebSocket event, int maxInFlightRequests) {
+        this.eventMaxInFlightRequests.put(event, maxInFlightRequests);
+        return this;
+    }
+
+    public WhatsAppClientOptions requestOverflowPolicy(RequestOverflowPolicy requestOverflowPolicy) {
+        this.requestOverflowPolicy = requestOverflowPolicy;
+        return this;
+    }
+
+    public WhatsAppClientOptions retryPolicy(RetryPolicy retryPolicy) {
+        this.retryPolicy = retryPolicy;
+        return this;
+    }
+
+    public WhatsAppClientOptions retryPolicy(EventWebSocket event, RetryPolicy retryPolicy) {
+        this.eventRetryPolicies.put(event, retryPolicy);
+        return this;
+    }
+
+    public WhatsAppClientOptions runtime(WhatsAppRuntime runtime) {
+        this.runtime = runtime;
+        return this;
+    }
+
+    public WhatsAppClientOptions virtualThreads(boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+        return this;
+    }
+
+    public WhatsAppClientOptions compactModelDecoding(boolean compactModelDecoding) {
+        this.compactModelDecoding = compactModelDecoding;
+        return this;
+    }
+
+    public WhatsAppClientOptions localStore(boolean localStore) {
+        this.localStore = localStore;
+        return this;
+    }
+
+    public WhatsAppClientOptions messageJournal(File directory) {
+        return messageJournal(directory, MessageJournal.DEFAULT_SEGMENT_SIZE);
+    }
+
+    public WhatsAppClientOptions messageJournal(File directory, int segmentSize) {
+        this.messageJournalDirectory = directory;
+        this.messageJournalSegmentSize = segmentSize;
+        return this;
+    }
+
+    public WhatsAppClientOptions messageSearchIndex(boolean messageSearchIndex) {
+        this.messageSearchIndex = messageSearchIndex;
+        return this;
+    }
+
+    public WhatsAppClientOptions mediaCache(File directory) {
+        return mediaCache(directory, MediaCache.DEFAULT_MAX_BYTES);
+    }
+
+    public WhatsAppClientOptions mediaCache(File directory, long maxBytes) {
+        return mediaCache(directory, maxBytes, MediaCache.DEFAULT_PICTURE_TTL);
+    }
+
+    public WhatsAppClientOptions mediaCache(File directory, long maxBytes, Duration pictureTtl) {
+        this.mediaCacheDirectory = directory;
+        this.mediaCacheMaxBytes = maxBytes;
+        this.mediaCachePictureTtl = pictureTtl;
+        return this;
+    }
+
+    int getOrderedEventDispatchWorkers() {
+        return orderedEventDispatchWorkers;
+    }
+
+    Duration getUpdateCoalescingWindow() {
+        return updateCoalescingWindow;
+    }
+
+    Duration getRequestTimeout() {
+        return requestTimeout;
+    }
+
+    Map<EventWebSocket, Duration> getEventRequestTimeouts() {
+        return eventRequestTimeouts;
+    }
+
+    int getMaxInFlightRequests() {
+        return maxInFlightRequests;
+    }
+
+    Map<EventWebSocket, Integer> getEventMaxInFlightRequests() {
+        return eventMaxInFlightRequests;
+    }
+
+    RequestOverflowPolicy getRequestOverflowPolicy() {
+        return requestOverflowPolicy;
+    }
+
+    RetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    Map<EventWebSocket, RetryPolicy> getEventRetryPolicies() {
+        return eventRetryPolicies;
+    }
+
+    WhatsAppRuntime getRuntime() {
+        return runtime;
+    }
+
+    boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    boolean isCompactModelDecoding() {
+        return compactModelDecoding;
+    }
+
+    boolean isLocalStore() {
+        return localStore;
+    }
+
+    File getMessageJournalDirectory() {
+        return messageJournalDirectory;
+    }
+
+    int getMessageJournalSegmentSize() {
+        return messageJournalSegmentSize;
+    }
+
+    boolean isMessageSearchIndex() {
+        return messageSearchIndex;
+    }
+
+    File getMediaCacheDirectory() {
+        return mediaCacheDirectory;
+    }
+
+    long getMediaCacheMaxBytes() {
+        return mediaCacheMaxBytes;
+    }
+
+    Duration getMediaCachePictureTtl() {
+        return mediaCachePictureTtl;
+    }
+}
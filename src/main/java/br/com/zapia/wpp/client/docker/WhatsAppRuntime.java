@@ -0,0 +1,200 @@
+package br.com.zapia.wpp.client.docker;
+
+import br.com.zapia.wpp.api.model.payloads.WebSocketRequestPayLoad;
+import br.com.zapia.wpp.api.model.payloads.WebSocketResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timer;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import okhttp3.OkHttpClient;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class WhatsAppRuntime implements AutoCloseable {
+
+    private static final Logger logger = Logger.getLogger(WhatsAppRuntime.class.getName());
+
+    private static final long TIMER_TICK_MILLIS = 100;
+    private static final int TIMER_TICKS_PER_WHEEL = 512;
+
+    static final Function<Runnable, Thread> DEFAULT_THREAD_FACTORY = runnable -> new Thread(runnable);
+
+    private static volatile Timer sharedTimer;
+    private static WhatsAppRuntime sharedRuntime;
+    private static WhatsAppRuntime sharedVirtualRuntime;
+
+    private final ExecutorService executorService;
+    private final ScheduledExecutorService scheduledExecutorService;
+    private final OkHttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final AtomicInteger references;
+    private final boolean virtualThreads;
+    private volatile EventLoopGroup eventLoopGroup;
+
+    public WhatsAppRuntime() {
+        this(Math.max(2, Runtime.getRuntime().availableProcessors()), DEFAULT_THREAD_FACTORY);
+    }
+
+    public WhatsAppRuntime(int schedulerThreads, Function<Runnable, Thread> threadFactory) {
+        this(schedulerThreads, threadFactory, false);
+    }
+
+    public WhatsAppRuntime(int schedulerThreads, Function<Runnable, Thread> threadFactory, boolean virtualThreads) {
+        if (virtualThreads && !VirtualThreads.isSupported()) {
+            logger.log(Level.WARNING, "Virtual threads requested but not supported by this JVM {" + Runtime.version() + "}, using platform threads");
+        }
+        this.virtualThreads = virtualThreads && VirtualThreads.isSupported();
+        if (this.virtualThreads && threadFactory != DEFAULT_THREAD_FACTORY) {
+            throw new IllegalArgumentException("Virtual threads can not be combined with a custom threadFactory, wrap tasks with runnableFactory instead");
+        }
+        this.executorService = this.virtualThreads ? VirtualThreads.newExecutor() : Executors.newCachedThreadPool(threadFactory::apply);
+        this.scheduledExecutorService = Executors.newScheduledThreadPool(schedulerThreads, threadFactory::apply);
+        this.httpClient = new OkHttpClient();
+        this.objectMapper = newObjectMapper();
+        this.references = new AtomicInteger(1);
+    }
+
+    public int getReferenceCount() {
+        return references.get();
+    }
+
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public static boolean isVirtualThreadsSupported() {
+        return VirtualThreads.isSupported();
+    }
+
+    public boolean isShutdown() {
+        return references.get() <= 0;
+    }
+
+    public WhatsAppRuntime retain() {
+        int current;
+        do {
+            current = references.get();
+            if (current <= 0) {
+                throw new IllegalStateException("WhatsAppRuntime already shutdown");
+            }
+        } while (!references.compareAndSet(current, current + 1));
+        return this;
+    }
+
+    public boolean release() {
+        int remaining = references.decrementAndGet();
+        if (remaining == 0) {
+            shutdown();
+            return true;
+        } else if (remaining < 0) {
+            references.incrementAndGet();
+            throw new IllegalStateException("WhatsAppRuntime released more times than retained");
+        }
+        return false;
+    }
+
+    @Override
+    public void close() {
+        release();
+    }
+
+    static synchronized WhatsAppRuntime shared(boolean virtualThreads) {
+        WhatsAppRuntime runtime = virtualThreads ? sharedVirtualRuntime : sharedRuntime;
+        if (runtime != null) {
+            try {
+                return runtime.retain();
+            } catch (IllegalStateException e) {
+                logger.log(Level.FINE, "Shared runtime already shutdown, creating a new one", e);
+            }
+        }
+        runtime = new WhatsAppRuntime(Math.max(2, Runtime.getRuntime().availableProcessors()), DEFAULT_THREAD_FACTORY, virtualThreads);
+        if (virtualThreads) {
+            sharedVirtualRuntime = runtime;
+        } else {
+            sharedRuntime = runtime;
+        }
+        return runtime;
+    }
+
+    static Timer sharedTimer() {
+        Timer timer = sharedTimer;
+        if (timer == null) {
+            synchronized (WhatsAppRuntime.class) {
+                timer = sharedTimer;
+                if (timer == null) {
+                    timer = new HashedWheelTimer(new DefaultThreadFactory("wpp-timer", true), TIMER_TICK_MILLIS, TimeUnit.MILLISECONDS, TIMER_TICKS_PER_WHEEL);
+                    sharedTimer = timer;
+                }
+            }
+        }
+        return timer;
+    }
+
+    static ObjectMapper newObjectMapper() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.addMixIn(WebSocketResponse.class, WsResponseDecoder.WebSocketResponseMixIn.class);
+        objectMapper.addMixIn(WebSocketRequestPayLoad.class, WsRequestEncoder.WebSocketRequestPayLoadMixIn.class);
+        return objectMapper;
+    }
+
+    private void shutdown() {
+        scheduledExecutorService.shutdownNow();
+        executorService.shutdown();
+        synchronized (this) {
+            if (eventLoopGroup != null) {
+                eventLoopGroup.shutdownGracefully();
+            }
+        }
+        httpClient.dispatcher().executorService().shutdown();
+        httpClient.connectionPool().evictAll();
+    }
+
+    ExecutorService getExecutorService() {
+        return executorService;
+    }
+
+    ScheduledExecutorService getScheduledExecutorService() {
+        return scheduledExecutorService;
+    }
+
+    Timer getTimer() {
+        return sharedTimer();
+    }
+
+    EventLoopGroup getEventLoopGroup() {
+        if (isShutdown()) {
+            throw new IllegalStateException("WhatsAppRuntime already shutdown");
+        }
+        EventLoopGroup eventLoopGroup = this.eventLoopGroup;
+        if (eventLoopGroup == null) {
+            synchronized (this) {
+                eventLoopGroup = this.eventLoopGroup;
+                if (eventLoopGroup == null) {
+                    if (isShutdown()) {
+                        throw new IllegalStateException("WhatsAppRuntime already shutdown");
+                    }
+                    eventLoopGroup = new NioEventLoopGroup(0, new DefaultThreadFactory("wpp-ws-netty", true));
+                    this.eventLoopGroup = eventLoopGroup;
+                }
+            }
+        }
+        return eventLoopGroup;
+    }
+
+    OkHttpClient getHttpClient() {
+        return httpClient;
+    }
+
+    ObjectMapper getObjectMapper() {
+        return objectMapper;
+    }
+}
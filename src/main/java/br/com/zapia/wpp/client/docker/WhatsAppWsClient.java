@@ -3,35 +3,47 @@ package br.com.zapia.wpp.client.docker;
 import br.com.zapia.wpp.api.model.handlersWebSocket.EventWebSocket;
 import br.com.zapia.wpp.api.model.payloads.*;
 import br.com.zapia.wpp.client.docker.model.*;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import okhttp3.*;
 import org.apache.tika.Tika;
-import org.java_websocket.client.WebSocketClient;
-import org.java_websocket.handshake.ServerHandshake;
-import utils.Utils;
 
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URL;
 import java.net.URLConnection;
 import java.net.URLDecoder;
+import java.nio.ByteBuffer;
 import java.nio.channels.Channels;
 import java.nio.channels.FileChannel;
 import java.nio.channels.ReadableByteChannel;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.function.BooleanSupplier;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
-class WhatsAppWsClient extends WebSocketClient {
+class WhatsAppWsClient implements WsConnection.Listener {
+
     private final Map<UUID, WsMessageSend> wsEvents;
-    private final Map<UUID, List<WebSocketResponseFrame>> wsPartialEvents;
+    private final Map<UUID, WsFrameReassembler> wsPartialEvents;
     private final Map<UUID, Consumer<List<Message>>> chatsMessageListener;
     private final ObjectMapper objectMapper;
+    private final JsonNodeFactory nodeFactory;
+    private final ObjectReader treeReader;
+    private final WsFrameDecoder frameDecoder;
+    private final WsResponseDecoder responseDecoder;
+    private final WsRequestEncoder requestEncoder;
+    private final WsFrameWriter frameWriter;
+    private final WsConnection wsConnection;
 
     private final Runnable onInit;
     private final WhatsAppClient whatsAppClient;
@@ -47,6 +59,16 @@ class WhatsAppWsClient extends WebSocketClient {
     private final Function<Runnable, Thread> threadFactory;
     private final ExecutorService executorService;
     private final ScheduledExecutorService scheduledExecutorService;
+    private final EventDispatcher eventDispatcher;
+    private final EventCoalescer eventCoalescer;
+    private final RequestDeadlines requestDeadlines;
+    private final RequestWindow requestWindow;
+    private final RetryPolicies retryPolicies;
+    private final SingleFlight<String, WebSocketResponse> readSingleFlight;
+    private final LocalStore localStore;
+    private final MessageJournal messageJournal;
+    private final MediaCache mediaCache;
+    private final MessageSearchIndex messageSearchIndex;
 
     private final List<Consumer<Chat>> newChatListeners;
     private final List<Consumer<Chat>> updateChatListeners;
@@ -56,16 +78,28 @@ class WhatsAppWsClient extends WebSocketClient {
     private final List<Consumer<List<Message>>> removeMessageListeners;
 
     private final String endPointAddress;
+    private volatile int firstFrameId;
 
-    protected WhatsAppWsClient(URI serverUri, WhatsAppClient whatsAppClient, Runnable onInit, Consumer<String> onNeedQrCode, Consumer<DriverState> onUpdateDriverState, Consumer<Throwable> onError, Consumer<Integer> onLowBattery, Runnable onPhoneDisconnect, Runnable onWsConnect, OnWsDisconnect onWsDisconnect, Function<Runnable, Runnable> runnableFactory, Function<Callable, Callable> callableFactory, Function<Runnable, Thread> threadFactory, ExecutorService executorService, ScheduledExecutorService scheduledExecutorService) {
-        super(serverUri);
+    protected WhatsAppWsClient(URI serverUri, WhatsAppClient whatsAppClient, Runnable onInit, Consumer<String> onNeedQrCode, Consumer<DriverState> onUpdateDriverState, Consumer<Throwable> onError, Consumer<Integer> onLowBattery, Runnable onPhoneDisconnect, Runnable onWsConnect, OnWsDisconnect onWsDisconnect, Function<Runnable, Runnable> runnableFactory, Function<Callable, Callable> callableFactory, Function<Runnable, Thread> threadFactory, ExecutorService executorService, ScheduledExecutorService scheduledExecutorService, WsTransport wsTransport) {
+        if (wsTransport == WsTransport.NETTY) {
+            this.wsConnection = new NettyWsConnection(serverUri, this, whatsAppClient.getEventLoopGroup());
+        } else {
+            this.wsConnection = new JavaWebSocketConnection(serverUri, this);
+        }
         this.onLowBattery = onLowBattery;
         this.onPhoneDisconnect = onPhoneDisconnect;
-        this.endPointAddress = uri.getHost();
+        this.endPointAddress = serverUri.getHost();
         this.wsEvents = new ConcurrentHashMap<>();
         this.wsPartialEvents = new ConcurrentHashMap<>();
+        this.firstFrameId = WsFrameReassembler.UNKNOWN_FIRST_FRAME_ID;
         this.chatsMessageListener = new ConcurrentHashMap<>();
-        this.objectMapper = new ObjectMapper();
+        this.objectMapper = whatsAppClient.getObjectMapper();
+        this.nodeFactory = whatsAppClient.getNodeFactory();
+        this.treeReader = objectMapper.reader(nodeFactory);
+        this.frameDecoder = new WsFrameDecoder();
+        this.responseDecoder = new WsResponseDecoder(objectMapper, nodeFactory);
+        this.requestEncoder = new WsRequestEncoder(objectMapper);
+        this.frameWriter = new WsFrameWriter(wsConnection::sendTextFrames, executorService);
         this.onInit = onInit;
         this.whatsAppClient = whatsAppClient;
         this.onNeedQrCode = onNeedQrCode;
@@ -78,6 +112,16 @@ class WhatsAppWsClient extends WebSocketClient {
         this.threadFactory = threadFactory;
         this.executorService = executorService;
         this.scheduledExecutorService = scheduledExecutorService;
+        this.eventDispatcher = whatsAppClient.getEventDispatcher();
+        this.eventCoalescer = whatsAppClient.getEventCoalescer();
+        this.requestDeadlines = whatsAppClient.getRequestDeadlines();
+        this.requestWindow = whatsAppClient.getRequestWindow();
+        this.retryPolicies = whatsAppClient.getRetryPolicies();
+        this.readSingleFlight = whatsAppClient.getReadSingleFlight();
+        this.localStore = whatsAppClient.getLocalStore();
+        this.messageJournal = whatsAppClient.getMessageJournal();
+        this.mediaCache = whatsAppClient.getMediaCache();
+        this.messageSearchIndex = whatsAppClient.getMessageSearchIndex();
         this.newChatListeners = new CopyOnWriteArrayList<>();
         this.updateChatListeners = new CopyOnWriteArrayList<>();
         this.removeChatListeners = new CopyOnWriteArrayList<>();
@@ -87,37 +131,52 @@ class WhatsAppWsClient extends WebSocketClient {
     }
 
     protected CompletableFuture<WebSocketResponse> sendWsMessage(WebSocketRequestPayLoad payload) {
-        return sendWsMessage(new WsMessageSend(payload, new CompletableFuture<>()));
+        return sendWsMessage(payload, null);
+    }
+
+    protected CompletableFuture<WebSocketResponse> sendWsMessage(WebSocketRequestPayLoad payload, Duration timeout) {
+        if (EventCategories.isReadOnly(payload.getEvent())) {
+            String key = singleFlightKey(payload);
+            if (key != null) {
+                return readSingleFlight.execute(key, () -> sendWsRequest(payload, timeout));
+            }
+        }
+        return sendWsRequest(payload, timeout);
+    }
+
+    private CompletableFuture<WebSocketResponse> sendWsRequest(WebSocketRequestPayLoad payload, Duration timeout) {
+        return sendWsRequest(new WsMessageSend(payload, new CompletableFuture<>()), timeout);
+    }
+
+    private CompletableFuture<WebSocketResponse> sendWsRequest(WsMessageSend wsMessageSend, Duration timeout) {
+        WebSocketRequestPayLoad payload = wsMessageSend.getPayLoad();
+        requestDeadlines.arm(wsMessageSend.getWsEvent(), payload.getEvent(), timeout);
+        requestWindow.submit(payload.getEvent(), wsMessageSend.getWsEvent(), () -> sendWsMessage(wsMessageSend));
+        return wsMessageSend.getWsEvent();
     }
 
     protected CompletableFuture<WebSocketResponse> sendWsMessage(WsMessageSend wsMessageSend) {
+        if (wsMessageSend.getWsEvent().isDone()) {
+            return wsMessageSend.getWsEvent();
+        }
         try {
             UUID uuid = UUID.randomUUID();
             WebSocketRequest webSocketRequest = new WebSocketRequest();
             webSocketRequest.setTag(uuid.toString());
-            if (wsMessageSend.getPayLoad().getPayload() != null && !(wsMessageSend.getPayLoad().getPayload() instanceof String)) {
-                wsMessageSend.getPayLoad().setPayload(objectMapper.writeValueAsString(wsMessageSend.getPayLoad().getPayload()));
-            }
             webSocketRequest.setWebSocketRequestPayLoad(wsMessageSend.getPayLoad());
-            String serialized = objectMapper.writeValueAsString(webSocketRequest);
+            wsMessageSend.setTag(uuid);
             CompletableFuture<WebSocketResponse> response = wsMessageSend.getWsEvent();
             response.whenComplete((response1, throwable) -> {
                 wsEvents.remove(uuid);
+                wsPartialEvents.remove(uuid);
             });
-            wsEvents.put(uuid, new WsMessageSend(wsMessageSend.getPayLoad(), response, wsMessageSend.getTries()));
+            wsEvents.put(uuid, wsMessageSend);
             try {
-                send(serialized);
+                requestEncoder.encode(webSocketRequest, frame -> frameWriter.write(frame, e -> onSendFailure(uuid, wsMessageSend, e)));
+            } catch (JsonProcessingException e) {
+                response.completeExceptionally(e);
             } catch (Exception e) {
-                wsEvents.remove(uuid);
-                if (wsMessageSend.getTries() < 3) {
-                    wsMessageSend.setTries(wsMessageSend.getTries() + 1);
-                    onError(new RuntimeException("Fail on send message to websocket, message wil be send again in 1 minute, tries remain {" + (3 - wsMessageSend.getTries()) + "}"));
-                    scheduledExecutorService.schedule(() -> {
-                        sendWsMessage(wsMessageSend);
-                    }, 1, TimeUnit.MINUTES);
-                } else {
-                    return CompletableFuture.failedFuture(e);
-                }
+                onSendFailure(uuid, wsMessageSend, e);
             }
             return response;
         } catch (Exception e) {
@@ -125,65 +184,98 @@ class WhatsAppWsClient extends WebSocketClient {
         }
     }
 
-    private void processWsResponse(String tag, String payload) {
-        UUID uuid = UUID.fromString(tag);
+    private void onSendFailure(UUID uuid, WsMessageSend wsMessageSend, Exception e) {
+        wsEvents.remove(uuid);
+        RetryPolicy retryPolicy = retryPolicies.forEvent(wsMessageSend.getPayLoad().getEvent());
+        long delay = retryPolicy.retriesSendFailure() ? retryPolicy.nextDelayMillis(wsMessageSend.getTries() + 1, wsMessageSend.getElapsedMillis()) : -1;
+        if (delay >= 0) {
+            wsMessageSend.setTries(wsMessageSend.getTries() + 1);
+            onError(new RuntimeException("Fail on send message to websocket, message wil be send again in {" + delay + "ms}, tries remain {" + (retryPolicy.getMaxRetries() - wsMessageSend.getTries()) + "}"));
+            scheduledExecutorService.schedule(() -> {
+                sendWsMessage(wsMessageSend);
+            }, delay, TimeUnit.MILLISECONDS);
+        } else {
+            wsMessageSend.getWsEvent().completeExceptionally(e);
+        }
+    }
+
+    private String singleFlightKey(WebSocketRequestPayLoad payload) {
+        Object request = payload.getPayload();
+        if (request == null || request instanceof String) {
+            return payload.getEvent().name() + ":" + request;
+        }
+        try {
+            return payload.getEvent().name() + ":" + objectMapper.writeValueAsString(request);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    private void processWsResponse(UUID uuid, byte[] payload) {
         if (wsEvents.containsKey(uuid)) {
             WsMessageSend wsMessageSend = wsEvents.get(uuid);
             try {
-                WebSocketResponse response = objectMapper.readValue(payload, WebSocketResponse.class);
+                WebSocketResponse response = responseDecoder.readResponse(payload);
                 if (response instanceof WebSocketResponseFrame) {
-                    if (!wsPartialEvents.containsKey(uuid)) {
-                        wsPartialEvents.put(uuid, new CopyOnWriteArrayList<>());
+                    WebSocketResponseFrame frame = (WebSocketResponseFrame) response;
+                    WsFrameReassembler reassembler = wsPartialEvents.computeIfAbsent(uuid, key -> new WsFrameReassembler(objectMapper, nodeFactory, firstFrameId, frame.getQtdFrames(), wsMessageSend.getElementConsumer(), wsMessageSend.getElementBackpressure()));
+                    wsMessageSend.setFrameStatus(response.getStatus());
+                    boolean complete = reassembler.add(frame.getFrameId(), frame.getResponse());
+                    if (firstFrameId == WsFrameReassembler.UNKNOWN_FIRST_FRAME_ID) {
+                        firstFrameId = reassembler.getFirstFrameId();
                     }
-                    wsPartialEvents.get(uuid).add((WebSocketResponseFrame) response);
-                    if (((WebSocketResponseFrame) response).getQtdFrames() == wsPartialEvents.get(uuid).size()) {
-                        WebSocketResponse fullResponse = new WebSocketResponse();
-                        fullResponse.setStatus(response.getStatus());
-                        wsPartialEvents.get(uuid).sort(Comparator.comparingInt(WebSocketResponseFrame::getFrameId));
-                        List<WebSocketResponseFrame> webSocketResponseFrames = wsPartialEvents.get(uuid);
-                        StringBuilder stringBuilder = new StringBuilder();
-                        webSocketResponseFrames.forEach(webSocketResponseFrame -> {
-                            stringBuilder.append(webSocketResponseFrame.getResponse());
-                        });
-                        fullResponse.setResponse(stringBuilder.toString());
-                        processWsResponse(wsMessageSend, fullResponse);
+                    if (complete) {
+                        processReassembledResponse(uuid, wsMessageSend, reassembler);
                     }
                 } else {
                     processWsResponse(wsMessageSend, response);
                 }
             } catch (IOException e) {
+                wsPartialEvents.remove(uuid);
                 wsMessageSend.getWsEvent().completeExceptionally(e);
             }
         } else if (chatsMessageListener.containsKey(uuid)) {
             try {
-                chatsMessageListener.get(uuid).accept(Arrays.asList(Message.build(whatsAppClient, objectMapper.readTree(payload))));
+                chatsMessageListener.get(uuid).accept(Arrays.asList(Message.build(whatsAppClient, treeReader.readTree(payload))));
             } catch (IOException e) {
                 onError(new RuntimeException(e));
             }
         }
     }
 
-    private void processWsResponse(WsMessageSend wsMessageSend, WebSocketResponse response) throws IOException {
-        if (response.getResponse() instanceof LinkedHashMap || response.getResponse() instanceof List) {
-            response.setResponse(objectMapper.readTree(objectMapper.writeValueAsString(response.getResponse())));
-        } else if (response.getResponse() instanceof String) {
-            try {
-                JsonNode jsonNode = objectMapper.readTree((String) response.getResponse());
-                response.setResponse(jsonNode);
-            } catch (Exception e) {
+    private void processReassembledResponse(UUID uuid, WsMessageSend wsMessageSend, WsFrameReassembler reassembler) throws IOException {
+        wsPartialEvents.remove(uuid);
+        WebSocketResponse fullResponse = new WebSocketResponse();
+        fullResponse.setStatus(wsMessageSend.getFrameStatus());
+        fullResponse.setResponse(reassembler.getResponse());
+        processWsResponse(wsMessageSend, fullResponse);
+    }
 
+    private void processWsResponse(WsMessageSend wsMessageSend, WebSocketResponse response) throws IOException {
+        response.setResponse(responseDecoder.decode(response.getResponse()));
+        if (response.getStatus() == 200 && wsMessageSend.getElementConsumer() != null && response.getResponse() instanceof JsonNode) {
+            JsonNode jsonNode = (JsonNode) response.getResponse();
+            if (jsonNode.isArray()) {
+                response.setResponse(nodeFactory.arrayNode());
+                wsMessageSend.setPendingElements(jsonNode.iterator(), response);
+                pumpElements(wsMessageSend);
+                return;
             }
         }
         if (response.getStatus() == 200 || response.getStatus() == 201 || response.getStatus() == 404) {
             wsMessageSend.getWsEvent().complete(response);
-        } else if ((response.getStatus() == 500 || response.getStatus() == 429) && wsMessageSend.getTries() < 3) {
-            wsMessageSend.setTries(wsMessageSend.getTries() + 1);
-            onError(new RuntimeException("Response for event {" + wsMessageSend.getPayLoad().getEvent() + "} failed with status {" + response.getStatus() + "} and message {" + response.getResponse() + "}, command will be send again in 1 minute, tries remain {" + (3 - wsMessageSend.getTries()) + "}"));
-            scheduledExecutorService.schedule(() -> {
-                sendWsMessage(wsMessageSend);
-            }, 1, TimeUnit.MINUTES);
         } else {
-            wsMessageSend.getWsEvent().completeExceptionally(new RuntimeException("Event {" + wsMessageSend.getPayLoad().getEvent() + "} failed with status {" + response.getStatus() + "} and message {" + response.getResponse() + "}"));
+            RetryPolicy retryPolicy = retryPolicies.forEvent(wsMessageSend.getPayLoad().getEvent());
+            long delay = retryPolicy.retriesStatus(response.getStatus()) ? retryPolicy.nextDelayMillis(wsMessageSend.getTries() + 1, wsMessageSend.getElapsedMillis()) : -1;
+            if (delay >= 0) {
+                wsMessageSend.setTries(wsMessageSend.getTries() + 1);
+                onError(new RuntimeException("Response for event {" + wsMessageSend.getPayLoad().getEvent() + "} failed with status {" + response.getStatus() + "} and message {" + response.getResponse() + "}, command will be send again in {" + delay + "ms}, tries remain {" + (retryPolicy.getMaxRetries() - wsMessageSend.getTries()) + "}"));
+                scheduledExecutorService.schedule(() -> {
+                    sendWsMessage(wsMessageSend);
+                }, delay, TimeUnit.MILLISECONDS);
+            } else {
+                wsMessageSend.getWsEvent().completeExceptionally(new RuntimeException("Event {" + wsMessageSend.getPayLoad().getEvent() + "} failed with status {" + response.getStatus() + "} and message {" + response.getResponse() + "}"));
+            }
         }
     }
 
@@ -191,7 +283,7 @@ class WhatsAppWsClient extends WebSocketClient {
         return CompletableFuture.supplyAsync(() -> {
             try {
                 int port = getRemotePort();
-                OkHttpClient client = new OkHttpClient();
+                OkHttpClient client = whatsAppClient.getHttpClient();
                 Request request = new Request.Builder()
                         .url("http://" + endPointAddress + ":" + port + "/api/remoteManagement/stats").get().build();
                 try (Response response = client.newCall(request).execute()) {
@@ -251,6 +343,24 @@ class WhatsAppWsClient extends WebSocketClient {
     }
 
     protected CompletableFuture<Chat> findChatById(String id) {
+        if (localStore != null) {
+            Chat chat = localStore.getChat(id);
+            if (chat != null) {
+                return CompletableFuture.completedFuture(chat);
+            }
+            return storeChat(findChatByIdRemote(id));
+        }
+        return findChatByIdRemote(id);
+    }
+
+    protected CompletableFuture<Chat> fetchChatById(String id) {
+        if (localStore != null) {
+            return storeChat(findChatByIdRemote(id));
+        }
+        return findChatByIdRemote(id);
+    }
+
+    private CompletableFuture<Chat> findChatByIdRemote(String id) {
         WebSocketRequestPayLoad payLoad = new WebSocketRequestPayLoad();
         payLoad.setEvent(EventWebSocket.FindChat);
         payLoad.setPayload(id);
@@ -264,6 +374,17 @@ class WhatsAppWsClient extends WebSocketClient {
     }
 
     protected CompletableFuture<Chat> findChatByNumber(String number) {
+        if (localStore != null) {
+            Chat chat = localStore.getChatByNumber(number);
+            if (chat != null) {
+                return CompletableFuture.completedFuture(chat);
+            }
+            return storeChat(findChatByNumberRemote(number));
+        }
+        return findChatByNumberRemote(number);
+    }
+
+    private CompletableFuture<Chat> findChatByNumberRemote(String number) {
         WebSocketRequestPayLoad payLoad = new WebSocketRequestPayLoad();
         payLoad.setEvent(EventWebSocket.FindChatByNumber);
         payLoad.setPayload(number);
@@ -277,6 +398,17 @@ class WhatsAppWsClient extends WebSocketClient {
     }
 
     protected CompletableFuture<Contact> findContactById(String id) {
+        if (localStore != null) {
+            Contact contact = localStore.getContact(id);
+            if (contact != null) {
+                return CompletableFuture.completedFuture(contact);
+            }
+            return storeContact(findContactByIdRemote(id));
+        }
+        return findContactByIdRemote(id);
+    }
+
+    private CompletableFuture<Contact> findContactByIdRemote(String id) {
         WebSocketRequestPayLoad payLoad = new WebSocketRequestPayLoad();
         payLoad.setEvent(EventWebSocket.FindContact);
         payLoad.setPayload(id);
@@ -290,6 +422,17 @@ class WhatsAppWsClient extends WebSocketClient {
     }
 
     protected CompletableFuture<Contact> findContactByNumber(String number) {
+        if (localStore != null) {
+            Contact contact = localStore.getContactByNumber(number);
+            if (contact != null) {
+                return CompletableFuture.completedFuture(contact);
+            }
+            return storeContact(findContactByNumberRemote(number));
+        }
+        return findContactByNumberRemote(number);
+    }
+
+    private CompletableFuture<Contact> findContactByNumberRemote(String number) {
         WebSocketRequestPayLoad payLoad = new WebSocketRequestPayLoad();
         payLoad.setEvent(EventWebSocket.FindContactByNumber);
         payLoad.setPayload(number);
@@ -302,6 +445,38 @@ class WhatsAppWsClient extends WebSocketClient {
         });
     }
 
+    private CompletableFuture<Chat> storeChat(CompletableFuture<Chat> remote) {
+        long sequence = localStore.nextSequence();
+        return remote.whenComplete((chat, throwable) -> {
+            if (chat != null) {
+                localStore.putChat(sequence, chat);
+            } else {
+                localStore.release(sequence);
+            }
+        });
+    }
+
+    private CompletableFuture<Contact> storeContact(CompletableFuture<Contact> remote) {
+        return remote.thenApply(contact -> {
+            if (contact != null) {
+                localStore.putContact(contact);
+            }
+            return contact;
+        });
+    }
+
+    private void seedLocalStore() {
+        long sequence = localStore.nextSequence();
+        getAllChats().thenCombine(getAllContacts(), (chats, contacts) -> {
+            localStore.seed(sequence, chats, contacts);
+            return null;
+        }).exceptionally(throwable -> {
+            localStore.release(sequence);
+            onError(new RuntimeException("Fail on seed local store", throwable));
+            return null;
+        });
+    }
+
     protected CompletableFuture<List<Chat>> getAllChats() {
         WebSocketRequestPayLoad payLoad = new WebSocketRequestPayLoad();
         payLoad.setEvent(EventWebSocket.GetAllChats);
@@ -328,6 +503,76 @@ class WhatsAppWsClient extends WebSocketClient {
         });
     }
 
+    protected Flow.Publisher<Chat> streamAllChats() {
+        return new StreamPublisher<Chat>(runnable -> executorService.execute(runnableFactory.apply(runnable)), StreamPublisher.DEFAULT_CAPACITY, publisher -> streamWsMessage(EventWebSocket.GetAllChats, jsonNode -> publisher.next(Chat.build(whatsAppClient, jsonNode)), publisher));
+    }
+
+    protected Flow.Publisher<Contact> streamAllContacts() {
+        return new StreamPublisher<Contact>(runnable -> executorService.execute(runnableFactory.apply(runnable)), StreamPublisher.DEFAULT_CAPACITY, publisher -> streamWsMessage(EventWebSocket.GetAllContacts, jsonNode -> publisher.next(new Contact(whatsAppClient, jsonNode)), publisher));
+    }
+
+    private void streamWsMessage(EventWebSocket event, Consumer<JsonNode> elementConsumer, StreamPublisher<?> publisher) {
+        WebSocketRequestPayLoad payLoad = new WebSocketRequestPayLoad();
+        payLoad.setEvent(event);
+        WsMessageSend wsMessageSend = new WsMessageSend(payLoad, new CompletableFuture<>());
+        wsMessageSend.setElementConsumer(jsonNode -> {
+            if (!publisher.isCancelled()) {
+                elementConsumer.accept(jsonNode);
+            }
+        });
+        wsMessageSend.setElementBackpressure(publisher::isSaturated);
+        publisher.setOnDemand(() -> resumeStream(wsMessageSend));
+        publisher.setOnCancel(() -> wsMessageSend.getWsEvent().cancel(false));
+        sendWsRequest(wsMessageSend, null).whenComplete((response, throwable) -> {
+            if (throwable != null) {
+                publisher.error(throwable);
+            } else if (response.getStatus() != 200) {
+                publisher.error(new RuntimeException("Stream of event {" + event + "} failed with status {" + response.getStatus() + "} and message {" + response.getResponse() + "}"));
+            } else {
+                publisher.complete();
+            }
+        });
+    }
+
+    private void resumeStream(WsMessageSend wsMessageSend) {
+        UUID uuid = wsMessageSend.getTag();
+        try {
+            WsFrameReassembler reassembler = uuid == null ? null : wsPartialEvents.get(uuid);
+            if (reassembler != null) {
+                if (reassembler.resume()) {
+                    processReassembledResponse(uuid, wsMessageSend, reassembler);
+                }
+            } else {
+                pumpElements(wsMessageSend);
+            }
+        } catch (IOException e) {
+            if (uuid != null) {
+                wsPartialEvents.remove(uuid);
+            }
+            wsMessageSend.getWsEvent().completeExceptionally(e);
+        }
+    }
+
+    private void pumpElements(WsMessageSend wsMessageSend) {
+        WebSocketResponse response;
+        synchronized (wsMessageSend) {
+            Iterator<JsonNode> elements = wsMessageSend.getPendingElements();
+            if (elements == null) {
+                return;
+            }
+            BooleanSupplier backpressure = wsMessageSend.getElementBackpressure();
+            while (elements.hasNext()) {
+                if (backpressure != null && backpressure.getAsBoolean()) {
+                    return;
+                }
+                wsMessageSend.getElementConsumer().accept(elements.next());
+            }
+            response = wsMessageSend.getPendingResponse();
+            wsMessageSend.setPendingElements(null, null);
+        }
+        wsMessageSend.getWsEvent().complete(response);
+    }
+
     protected CompletableFuture<List<QuickReply>> getAllQuickReplies() {
         var payLoad = new WebSocketRequestPayLoad();
         payLoad.setEvent(EventWebSocket.GetAllQuickReplies);
@@ -381,42 +626,73 @@ class WhatsAppWsClient extends WebSocketClient {
         });
     }
 
-    protected CompletableFuture<File> downloadMediaMessage(String msgId) {
-        WebSocketRequestPayLoad payLoad = new WebSocketRequestPayLoad();
-        payLoad.setEvent(EventWebSocket.DownloadMedia);
-        payLoad.setPayload(msgId);
-        return sendWsMessage(payLoad).thenCompose(response -> {
-            if (response.getStatus() == 200) {
-                return downloadFile((String) response.getResponse());
+    protected CompletableFuture<File> downloadMediaMessage(String msgId, String mediaHash) {
+        String[] cacheKeys = {MediaCache.messageKey(msgId), MediaCache.mediaKey(mediaHash)};
+        return getCachedFile(cacheKeys).thenCompose(cached -> {
+            if (cached != null) {
+                return CompletableFuture.completedFuture(cached);
             }
+            WebSocketRequestPayLoad payLoad = new WebSocketRequestPayLoad();
+            payLoad.setEvent(EventWebSocket.DownloadMedia);
+            payLoad.setPayload(msgId);
+            return sendWsMessage(payLoad).thenCompose(response -> {
+                if (response.getStatus() == 200) {
+                    return downloadFile((String) response.getResponse(), cacheKeys);
+                }
 
-            return CompletableFuture.completedFuture(null);
+                return CompletableFuture.completedFuture(null);
+            });
         });
     }
 
     protected CompletableFuture<File> getProfilePic(String contactId, boolean full) {
-        WebSocketRequestPayLoad payLoad = new WebSocketRequestPayLoad();
-        payLoad.setEvent(EventWebSocket.FindPicture);
-        FindPictureRequest findPictureRequest = new FindPictureRequest();
-        findPictureRequest.setId(contactId);
-        findPictureRequest.setFull(full);
-        payLoad.setPayload(findPictureRequest);
-        return sendWsMessage(payLoad).thenCompose(response -> {
-            if (response.getStatus() == 200) {
-                return downloadFile((String) response.getResponse());
+        String cacheKey = MediaCache.pictureKey(contactId, full);
+        return getCachedFile(cacheKey).thenCompose(cached -> {
+            if (cached != null) {
+                return CompletableFuture.completedFuture(cached);
             }
+            WebSocketRequestPayLoad payLoad = new WebSocketRequestPayLoad();
+            payLoad.setEvent(EventWebSocket.FindPicture);
+            FindPictureRequest findPictureRequest = new FindPictureRequest();
+            findPictureRequest.setId(contactId);
+            findPictureRequest.setFull(full);
+            payLoad.setPayload(findPictureRequest);
+            return sendWsMessage(payLoad).thenCompose(response -> {
+                if (response.getStatus() == 200) {
+                    return downloadFile((String) response.getResponse(), cacheKey);
+                }
 
-            return CompletableFuture.completedFuture(null);
+                return CompletableFuture.completedFuture(null);
+            });
         });
     }
 
-    protected CompletableFuture<File> downloadFile(String key) {
+    private CompletableFuture<File> getCachedFile(String... cacheKeys) {
+        if (mediaCache == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return mediaCache.get(cacheKeys);
+            } catch (IOException e) {
+                onError(new RuntimeException("Fail on read media cache, downloading again", e));
+                return null;
+            }
+        }, executorService);
+    }
+
+    protected CompletableFuture<File> downloadFile(String key, String... cacheKeys) {
         return CompletableFuture.supplyAsync(() -> {
             try {
                 int port = getRemotePort();
                 URL url = new URL("http://" + endPointAddress + ":" + port + "/api/downloadFile/" + key);
                 URLConnection urlConnection = url.openConnection();
                 String filename = URLDecoder.decode(urlConnection.getHeaderField("Filename"), StandardCharsets.UTF_8);
+                if (mediaCache != null && cacheKeys.length > 0) {
+                    try (InputStream inputStream = urlConnection.getInputStream()) {
+                        return mediaCache.put(inputStream, filename, cacheKeys);
+                    }
+                }
                 ReadableByteChannel readableByteChannel = Channels.newChannel(urlConnection.getInputStream());
                 File tempFile = File.createTempFile(filename + "#", "." + filename.split("\\.", 2)[1]);
                 FileOutputStream fileOutputStream = new FileOutputStream(tempFile);
@@ -450,14 +726,14 @@ class WhatsAppWsClient extends WebSocketClient {
         CompletableFuture<String> completableFuture = new CompletableFuture<>();
         executorService.submit(() -> {
             try {
-                OkHttpClient client = new OkHttpClient();
+                OkHttpClient client = whatsAppClient.getHttpClient();
                 RequestBody formBody = new MultipartBody.Builder()
                         .setType(MultipartBody.FORM)
                         .addFormDataPart("file", name,
                                 RequestBody.create(MediaType.parse(new Tika().detect(file)), file))
                         .build();
 
-                int port = getConnection().getRemoteSocketAddress().getPort();
+                int port = wsConnection.getRemoteSocketAddress().getPort();
 
 
                 Request request = new Request.Builder().url("http://" + endPointAddress + ":" + port + "/api/uploadFile/").post(formBody).build();
@@ -713,37 +989,81 @@ class WhatsAppWsClient extends WebSocketClient {
         return wsEvents;
     }
 
+    protected boolean connectBlocking(long timeout, TimeUnit timeUnit) throws InterruptedException {
+        return wsConnection.connectBlocking(timeout, timeUnit);
+    }
+
+    protected boolean isOpen() {
+        return wsConnection.isOpen();
+    }
+
+    protected void sendPing() {
+        wsConnection.sendPing();
+    }
+
+    protected void close() {
+        wsConnection.close();
+    }
+
     @Override
-    public void onOpen(ServerHandshake serverHandshake) {
+    public void onOpen() {
         executorService.submit(runnableFactory.apply(onWsConnect));
     }
 
     @Override
     public void onMessage(String s) {
-        String[] split = s.split(",", 2);
-        if (split.length > 1) {
-            try {
-                split[1] = Utils.decompressB64(split[1]);
-            } catch (IOException e) {
-                onError(e);
+        String event;
+        UUID tag = null;
+        byte[] payload;
+        String text;
+        try {
+            frameDecoder.decode(s);
+            event = frameDecoder.getName();
+            if (event == null) {
+                tag = frameDecoder.getTag();
             }
+            if (event == null || isJsonEvent(event)) {
+                payload = frameDecoder.copyPayload();
+                text = null;
+            } else {
+                payload = null;
+                text = frameDecoder.payloadAsString();
+            }
+        } catch (Exception e) {
+            onError(e);
+            return;
+        } finally {
+            frameDecoder.release();
         }
-        switch (split[0]) {
+        if (event == null) {
+            UUID finalTag = tag;
+            executorService.submit(runnableFactory.apply(() -> {
+                processWsResponse(finalTag, payload);
+            }));
+            return;
+        }
+        switch (event) {
             case "need-qrcode":
                 executorService.submit(runnableFactory.apply(() -> {
                     if (onNeedQrCode != null) {
-                        onNeedQrCode.accept(split[1]);
+                        onNeedQrCode.accept(text);
                     }
                 }));
                 break;
             case "update-state":
-                DriverState driverState = DriverState.valueOf(split[1]);
+                DriverState driverState = DriverState.valueOf(text);
                 executorService.submit(runnableFactory.apply(() -> {
                     if (onUpdateDriverState != null) {
                         onUpdateDriverState.accept(driverState);
                     }
                 }));
+                if (localStore != null) {
+                    localStore.invalidate();
+                }
                 if (driverState == DriverState.LOGGED) {
+                    if (localStore != null) {
+                        executorService.submit(runnableFactory.apply(this::seedLocalStore));
+                    }
                     executorService.submit(runnableFactory.apply(() -> {
                         resetListeners();
                         if (onInit != null) {
@@ -753,78 +1073,63 @@ class WhatsAppWsClient extends WebSocketClient {
                 }
                 break;
             case "new-chat":
-                for (Consumer<Chat> newChatListener : newChatListeners) {
-                    executorService.submit(runnableFactory.apply(() -> {
-                        try {
-                            newChatListener.accept(Chat.build(whatsAppClient, objectMapper.readTree(split[1])));
-                        } catch (IOException e) {
-                            onError(e);
-                        }
-                    }));
+                if (localStore != null) {
+                    dispatchChatEvent(newChatListeners, payload, false, false);
+                } else {
+                    dispatchEvent(newChatListeners, payload, jsonNode -> Chat.build(whatsAppClient, jsonNode), Chat::getId, WhatsAppWsClient::chatIds);
                 }
                 break;
             case "update-chat":
-                for (Consumer<Chat> updateChatListener : updateChatListeners) {
-                    executorService.submit(runnableFactory.apply(() -> {
-                        try {
-                            updateChatListener.accept(Chat.build(whatsAppClient, objectMapper.readTree(split[1])));
-                        } catch (IOException e) {
-                            onError(e);
-                        }
-                    }));
+                if (localStore != null) {
+                    dispatchChatEvent(updateChatListeners, payload, false, eventCoalescer != null);
+                } else if (eventCoalescer == null) {
+                    dispatchEvent(updateChatListeners, payload, jsonNode -> Chat.build(whatsAppClient, jsonNode), Chat::getId, WhatsAppWsClient::chatIds);
+                } else {
+                    coalesceUpdateChat(payload);
                 }
                 break;
             case "remove-chat":
-                for (Consumer<Chat> removeChatListener : removeChatListeners) {
-                    executorService.submit(runnableFactory.apply(() -> {
-                        try {
-                            removeChatListener.accept(Chat.build(whatsAppClient, objectMapper.readTree(split[1])));
-                        } catch (IOException e) {
-                            onError(e);
-                        }
-                    }));
+                if (localStore != null) {
+                    dispatchChatEvent(removeChatListeners, payload, true, false);
+                } else {
+                    dispatchEvent(removeChatListeners, payload, jsonNode -> Chat.build(whatsAppClient, jsonNode), Chat::getId, WhatsAppWsClient::chatIds);
                 }
                 break;
             case "remove-msg":
-                for (var removeMessageListener : removeMessageListeners) {
-                    executorService.submit(runnableFactory.apply(() -> {
-                        try {
-                            var jsonNode = objectMapper.readTree(split[1]);
-                            removeMessageListener.accept(buildMessages(jsonNode));
-                        } catch (IOException e) {
-                            onError(e);
-                        }
-                    }));
+                if (messageJournal != null) {
+                    messageJournal.append(event, payload);
+                }
+                if (messageSearchIndex != null) {
+                    messageSearchIndex.append(event, payload);
                 }
+                dispatchEvent(removeMessageListeners, payload, this::buildMessages, WhatsAppWsClient::chatKey, WhatsAppWsClient::chatIds);
                 break;
             case "new-msg":
-                for (var newMessageListener : newMessageListeners) {
-                    executorService.submit(runnableFactory.apply(() -> {
-                        try {
-                            var jsonNode = objectMapper.readTree(split[1]);
-                            newMessageListener.accept(buildMessages(jsonNode));
-                        } catch (IOException e) {
-                            onError(e);
-                        }
-                    }));
+                if (messageJournal != null) {
+                    messageJournal.append(event, payload);
+                }
+                if (messageSearchIndex != null) {
+                    messageSearchIndex.append(event, payload);
                 }
+                dispatchEvent(newMessageListeners, payload, this::buildMessages, WhatsAppWsClient::chatKey, WhatsAppWsClient::chatIds);
                 break;
             case "update-msg":
-                for (var updateMessageListener : updateMessageListeners) {
-                    executorService.submit(runnableFactory.apply(() -> {
-                        try {
-                            var jsonNode = objectMapper.readTree(split[1]);
-                            updateMessageListener.accept(buildMessages(jsonNode));
-                        } catch (IOException e) {
-                            onError(e);
-                        }
-                    }));
+                if (messageJournal != null) {
+                    messageJournal.append(event, payload);
+                }
+                if (messageSearchIndex != null) {
+                    messageSearchIndex.append(event, payload);
+                }
+                if (eventCoalescer == null) {
+                    dispatchEvent(updateMessageListeners, payload, this::buildMessages, WhatsAppWsClient::chatKey, WhatsAppWsClient::chatIds);
+                } else {
+                    coalesceUpdateMessages(payload);
                 }
                 break;
             case "low-battery":
                 executorService.submit(runnableFactory.apply(() -> {
                     if (onLowBattery != null) {
-                        onLowBattery.accept(Integer.valueOf(split[1]));
+                        onLowBattery.accept(Integer.valueOf(text));
                     }
                 }));
                 break;
@@ -836,16 +1141,159 @@ class WhatsAppWsClient extends WebSocketClient {
                 }));
                 break;
             case "error":
-                onError(new RuntimeException(split[1]));
+                onError(new RuntimeException(text));
                 break;
+        }
+    }
+
+    private static boolean isJsonEvent(String event) {
+        switch (event) {
+            case "new-chat":
+            case "update-chat":
+            case "remove-chat":
+            case "remove-msg":
+            case "new-msg":
+            case "update-msg":
+                return true;
             default:
-                executorService.submit(runnableFactory.apply(() -> {
-                    processWsResponse(split[0], split[1]);
-                }));
-                break;
+                return false;
         }
     }
 
+    private <T> void dispatchEvent(List<Consumer<T>> listeners, byte[] payload, Function<JsonNode, T> builder, Function<T, String> keyExtractor, Function<T, Collection<String>> chatIdsExtractor) {
+        boolean flushCoalesced = eventCoalescer != null;
+        if (listeners.isEmpty() && !flushCoalesced) {
+            return;
+        }
+        eventDispatcher.submit(() -> {
+            T event;
+            try {
+                event = builder.apply(treeReader.readTree(payload));
+            } catch (IOException e) {
+                onError(e);
+                return;
+            }
+            if (flushCoalesced) {
+                flushCoalesced(chatIdsExtractor.apply(event));
+            }
+            if (!listeners.isEmpty()) {
+                eventDispatcher.deliver(keyExtractor.apply(event), listeners, event);
+            }
+        });
+    }
+
+    private void flushCoalesced(Collection<String> chatIds) {
+        eventDispatcher.sequence(() -> {
+            for (String chatId : chatIds) {
+                eventCoalescer.flush("chat:" + chatId);
+                eventCoalescer.flush("msgs:" + chatId);
+            }
+        });
+    }
+
+    private void dispatchChatEvent(List<Consumer<Chat>> listeners, byte[] payload, boolean removed, boolean coalesce) {
+        long sequence = localStore.nextSequence();
+        eventDispatcher.submit(() -> {
+            Chat chat;
+            try {
+                chat = Chat.build(whatsAppClient, treeReader.readTree(payload));
+            } catch (Exception e) {
+                localStore.release(sequence);
+                onError(e);
+                return;
+            }
+            if (removed) {
+                localStore.removeChat(sequence, chat.getId());
+            } else {
+                localStore.putChat(sequence, chat);
+            }
+            if (coalesce) {
+                if (!listeners.isEmpty()) {
+                    offerUpdateChat(chat);
+                }
+                return;
+            }
+            if (eventCoalescer != null) {
+                flushCoalesced(chatIds(chat));
+            }
+            if (!listeners.isEmpty()) {
+                eventDispatcher.deliver(chat.getId(), listeners, chat);
+            }
+        });
+    }
+
+    private void coalesceUpdateChat(byte[] payload) {
+        if (updateChatListeners.isEmpty()) {
+            return;
+        }
+        eventDispatcher.submit(() -> {
+            try {
+                offerUpdateChat(Chat.build(whatsAppClient, treeReader.readTree(payload)));
+            } catch (IOException e) {
+                onError(e);
+            }
+        });
+    }
+
+    private void offerUpdateChat(Chat chat) {
+        eventDispatcher.sequence(() -> eventCoalescer.offer("chat:" + chat.getId(), chat, (previous, next) -> next, chat1 -> {
+            eventDispatcher.deliver(chat1.getId(), updateChatListeners, chat1);
+        }));
+    }
+
+    private void coalesceUpdateMessages(byte[] payload) {
+        if (updateMessageListeners.isEmpty()) {
+            return;
+        }
+        eventDispatcher.submit(() -> {
+            try {
+                Map<String, List<Message>> messagesByChat = new LinkedHashMap<>();
+                for (Message message : buildMessages(treeReader.readTree(payload))) {
+                    messagesByChat.computeIfAbsent(message.getChatId(), key -> new ArrayList<>()).add(message);
+                }
+                eventDispatcher.sequence(() -> {
+                    messagesByChat.forEach((chatId, messages) -> {
+                        eventCoalescer.offer("msgs:" + chatId, messages, WhatsAppWsClient::mergeMessages, messages1 -> {
+                            eventDispatcher.deliver(chatId, updateMessageListeners, Collections.unmodifiableList(messages1));
+                        });
+                    });
+                });
+            } catch (IOException e) {
+                onError(e);
+            }
+        });
+    }
+
+    private static List<Message> mergeMessages(List<Message> previous, List<Message> next) {
+        Map<String, Message> merged = new LinkedHashMap<>();
+        for (Message message : previous) {
+            merged.put(message.getId(), message);
+        }
+        for (Message message : next) {
+            merged.put(message.getId(), message);
+        }
+        return new ArrayList<>(merged.values());
+    }
+
+    private static String chatKey(List<Message> messages) {
+        return messages.isEmpty() ? null : messages.get(0).getChatId();
+    }
+
+    private static Collection<String> chatIds(List<Message> messages) {
+        if (messages.size() == 1) {
+            return Collections.singletonList(messages.get(0).getChatId());
+        }
+        Set<String> chatIds = new LinkedHashSet<>();
+        for (Message message : messages) {
+            chatIds.add(message.getChatId());
+        }
+        return chatIds;
+    }
+
+    private static Collection<String> chatIds(Chat chat) {
+        return Collections.singletonList(chat.getId());
+    }
+
     private List<Message> buildMessages(JsonNode jsonNode) {
         var msgs = new ArrayList<Message>();
         if (jsonNode.isArray()) {
@@ -855,7 +1303,7 @@ class WhatsAppWsClient extends WebSocketClient {
         } else {
             msgs.add(Message.build(whatsAppClient, jsonNode));
         }
-        return msgs;
+        return Collections.unmodifiableList(msgs);
     }
 
     protected void resetListeners() {
@@ -868,7 +1316,7 @@ class WhatsAppWsClient extends WebSocketClient {
     }
 
     protected int getRemotePort() {
-        return getConnection().getRemoteSocketAddress().getPort();
+        return wsConnection.getRemoteSocketAddress().getPort();
     }
 
     protected String getRemoteEndPoint() {
@@ -877,6 +1325,10 @@ class WhatsAppWsClient extends WebSocketClient {
 
     @Override
     public void onClose(int code, String reason, boolean remote) {
+        frameDecoder.close();
+        if (localStore != null) {
+            localStore.invalidate();
+        }
         executorService.submit(runnableFactory.apply(() -> {
             onWsDisconnect.run(code, reason, remote);
         }));
@@ -894,20 +1346,31 @@ class WhatsAppWsClient extends WebSocketClient {
         private WebSocketRequestPayLoad payLoad;
         private CompletableFuture<WebSocketResponse> wsEvent;
         private int tries;
+        private final long startedAt;
+        private Consumer<JsonNode> elementConsumer;
+        private BooleanSupplier elementBackpressure;
+        private Iterator<JsonNode> pendingElements;
+        private WebSocketResponse pendingResponse;
+        private UUID tag;
+        private int frameStatus;
 
         protected WsMessageSend() {
+            this.startedAt = System.nanoTime();
         }
 
         protected WsMessageSend(WebSocketRequestPayLoad payLoad) {
+            this();
             this.payLoad = payLoad;
         }
 
         protected WsMessageSend(WebSocketRequestPayLoad payLoad, CompletableFuture<WebSocketResponse> wsEvent) {
+            this();
             this.payLoad = payLoad;
             this.wsEvent = wsEvent;
         }
 
         protected WsMessageSend(WebSocketRequestPayLoad payLoad, CompletableFuture<WebSocketResponse> wsEvent, int tries) {
+            this();
             this.payLoad = payLoad;
             this.wsEvent = wsEvent;
             this.tries = tries;
@@ -929,5 +1392,59 @@ class WhatsAppWsClient extends WebSocketClient {
             this.tries = tries;
             return this;
         }
+
+        protected Consumer<JsonNode> getElementConsumer() {
+            return elementConsumer;
+        }
+
+        protected WsMessageSend setElementConsumer(Consumer<JsonNode> elementConsumer) {
+            this.elementConsumer = elementConsumer;
+            return this;
+        }
+
+        protected BooleanSupplier getElementBackpressure() {
+            return elementBackpressure;
+        }
+
+        protected WsMessageSend setElementBackpressure(BooleanSupplier elementBackpressure) {
+            this.elementBackpressure = elementBackpressure;
+            return this;
+        }
+
+        protected Iterator<JsonNode> getPendingElements() {
+            return pendingElements;
+        }
+
+        protected WebSocketResponse getPendingResponse() {
+            return pendingResponse;
+        }
+
+        protected WsMessageSend setPendingElements(Iterator<JsonNode> pendingElements, WebSocketResponse pendingResponse) {
+            this.pendingElements = pendingElements;
+            this.pendingResponse = pendingResponse;
+            return this;
+        }
+
+        protected UUID getTag() {
+            return tag;
+        }
+
+        protected WsMessageSend setTag(UUID tag) {
+            this.tag = tag;
+            return this;
+        }
+
+        protected int getFrameStatus() {
+            return frameStatus;
+        }
+
+        protected WsMessageSend setFrameStatus(int frameStatus) {
+            this.frameStatus = frameStatus;
+            return this;
+        }
+
+        protected long getElapsedMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+        }
     }
 }
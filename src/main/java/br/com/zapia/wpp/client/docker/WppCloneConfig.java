@@ -85,7 +85,7 @@ public class WppCloneConfig extends BaseConfig {
     public CompletableFuture<WhatsAppWsClient> getWsClient(WhatsAppClient whatsAppClient, Runnable onInit, Consumer<String> onNeedQrCode, Consumer<DriverState> onUpdateDriverState, Consumer<Throwable> onError, Consumer<Integer> onLowBattery, Runnable onPhoneDisconnect, Runnable onWsConnect, OnWsDisconnect onWsDisconnect, Consumer<Long> onPing, Function<Runnable, Runnable> runnableFactory, Function<Callable, Callable> callableFactory, Function<Runnable, Thread> threadFactory, ExecutorService executorService, ScheduledExecutorService scheduledExecutorService) {
         stop();
         return getWebSocketAddress(executorService).thenCompose(webSocketAddress -> {
-            webSocketConfig = new WebSocketConfig(webSocketAddress.split(":")[0], Integer.parseInt(webSocketAddress.split(":")[1]));
+            webSocketConfig = new WebSocketConfig(webSocketAddress.split(":")[0], Integer.parseInt(webSocketAddress.split(":")[1]), getWsTransport());
             return webSocketConfig.getWsClient(whatsAppClient, onInit, onNeedQrCode, onUpdateDriverState, onError, onLowBattery, onPhoneDisconnect, onWsConnect, onWsDisconnect, onPing, runnableFactory, callableFactory, threadFactory, executorService, scheduledExecutorService);
         });
     }
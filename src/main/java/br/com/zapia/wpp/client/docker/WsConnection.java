@@ -0,0 +1,32 @@
+package br.com.zapia.wpp.client.docker;
+
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+interface WsConnection {
+
+    boolean connectBlocking(long timeout, TimeUnit timeUnit) throws InterruptedException;
+
+    boolean isOpen();
+
+    void sendTextFrames(List<ByteBuffer> frames);
+
+    void sendPing();
+
+    void close();
+
+    InetSocketAddress getRemoteSocketAddress();
+
+    interface Listener {
+
+        void onOpen();
+
+        void onMessage(String message);
+
+        void onClose(int code, String reason, boolean remote);
+
+        void onError(Exception e);
+    }
+}
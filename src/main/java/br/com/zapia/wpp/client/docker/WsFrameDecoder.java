@@ -0,0 +1,198 @@
+package br.com.zapia.wpp.client.docker;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.zip.DataFormatException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+class WsFrameDecoder {
+
+    private static final String[] EVENTS = {"need-qrcode", "update-state", "new-chat", "update-chat", "remove-chat", "remove-msg", "new-msg", "update-msg", "low-battery", "disconnect", "error"};
+    private static final int INITIAL_BUFFER_SIZE = 8 * 1024;
+    private static final int MAX_RETAINED_BUFFER_SIZE = 1024 * 1024;
+    private static final byte[] BASE64_VALUES = new byte[128];
+
+    static {
+        Arrays.fill(BASE64_VALUES, (byte) -1);
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/";
+        for (int i = 0; i < alphabet.length(); i++) {
+            BASE64_VALUES[alphabet.charAt(i)] = (byte) i;
+        }
+        BASE64_VALUES['-'] = 62;
+        BASE64_VALUES['_'] = 63;
+    }
+
+    private final Inflater zlibInflater;
+    private final Inflater rawInflater;
+    private byte[] compressed;
+    private byte[] inflated;
+    private int inflatedLength;
+    private String frame;
+    private int separator;
+    private String name;
+
+    protected WsFrameDecoder() {
+        this.zlibInflater = new Inflater();
+        this.rawInflater = new Inflater(true);
+        this.compressed = new byte[INITIAL_BUFFER_SIZE];
+        this.inflated = new byte[INITIAL_BUFFER_SIZE];
+    }
+
+    protected void decode(String frame) throws IOException {
+        this.frame = frame;
+        this.inflatedLength = -1;
+        int comma = frame.indexOf(',');
+        this.separator = comma < 0 ? frame.length() : comma;
+        this.name = matchEvent(frame, separator);
+        if (comma >= 0) {
+            inflate(decodeBase64(frame, comma + 1));
+        }
+    }
+
+    protected String getName() {
+        return name;
+    }
+
+    protected UUID getTag() {
+        return parseUuid(frame, separator);
+    }
+
+    protected boolean hasPayload() {
+        return inflatedLength >= 0;
+    }
+
+    protected byte[] copyPayload() {
+        return hasPayload() ? Arrays.copyOf(inflated, inflatedLength) : null;
+    }
+
+    protected String payloadAsString() {
+        return hasPayload() ? new String(inflated, 0, inflatedLength, StandardCharsets.UTF_8) : null;
+    }
+
+    protected JsonNode readPayloadTree(ObjectMapper objectMapper) throws IOException {
+        return objectMapper.readTree(inflated, 0, inflatedLength);
+    }
+
+    protected void release() {
+        if (compressed.length > MAX_RETAINED_BUFFER_SIZE) {
+            compressed = new byte[INITIAL_BUFFER_SIZE];
+        }
+        if (inflated.length > MAX_RETAINED_BUFFER_SIZE) {
+            inflated = new byte[INITIAL_BUFFER_SIZE];
+        }
+        frame = null;
+    }
+
+    protected void close() {
+        zlibInflater.end();
+        rawInflater.end();
+    }
+
+    private static String matchEvent(String frame, int length) {
+        for (String event : EVENTS) {
+            if (event.length() == length && frame.startsWith(event)) {
+                return event;
+            }
+        }
+        return null;
+    }
+
+    private int decodeBase64(String frame, int start) throws IOException {
+        int end = frame.length();
+        while (end > start && frame.charAt(end - 1) == '=') {
+            end--;
+        }
+        int maxLength = (end - start) * 3 / 4 + 3;
+        if (compressed.length < maxLength) {
+            compressed = new byte[Math.max(maxLength, compressed.length * 2)];
+        }
+        int bits = 0;
+        int bitCount = 0;
+        int length = 0;
+        for (int i = start; i < end; i++) {
+            char c = frame.charAt(i);
+            int value = c < 128 ? BASE64_VALUES[c] : -1;
+            if (value < 0) {
+                if (c == '\r' || c == '\n') {
+                    continue;
+                }
+                throw new IOException("Illegal base64 character {" + (int) c + "} at index {" + i + "}");
+            }
+            bits = (bits << 6) | value;
+            bitCount += 6;
+            if (bitCount >= 8) {
+                bitCount -= 8;
+                compressed[length++] = (byte) (bits >> bitCount);
+            }
+        }
+        return length;
+    }
+
+    private void inflate(int length) throws IOException {
+        inflatedLength = 0;
+        if (length >= 2 && (compressed[0] & 0xff) == 0x1f && (compressed[1] & 0xff) == 0x8b) {
+            try (var inputStream = new GZIPInputStream(new ByteArrayInputStream(compressed, 0, length))) {
+                int read;
+                while ((read = inputStream.read(inflated, inflatedLength, inflated.length - inflatedLength)) != -1) {
+                    inflatedLength += read;
+                    if (inflatedLength == inflated.length) {
+                        inflated = Arrays.copyOf(inflated, inflated.length * 2);
+                    }
+                }
+            }
+            return;
+        }
+        boolean zlib = length >= 2 && (compressed[0] & 0x0f) == 8 && (((compressed[0] & 0xff) << 8) | (compressed[1] & 0xff)) % 31 == 0;
+        Inflater inflater = zlib ? zlibInflater : rawInflater;
+        inflater.reset();
+        inflater.setInput(compressed, 0, length);
+        try {
+            while (!inflater.finished()) {
+                if (inflatedLength == inflated.length) {
+                    inflated = Arrays.copyOf(inflated, inflated.length * 2);
+                }
+                int read = inflater.inflate(inflated, inflatedLength, inflated.length - inflatedLength);
+                if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new ZipException("Truncated compressed frame");
+                }
+                inflatedLength += read;
+            }
+        } catch (DataFormatException e) {
+            throw new ZipException(e.getMessage());
+        }
+    }
+
+    static UUID parseUuid(String value, int length) {
+        if (length != 36 || value.charAt(8) != '-' || value.charAt(13) != '-' || value.charAt(18) != '-' || value.charAt(23) != '-') {
+            return UUID.fromString(value.substring(0, length));
+        }
+        long mostSigBits = 0;
+        long leastSigBits = 0;
+        int digits = 0;
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c == '-') {
+                continue;
+            }
+            int digit = Character.digit(c, 16);
+            if (digit < 0) {
+                throw new IllegalArgumentException("Invalid UUID string: " + value.substring(0, length));
+            }
+            if (digits < 16) {
+                mostSigBits = (mostSigBits << 4) | digit;
+            } else {
+                leastSigBits = (leastSigBits << 4) | digit;
+            }
+            digits++;
+        }
+        return new UUID(mostSigBits, leastSigBits);
+    }
+}
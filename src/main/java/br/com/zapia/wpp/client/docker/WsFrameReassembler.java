@@ -0,0 +1,262 @@
+package br.com.zapia.wpp.client.docker;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ContainerNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+class WsFrameReassembler {
+
+    static final int UNKNOWN_FIRST_FRAME_ID = -1;
+
+    private final ObjectMapper objectMapper;
+    private final JsonNodeFactory nodeFactory;
+    private final String[] frames;
+    private final int qtdFrames;
+    private final Deque<ContainerNode<?>> containers;
+    private final Consumer<JsonNode> elementConsumer;
+    private final BooleanSupplier backpressure;
+    private int firstFrameId;
+    private int cursor;
+    private int received;
+    private boolean finished;
+    private boolean streaming;
+    private boolean decided;
+    private JsonParser parser;
+    private String pendingHighSurrogate;
+    private String fieldName;
+    private JsonNode root;
+    private StringBuilder plainResponse;
+
+    protected WsFrameReassembler(ObjectMapper objectMapper, JsonNodeFactory nodeFactory, int firstFrameId, int qtdFrames) {
+        this(objectMapper, nodeFactory, firstFrameId, qtdFrames, null);
+    }
+
+    protected WsFrameReassembler(ObjectMapper objectMapper, JsonNodeFactory nodeFactory, int firstFrameId, int qtdFrames, Consumer<JsonNode> elementConsumer) {
+        this(objectMapper, nodeFactory, firstFrameId, qtdFrames, elementConsumer, null);
+    }
+
+    protected WsFrameReassembler(ObjectMapper objectMapper, JsonNodeFactory nodeFactory, int firstFrameId, int qtdFrames, Consumer<JsonNode> elementConsumer, BooleanSupplier backpressure) {
+        this.objectMapper = objectMapper;
+        this.elementConsumer = elementConsumer;
+        this.backpressure = backpressure;
+        this.nodeFactory = nodeFactory;
+        this.firstFrameId = firstFrameId;
+        this.qtdFrames = qtdFrames;
+        this.frames = new String[qtdFrames + 1];
+        this.containers = new ArrayDeque<>();
+    }
+
+    protected synchronized boolean add(int frameId, Object response) throws IOException {
+        if (frameId < 0 || frameId > qtdFrames || (firstFrameId != UNKNOWN_FIRST_FRAME_ID && (frameId < firstFrameId || frameId - firstFrameId >= qtdFrames))) {
+            throw new IOException("Frame {" + frameId + "} out of range for {" + qtdFrames + "} frames starting at {" + (firstFrameId == UNKNOWN_FIRST_FRAME_ID ? "0 or 1" : firstFrameId) + "}");
+        }
+        if (frameId < firstFrameId + cursor || frames[frameId] != null) {
+            return false;
+        }
+        if (response == null) {
+            frames[frameId] = "";
+        } else if (response instanceof JsonNode) {
+            frames[frameId] = ((JsonNode) response).asText();
+        } else {
+            frames[frameId] = String.valueOf(response);
+        }
+        received++;
+        if (firstFrameId == UNKNOWN_FIRST_FRAME_ID) {
+            if (frames[0] != null && frames[qtdFrames] != null) {
+                throw new IOException("Received frames {0} and {" + qtdFrames + "} for {" + qtdFrames + "} frames");
+            } else if (frames[0] != null) {
+                firstFrameId = 0;
+            } else if (frames[qtdFrames] != null) {
+                firstFrameId = 1;
+            } else {
+                return false;
+            }
+        }
+        return feedPending();
+    }
+
+    protected synchronized boolean resume() throws IOException {
+        return firstFrameId != UNKNOWN_FIRST_FRAME_ID && feedPending();
+    }
+
+    protected synchronized int getFirstFrameId() {
+        return firstFrameId;
+    }
+
+    private boolean feedPending() throws IOException {
+        while (cursor < qtdFrames && frames[firstFrameId + cursor] != null) {
+            if (backpressure != null && backpressure.getAsBoolean()) {
+                return false;
+            }
+            String frame = frames[firstFrameId + cursor];
+            frames[firstFrameId + cursor] = null;
+            cursor++;
+            feed(frame);
+        }
+        if (cursor == qtdFrames && !finished) {
+            finished = true;
+            finish();
+            return true;
+        }
+        return false;
+    }
+
+    protected synchronized Object getResponse() {
+        if (streaming) {
+            return root;
+        }
+        return plainResponse == null ? "" : plainResponse.toString();
+    }
+
+    private void feed(String frame) throws IOException {
+        if (!decided) {
+            int start = 0;
+            while (start < frame.length() && Character.isWhitespace(frame.charAt(start))) {
+                start++;
+            }
+            if (start == frame.length()) {
+                appendPlain(frame);
+                return;
+            }
+            char first = frame.charAt(start);
+            decided = true;
+            streaming = first == '{' || first == '[';
+            if (streaming) {
+                parser = objectMapper.getFactory().createNonBlockingByteArrayParser();
+            } else {
+                appendPlain(frame);
+                return;
+            }
+        } else if (!streaming) {
+            appendPlain(frame);
+            return;
+        }
+        if (pendingHighSurrogate != null) {
+            frame = pendingHighSurrogate + frame;
+            pendingHighSurrogate = null;
+        }
+        if (!frame.isEmpty() && Character.isHighSurrogate(frame.charAt(frame.length() - 1))) {
+            pendingHighSurrogate = frame.substring(frame.length() - 1);
+            frame = frame.substring(0, frame.length() - 1);
+        }
+        byte[] bytes = frame.getBytes(StandardCharsets.UTF_8);
+        ((ByteArrayFeeder) parser.getNonBlockingInputFeeder()).feedInput(bytes, 0, bytes.length);
+        drain();
+    }
+
+    private void finish() throws IOException {
+        if (!streaming) {
+            return;
+        }
+        if (pendingHighSurrogate != null) {
+            byte[] bytes = pendingHighSurrogate.getBytes(StandardCharsets.UTF_8);
+            pendingHighSurrogate = null;
+            ((ByteArrayFeeder) parser.getNonBlockingInputFeeder()).feedInput(bytes, 0, bytes.length);
+            drain();
+        }
+        ((ByteArrayFeeder) parser.getNonBlockingInputFeeder()).endOfInput();
+        drain();
+        parser.close();
+        if (root == null || !containers.isEmpty()) {
+            throw new IOException("Incomplete json response, received {" + received + "} of {" + qtdFrames + "} frames");
+        }
+    }
+
+    private void appendPlain(String frame) {
+        if (plainResponse == null) {
+            plainResponse = new StringBuilder(frame.length() * qtdFrames);
+        }
+        plainResponse.append(frame);
+    }
+
+    private void drain() throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+            switch (token) {
+                case START_OBJECT:
+                    ObjectNode objectNode = nodeFactory.objectNode();
+                    add(objectNode);
+                    containers.push(objectNode);
+                    break;
+                case START_ARRAY:
+                    ArrayNode arrayNode = nodeFactory.arrayNode();
+                    add(arrayNode);
+                    containers.push(arrayNode);
+                    break;
+                case END_OBJECT:
+                case END_ARRAY:
+                    ContainerNode<?> finished = containers.pop();
+                    if (isStreamedElement(containers.peek())) {
+                        elementConsumer.accept(finished);
+                    }
+                    break;
+                case FIELD_NAME:
+                    fieldName = parser.getCurrentName();
+                    break;
+                case VALUE_STRING:
+                    add(nodeFactory.textNode(parser.getText()));
+                    break;
+                case VALUE_NUMBER_INT:
+                    switch (parser.getNumberType()) {
+                        case INT:
+                            add(nodeFactory.numberNode(parser.getIntValue()));
+                            break;
+                        case LONG:
+                            add(nodeFactory.numberNode(parser.getLongValue()));
+                            break;
+                        default:
+                            add(nodeFactory.numberNode(parser.getBigIntegerValue()));
+                            break;
+                    }
+                    break;
+                case VALUE_NUMBER_FLOAT:
+                    add(nodeFactory.numberNode(parser.getDoubleValue()));
+                    break;
+                case VALUE_TRUE:
+                    add(nodeFactory.booleanNode(true));
+                    break;
+                case VALUE_FALSE:
+                    add(nodeFactory.booleanNode(false));
+                    break;
+                case VALUE_NULL:
+                    add(nodeFactory.nullNode());
+                    break;
+                default:
+                    add(nodeFactory.pojoNode(parser.getEmbeddedObject()));
+                    break;
+            }
+        }
+    }
+
+    private void add(JsonNode node) {
+        ContainerNode<?> parent = containers.peek();
+        if (parent == null) {
+            root = node;
+        } else if (isStreamedElement(parent)) {
+            if (!node.isContainerNode()) {
+                elementConsumer.accept(node);
+            }
+        } else if (parent instanceof ObjectNode) {
+            ((ObjectNode) parent).set(fieldName, node);
+        } else {
+            ((ArrayNode) parent).add(node);
+        }
+    }
+
+    private boolean isStreamedElement(ContainerNode<?> parent) {
+        return elementConsumer != null && parent != null && parent == root && containers.size() == 1 && parent.isArray();
+    }
+}
@@ -0,0 +1,101 @@
+package br.com.zapia.wpp.client.docker;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+class WsFrameWriter {
+
+    private static final int MAX_FRAMES_PER_BATCH = 64;
+    private static final int MAX_BATCHES_PER_DRAIN = 16;
+
+    private final FrameBatchSink sink;
+    private final Executor executor;
+    private final Queue<PendingFrame> frames;
+    private final AtomicBoolean writing;
+    private final Runnable drainTask;
+
+    protected WsFrameWriter(FrameBatchSink sink, Executor executor) {
+        this.sink = sink;
+        this.executor = executor;
+        this.frames = new ConcurrentLinkedQueue<>();
+        this.writing = new AtomicBoolean();
+        this.drainTask = this::drain;
+    }
+
+    protected void write(ByteBuffer frame, Consumer<Exception> onFailure) {
+        if (frames.isEmpty() && writing.compareAndSet(false, true)) {
+            try {
+                sink.send(List.of(frame));
+            } catch (Exception e) {
+                onFailure.accept(e);
+            }
+            release();
+            return;
+        }
+        frames.offer(new PendingFrame(copy(frame), onFailure));
+        if (writing.compareAndSet(false, true)) {
+            drain();
+        }
+    }
+
+    private void drain() {
+        List<PendingFrame> batch = new ArrayList<>(MAX_FRAMES_PER_BATCH);
+        List<ByteBuffer> buffers = new ArrayList<>(MAX_FRAMES_PER_BATCH);
+        for (int i = 0; i < MAX_BATCHES_PER_DRAIN; i++) {
+            PendingFrame pendingFrame;
+            while (batch.size() < MAX_FRAMES_PER_BATCH && (pendingFrame = frames.poll()) != null) {
+                batch.add(pendingFrame);
+                buffers.add(pendingFrame.frame);
+            }
+            if (batch.isEmpty()) {
+                break;
+            }
+            try {
+                sink.send(buffers);
+            } catch (Exception e) {
+                for (PendingFrame failed : batch) {
+                    failed.onFailure.accept(e);
+                }
+            }
+            batch.clear();
+            buffers.clear();
+        }
+        release();
+    }
+
+    private void release() {
+        writing.set(false);
+        if (!frames.isEmpty() && writing.compareAndSet(false, true)) {
+            executor.execute(drainTask);
+        }
+    }
+
+    private static ByteBuffer copy(ByteBuffer frame) {
+        ByteBuffer copy = ByteBuffer.allocate(frame.remaining());
+        copy.put(frame.duplicate());
+        copy.flip();
+        return copy;
+    }
+
+    interface FrameBatchSink {
+
+        void send(List<ByteBuffer> frames) throws Exception;
+    }
+
+    private static class PendingFrame {
+
+        private final ByteBuffer frame;
+        private final Consumer<Exception> onFailure;
+
+        private PendingFrame(ByteBuffer frame, Consumer<Exception> onFailure) {
+            this.frame = frame;
+            this.onFailure = onFailure;
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package br.com.zapia.wpp.client.docker;
+
+import br.com.zapia.wpp.api.model.payloads.WebSocketRequest;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class WsRequestEncoder {
+
+    private static final int MAX_POOLED_BUFFERS = 16;
+    private static final int INITIAL_BUFFER_SIZE = 4 * 1024;
+    private static final int MAX_RETAINED_BUFFER_SIZE = 1024 * 1024;
+
+    private final ObjectMapper objectMapper;
+    private final Queue<Buffers> pool;
+    private final AtomicInteger pooled;
+
+    protected WsRequestEncoder(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.pool = new ConcurrentLinkedQueue<>();
+        this.pooled = new AtomicInteger();
+    }
+
+    protected void encode(WebSocketRequest webSocketRequest, FrameSink frameSink) throws IOException {
+        Buffers buffers = pool.poll();
+        if (buffers != null) {
+            pooled.decrementAndGet();
+        } else {
+            buffers = new Buffers();
+        }
+        try {
+            buffers.reset();
+            objectMapper.writer().withAttribute(Buffers.class, buffers).writeValue(buffers.request, webSocketRequest);
+            frameSink.send(buffers.encode());
+        } finally {
+            if (buffers.isReusable() && pooled.get() < MAX_POOLED_BUFFERS) {
+                pooled.incrementAndGet();
+                pool.offer(buffers);
+            }
+        }
+    }
+
+    interface FrameSink {
+
+        void send(ByteBuffer frame) throws IOException;
+    }
+
+    private static class Buffers {
+
+        private final CharArrayBuffer request;
+        private final CharArrayBuffer payload;
+        private final CharsetEncoder encoder;
+        private ByteBuffer bytes;
+
+        private Buffers() {
+            this.request = new CharArrayBuffer();
+            this.payload = new CharArrayBuffer();
+            this.encoder = StandardCharsets.UTF_8.newEncoder().onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(CodingErrorAction.REPLACE);
+            this.bytes = ByteBuffer.allocate(INITIAL_BUFFER_SIZE * 3);
+        }
+
+        private void reset() {
+            request.reset();
+            payload.reset();
+        }
+
+        private ByteBuffer encode() throws CharacterCodingException {
+            int maxBytes = request.size() * 3;
+            if (bytes.capacity() < maxBytes) {
+                bytes = ByteBuffer.allocate(maxBytes);
+            }
+            bytes.clear();
+            encoder.reset();
+            CharBuffer chars = CharBuffer.wrap(request.buffer(), 0, request.size());
+            CoderResult result = encoder.encode(chars, bytes, true);
+            if (!result.isUnderflow()) {
+                result.throwException();
+            }
+            result = encoder.flush(bytes);
+            if (!result.isUnderflow()) {
+                result.throwException();
+            }
+            return bytes.flip();
+        }
+
+        private boolean isReusable() {
+            return bytes.capacity() <= MAX_RETAINED_BUFFER_SIZE && request.buffer().length <= MAX_RETAINED_BUFFER_SIZE && payload.buffer().length <= MAX_RETAINED_BUFFER_SIZE;
+        }
+    }
+
+    private static class CharArrayBuffer extends Writer {
+
+        private char[] buffer;
+        private int size;
+
+        private CharArrayBuffer() {
+            this.buffer = new char[INITIAL_BUFFER_SIZE];
+        }
+
+        @Override
+        public void write(char[] chars, int offset, int length) {
+            ensureCapacity(length);
+            System.arraycopy(chars, offset, buffer, size, length);
+            size += length;
+        }
+
+        @Override
+        public void write(String value, int offset, int length) {
+            ensureCapacity(length);
+            value.getChars(offset, offset + length, buffer, size);
+            size += length;
+        }
+
+        @Override
+        public void write(int c) {
+            ensureCapacity(1);
+            buffer[size++] = (char) c;
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+
+        private void ensureCapacity(int length) {
+            if (size + length > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + length));
+            }
+        }
+
+        private void reset() {
+            size = 0;
+        }
+
+        private char[] buffer() {
+            return buffer;
+        }
+
+        private int size() {
+            return size;
+        }
+    }
+
+    static class JsonStringPayloadSerializer extends StdSerializer<Object> {
+
+        private static final long serialVersionUID = 1L;
+
+        protected JsonStringPayloadSerializer() {
+            super(Object.class);
+        }
+
+        @Override
+        public void serialize(Object value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            if (value instanceof String) {
+                gen.writeString((String) value);
+                return;
+            }
+            Buffers buffers = (Buffers) provider.getAttribute(Buffers.class);
+            CharArrayBuffer chars = buffers == null ? new CharArrayBuffer() : buffers.payload;
+            chars.reset();
+            ((ObjectMapper) gen.getCodec()).writeValue(chars, value);
+            gen.writeString(chars.buffer(), 0, chars.size());
+        }
+    }
+
+    abstract static class WebSocketRequestPayLoadMixIn {
+
+        @JsonSerialize(using = JsonStringPayloadSerializer.class)
+        private Object payload;
+
+        @JsonSerialize(using = JsonStringPayloadSerializer.class)
+        abstract Object getPayload();
+    }
+}
@@ -0,0 +1,124 @@
+package br.com.zapia.wpp.client.docker;
+
+import br.com.zapia.wpp.api.model.payloads.WebSocketResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+
+import java.io.IOException;
+
+class WsResponseDecoder {
+
+    private final ObjectReader responseReader;
+    private final ObjectReader treeReader;
+
+    protected WsResponseDecoder(ObjectMapper objectMapper, JsonNodeFactory nodeFactory) {
+        this.responseReader = objectMapper.readerFor(WebSocketResponse.class).with(nodeFactory);
+        this.treeReader = objectMapper.reader(nodeFactory);
+    }
+
+    protected WebSocketResponse readResponse(byte[] payload) throws IOException {
+        return responseReader.readValue(payload);
+    }
+
+    protected Object decode(Object response) throws IOException {
+        if (response instanceof JsonNode) {
+            JsonNode jsonNode = (JsonNode) response;
+            if (jsonNode.isContainerNode()) {
+                return jsonNode;
+            } else if (jsonNode.isTextual()) {
+                return decode(jsonNode.textValue());
+            } else if (jsonNode.isNull() || jsonNode.isMissingNode()) {
+                return null;
+            } else if (jsonNode.isNumber()) {
+                return jsonNode.numberValue();
+            } else if (jsonNode.isBoolean()) {
+                return jsonNode.booleanValue();
+            }
+            return jsonNode;
+        } else if (response instanceof String && (isJsonValue((String) response) || ((String) response).isBlank())) {
+            try {
+                return treeReader.readTree((String) response);
+            } catch (JsonProcessingException ignore) {
+            }
+        }
+        return response;
+    }
+
+    static boolean isJsonValue(String value) {
+        int start = 0;
+        int end = value.length();
+        while (start < end && Character.isWhitespace(value.charAt(start))) {
+            start++;
+        }
+        while (end > start && Character.isWhitespace(value.charAt(end - 1))) {
+            end--;
+        }
+        if (start == end) {
+            return false;
+        }
+        char first = value.charAt(start);
+        if (first == '{' || first == '[' || first == '"') {
+            return true;
+        }
+        if (first == 't' || first == 'f' || first == 'n') {
+            int length = end - start;
+            return (length == 4 && (value.startsWith("true", start) || value.startsWith("null", start))) || (length == 5 && value.startsWith("false", start));
+        }
+        return isJsonNumber(value, start, end);
+    }
+
+    private static boolean isJsonNumber(String value, int start, int end) {
+        int i = start;
+        if (value.charAt(i) == '-') {
+            i++;
+        }
+        int digits = i;
+        while (i < end && isDigit(value.charAt(i))) {
+            i++;
+        }
+        if (i == digits) {
+            return false;
+        }
+        if (i < end && value.charAt(i) == '.') {
+            i++;
+            int fraction = i;
+            while (i < end && isDigit(value.charAt(i))) {
+                i++;
+            }
+            if (i == fraction) {
+                return false;
+            }
+        }
+        if (i < end && (value.charAt(i) == 'e' || value.charAt(i) == 'E')) {
+            i++;
+            if (i < end && (value.charAt(i) == '+' || value.charAt(i) == '-')) {
+                i++;
+            }
+            int exponent = i;
+            while (i < end && isDigit(value.charAt(i))) {
+                i++;
+            }
+            if (i == exponent) {
+                return false;
+            }
+        }
+        return i == end;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    abstract static class WebSocketResponseMixIn {
+
+        @JsonDeserialize(as = JsonNode.class)
+        private Object response;
+
+        @JsonDeserialize(as = JsonNode.class)
+        abstract void setResponse(Object response);
+    }
+}
@@ -7,13 +7,16 @@ import com.fasterxml.jackson.databind.JsonNode;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 
 public class Chat extends WhatsAppObjectWithId {
 
     private Contact contact;
+    private volatile MessageCache messageCache;
 
     protected Chat(WhatsAppClient client, JsonNode jsonNode) {
         super(client, jsonNode);
@@ -40,21 +43,45 @@ public class Chat extends WhatsAppObjectWithId {
     }
 
     public List<Message> getAllMessages() {
-        List<Message> msgs = new ArrayList<>();
-        for (JsonNode msg : getJsonNode().get("msgs")) {
-            msgs.add(Message.build(getClient(), msg));
-        }
-        return Collections.unmodifiableList(msgs);
+        return getMessageCache().messages;
+    }
+
+    public int getMessagesCount() {
+        return getMessageCache().messages.size();
+    }
+
+    public Message getMessage(int index) {
+        return getMessageCache().messages.get(index);
+    }
+
+    public Message getMessageById(String id) {
+        return getMessageCache().getById(id);
     }
 
     public Message getLastMsg() {
-        List<Message> allMessages = getAllMessages();
+        List<Message> allMessages = getMessageCache().messages;
         if (!allMessages.isEmpty()) {
             return allMessages.get(allMessages.size() - 1);
         }
         return null;
     }
 
+    private MessageCache getMessageCache() {
+        MessageCache messageCache = this.messageCache;
+        if (messageCache == null) {
+            JsonNode msgs = getJsonNode().get("msgs");
+            List<Message> messages = new ArrayList<>(msgs == null ? 0 : msgs.size());
+            if (msgs != null) {
+                for (JsonNode msg : msgs) {
+                    messages.add(Message.build(getClient(), msg));
+                }
+            }
+            messageCache = new MessageCache(Collections.unmodifiableList(messages));
+            this.messageCache = messageCache;
+        }
+        return messageCache;
+    }
+
     public String getFormattedTitle() {
         return getJsonNode().get("formattedTitle").asText();
     }
@@ -130,7 +157,7 @@ public class Chat extends WhatsAppObjectWithId {
     }
 
     public CompletableFuture<Void> update() {
-        return getClient().findChatById(getId()).thenAccept(this::update);
+        return getClient().fetchChatById(getId()).thenAccept(this::update);
     }
 
     public void update(Chat chat) {
@@ -140,5 +167,28 @@ public class Chat extends WhatsAppObjectWithId {
     @Override
     protected void setJsonNode(JsonNode jsonNode) {
         super.setJsonNode(jsonNode);
+        this.messageCache = null;
+    }
+
+    private static class MessageCache {
+
+        private final List<Message> messages;
+        private volatile Map<String, Message> messagesById;
+
+        private MessageCache(List<Message> messages) {
+            this.messages = messages;
+        }
+
+        private Message getById(String id) {
+            Map<String, Message> messagesById = this.messagesById;
+            if (messagesById == null) {
+                messagesById = new HashMap<>((int) (messages.size() / 0.75f) + 1);
+                for (Message message : messages) {
+                    messagesById.put(message.getId(), message);
+                }
+                this.messagesById = messagesById;
+            }
+            return messagesById.get(id);
+        }
     }
 }
@@ -0,0 +1,42 @@
+package br.com.zapia.wpp.client.docker.model;
+
+public class CoalescingStats {
+
+    private final long received;
+    private final long folded;
+    private final long dispatched;
+    private final int pending;
+
+    public CoalescingStats(long received, long folded, long dispatched, int pending) {
+        this.received = received;
+        this.folded = folded;
+        this.dispatched = dispatched;
+        this.pending = pending;
+    }
+
+    public long getReceived() {
+        return received;
+    }
+
+    public long getFolded() {
+        return folded;
+    }
+
+    public long getDispatched() {
+        return dispatched;
+    }
+
+    public int getPending() {
+        return pending;
+    }
+
+    @Override
+    public String toString() {
+        return "CoalescingStats{" +
+                "received=" + received +
+                ", folded=" + folded +
+                ", dispatched=" + dispatched +
+                ", pending=" + pending +
+                '}';
+    }
+}
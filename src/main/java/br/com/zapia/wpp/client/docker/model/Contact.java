@@ -3,12 +3,8 @@ package br.com.zapia.wpp.client.docker.model;
 import br.com.zapia.wpp.client.docker.WhatsAppClient;
 import com.fasterxml.jackson.databind.JsonNode;
 
-import javax.swing.text.MaskFormatter;
 import java.io.File;
-import java.text.ParseException;
 import java.util.concurrent.CompletableFuture;
-import java.util.logging.Level;
-import java.util.logging.Logger;
 
 public class Contact extends WhatsAppObjectWithId {
 
@@ -16,27 +12,6 @@ public class Contact extends WhatsAppObjectWithId {
 
     public Contact(WhatsAppClient client, JsonNode jsonNode) {
         super(client, jsonNode);
-        String id = this.getId();
-        String phoneTemp = id.split("@")[0];
-        phoneTemp = phoneTemp.substring(2);
-        if (phoneTemp.length() == 10) {
-            try {
-                MaskFormatter formatador = new MaskFormatter("(##) ####-####");
-                formatador.setValueContainsLiteralCharacters(false);
-                phoneTemp = formatador.valueToString(phoneTemp);
-            } catch (ParseException ex) {
-                Logger.getLogger(Contact.class.getName()).log(Level.SEVERE, null, ex);
-            }
-        } else if (phoneTemp.length() == 11) {
-            try {
-                MaskFormatter formatador = new MaskFormatter("(##) #####-####");
-                formatador.setValueContainsLiteralCharacters(false);
-                phoneTemp = formatador.valueToString(phoneTemp);
-            } catch (ParseException ex) {
-                Logger.getLogger(Contact.class.getName()).log(Level.SEVERE, null, ex);
-            }
-        }
-        phoneNumber = phoneTemp;
     }
 
     public CompletableFuture<File> getProfilePic() {
@@ -60,11 +35,67 @@ public class Contact extends WhatsAppObjectWithId {
     }
 
     public String getPhoneNumber() {
+        String phoneNumber = this.phoneNumber;
+        if (phoneNumber == null) {
+            phoneNumber = formatPhoneNumber(getLocalNumber());
+            this.phoneNumber = phoneNumber;
+        }
         return phoneNumber;
     }
 
     public String getPhoneNumberNoFormatted() {
-        return phoneNumber.replaceAll("[^0-9]+", "");
+        String localNumber = getLocalNumber();
+        int length = localNumber.length();
+        int i = 0;
+        while (i < length && isDigit(localNumber.charAt(i))) {
+            i++;
+        }
+        if (i == length) {
+            return localNumber;
+        }
+        StringBuilder digits = new StringBuilder(length);
+        digits.append(localNumber, 0, i);
+        for (; i < length; i++) {
+            char c = localNumber.charAt(i);
+            if (isDigit(c)) {
+                digits.append(c);
+            }
+        }
+        return digits.toString();
+    }
+
+    private String getLocalNumber() {
+        String id = getId();
+        int at = id.indexOf('@');
+        int end = at < 0 ? id.length() : at;
+        return id.substring(Math.min(2, end), end);
+    }
+
+    private static String formatPhoneNumber(String localNumber) {
+        int length = localNumber.length();
+        if (length != 10 && length != 11) {
+            return localNumber;
+        }
+        for (int i = 0; i < length; i++) {
+            if (!Character.isDigit(localNumber.charAt(i))) {
+                return localNumber;
+            }
+        }
+        int prefixEnd = length - 4;
+        char[] formatted = new char[length + 4];
+        formatted[0] = '(';
+        formatted[1] = localNumber.charAt(0);
+        formatted[2] = localNumber.charAt(1);
+        formatted[3] = ')';
+        formatted[4] = ' ';
+        localNumber.getChars(2, prefixEnd, formatted, 5);
+        formatted[prefixEnd + 3] = '-';
+        localNumber.getChars(prefixEnd, length, formatted, prefixEnd + 4);
+        return new String(formatted);
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
     }
 
     public String getShortName() {
@@ -0,0 +1,77 @@
+package br.com.zapia.wpp.client.docker.model;
+
+public class LocalStoreStats {
+
+    private final boolean enabled;
+    private final boolean ready;
+    private final int chats;
+    private final int contacts;
+    private final int indexedNumbers;
+    private final long hits;
+    private final long misses;
+    private final long seededAt;
+    private final long lastEventAt;
+
+    public LocalStoreStats(boolean enabled, boolean ready, int chats, int contacts, int indexedNumbers, long hits, long misses, long seededAt, long lastEventAt) {
+        this.enabled = enabled;
+        this.ready = ready;
+        this.chats = chats;
+        this.contacts = contacts;
+        this.indexedNumbers = indexedNumbers;
+        this.hits = hits;
+        this.misses = misses;
+        this.seededAt = seededAt;
+        this.lastEventAt = lastEventAt;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int getChats() {
+        return chats;
+    }
+
+    public int getContacts() {
+        return contacts;
+    }
+
+    public int getIndexedNumbers() {
+        return indexedNumbers;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getSeededAt() {
+        return seededAt;
+    }
+
+    public long getLastEventAt() {
+        return lastEventAt;
+    }
+
+    @Override
+    public String toString() {
+        return "LocalStoreStats{" +
+                "enabled=" + enabled +
+                ", ready=" + ready +
+                ", chats=" + chats +
+                ", contacts=" + contacts +
+                ", indexedNumbers=" + indexedNumbers +
+                ", hits=" + hits +
+                ", misses=" + misses +
+                ", seededAt=" + seededAt +
+                ", lastEventAt=" + lastEventAt +
+                '}';
+    }
+}
@@ -0,0 +1,76 @@
+package br.com.zapia.wpp.client.docker.model;
+
+public class MediaCacheStats {
+
+    private final boolean enabled;
+    private final int entries;
+    private final long bytes;
+    private final long maxBytes;
+    private final long hits;
+    private final long misses;
+    private final long bytesSaved;
+    private final long evictions;
+
+    public MediaCacheStats(boolean enabled, int entries, long bytes, long maxBytes, long hits, long misses, long bytesSaved, long evictions) {
+        this.enabled = enabled;
+        this.entries = entries;
+        this.bytes = bytes;
+        this.maxBytes = maxBytes;
+        this.hits = hits;
+        this.misses = misses;
+        this.bytesSaved = bytesSaved;
+        this.evictions = evictions;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getEntries() {
+        return entries;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public double getHitRatio() {
+        long total = hits + misses;
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    public long getBytesSaved() {
+        return bytesSaved;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    @Override
+    public String toString() {
+        return "MediaCacheStats{" +
+                "enabled=" + enabled +
+                ", entries=" + entries +
+                ", bytes=" + bytes +
+                ", maxBytes=" + maxBytes +
+                ", hits=" + hits +
+                ", misses=" + misses +
+                ", hitRatio=" + getHitRatio() +
+                ", bytesSaved=" + bytesSaved +
+                ", evictions=" + evictions +
+                '}';
+    }
+}
@@ -20,7 +20,15 @@ public class MediaMessage extends Message {
         }
     }
 
+    public String getFileHash() {
+        if (getJsonNode().hasNonNull("filehash")) {
+            return getJsonNode().get("filehash").asText();
+        } else {
+            return null;
+        }
+    }
+
     public CompletableFuture<File> download() {
-        return getClient().downloadMediaMessage(getId());
+        return getClient().downloadMediaMessage(getId(), getFileHash());
     }
 }
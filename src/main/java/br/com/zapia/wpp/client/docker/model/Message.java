@@ -9,6 +9,12 @@ public class Message extends WhatsAppObjectWithId {
 
     private Contact contact;
     private String oldId;
+    private String type;
+    private String body;
+    private String senderId;
+    private String chatId;
+    private long timestamp;
+    private boolean isNew;
 
     protected Message(WhatsAppClient client, JsonNode jsonNode) {
         super(client, jsonNode);
@@ -40,11 +46,15 @@ public class Message extends WhatsAppObjectWithId {
     }
 
     public String getSenderId() {
-        if (jsonNode.has("author")) {
-            return jsonNode.get("author").asText();
-        }
+        return senderId;
+    }
 
-        return jsonNode.get("from").asText();
+    public String getChatId() {
+        return chatId;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
     }
 
     public CompletableFuture<Contact> getContact() {
@@ -59,15 +69,15 @@ public class Message extends WhatsAppObjectWithId {
     }
 
     public String getBody() {
-        return getJsonNode().get("body") == null ? "" : getJsonNode().get("body").asText();
+        return body;
     }
 
     public String getType() {
-        return getJsonNode().get("type") == null ? "" : getJsonNode().get("type").asText();
+        return type;
     }
 
     public boolean isNew() {
-        return getJsonNode().get("isNew") != null && getJsonNode().get("isNew").asBoolean(false);
+        return isNew;
     }
 
     public boolean isRevoked() {
@@ -95,11 +105,37 @@ public class Message extends WhatsAppObjectWithId {
         super.setJsonNode(jsonNode);
         JsonNode oldId = jsonNode.get("oldId");
         if (oldId != null) {
-            if (oldId.get("_serialized") != null) {
-                this.oldId = oldId.get("_serialized").asText();
-            } else {
-                this.oldId = oldId.asText();
-            }
+            JsonNode serialized = oldId.get("_serialized");
+            this.oldId = serialized != null ? serialized.asText() : oldId.asText();
+        }
+        JsonNode type = jsonNode.get("type");
+        this.type = type == null ? "" : type.asText();
+        JsonNode body = jsonNode.get("body");
+        this.body = body == null ? "" : body.asText();
+        JsonNode author = jsonNode.get("author");
+        JsonNode from = jsonNode.get("from");
+        if (author != null) {
+            this.senderId = author.asText();
+        } else {
+            this.senderId = from == null ? null : from.asText();
+        }
+        JsonNode timestamp = jsonNode.get("t");
+        this.timestamp = timestamp == null ? 0 : timestamp.asLong();
+        JsonNode isNew = jsonNode.get("isNew");
+        this.isNew = isNew != null && isNew.asBoolean(false);
+        this.chatId = chatId(jsonNode, from);
+    }
+
+    private static String chatId(JsonNode jsonNode, JsonNode from) {
+        JsonNode id = jsonNode.get("id");
+        if (id != null && id.hasNonNull("remote")) {
+            JsonNode remote = id.get("remote");
+            JsonNode serialized = remote.get("_serialized");
+            return serialized != null ? serialized.asText() : remote.asText();
+        }
+        if (id != null && id.path("fromMe").asBoolean(false) && jsonNode.hasNonNull("to")) {
+            return jsonNode.get("to").asText();
         }
+        return from != null && !from.isNull() ? from.asText() : null;
     }
 }
@@ -0,0 +1,6 @@
+package br.com.zapia.wpp.client.docker.model;
+
+public enum RequestOverflowPolicy {
+    QUEUE,
+    REJECT
+}
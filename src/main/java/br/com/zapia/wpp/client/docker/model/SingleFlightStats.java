@@ -0,0 +1,35 @@
+package br.com.zapia.wpp.client.docker.model;
+
+public class SingleFlightStats {
+
+    private final long executed;
+    private final long deduplicated;
+    private final int inFlight;
+
+    public SingleFlightStats(long executed, long deduplicated, int inFlight) {
+        this.executed = executed;
+        this.deduplicated = deduplicated;
+        this.inFlight = inFlight;
+    }
+
+    public long getExecuted() {
+        return executed;
+    }
+
+    public long getDeduplicated() {
+        return deduplicated;
+    }
+
+    public int getInFlight() {
+        return inFlight;
+    }
+
+    @Override
+    public String toString() {
+        return "SingleFlightStats{" +
+                "executed=" + executed +
+                ", deduplicated=" + deduplicated +
+                ", inFlight=" + inFlight +
+                '}';
+    }
+}
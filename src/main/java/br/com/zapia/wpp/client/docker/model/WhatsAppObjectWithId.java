@@ -23,11 +23,8 @@ public class WhatsAppObjectWithId extends WhatsAppObject {
         super.setJsonNode(jsonNode);
         JsonNode id = jsonNode.get("id");
         if (id != null) {
-            if (id.get("_serialized") != null) {
-                this.id = id.get("_serialized").asText();
-            } else {
-                this.id = id.asText();
-            }
+            JsonNode serialized = id.get("_serialized");
+            this.id = serialized != null ? serialized.asText() : id.asText();
         }
     }
 
@@ -0,0 +1,72 @@
+package br.com.zapia.wpp.client.docker;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactJsonNodeFactoryTest {
+
+    private static final String JSON = "{\"id\":\"m1\",\"type\":\"chat\",\"t\":1672531200,\"isNew\":true,\"body\":\"Olá\",\"labels\":[\"a\",\"b\",{\"c\":null}]}";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void readsTheSameTreeAsTheDefaultFactory() throws IOException {
+        JsonNode compact = objectMapper.reader(CompactJsonNodeFactory.instance).readTree(JSON);
+
+        assertEquals(objectMapper.readTree(JSON), compact);
+        assertEquals("chat", compact.get("type").asText());
+        assertSame(compact.get("type"), compact.get("type"));
+        assertEquals("b", compact.get("labels").get(1).asText());
+        assertTrue(compact.get("labels").get(2).get("c").isNull());
+    }
+
+    @Test
+    void concurrentReadersShareOneUnpackedNode() throws Exception {
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        try {
+            for (int round = 0; round < 200; round++) {
+                JsonNode compact = objectMapper.reader(CompactJsonNodeFactory.instance).readTree(JSON);
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<JsonNode[]>> futures = new ArrayList<>();
+                for (int i = 0; i < 8; i++) {
+                    futures.add(executorService.submit(() -> {
+                        start.await();
+                        return new JsonNode[]{compact.get("body"), compact.get("labels").get(0)};
+                    }));
+                }
+                start.countDown();
+                for (Future<JsonNode[]> future : futures) {
+                    JsonNode[] nodes = future.get();
+                    assertSame(compact.get("body"), nodes[0]);
+                    assertSame(compact.get("labels").get(0), nodes[1]);
+                    assertEquals("Olá", nodes[0].textValue());
+                }
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    void writesAreNotOverwrittenByCachedReads() throws IOException {
+        JsonNode compact = objectMapper.reader(CompactJsonNodeFactory.instance).readTree(JSON);
+        JsonNode type = compact.get("type");
+
+        ((ObjectNode) compact).put("type", "image");
+
+        assertEquals("chat", type.asText());
+        assertEquals("image", compact.get("type").asText());
+    }
+}
@@ -0,0 +1,73 @@
+package br.com.zapia.wpp.client.docker;
+
+import br.com.zapia.wpp.client.docker.model.Contact;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import javax.swing.text.MaskFormatter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ContactDecodeBenchmark {
+
+    @Param({"40000"})
+    private int contacts;
+
+    private JsonNode jsonNode;
+
+    @Setup
+    public void setup() throws IOException {
+        var json = new StringBuilder("[");
+        for (int i = 0; i < contacts; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            String number = "55" + (11 + i % 89) + (i % 2 == 0 ? "9" : "") + String.format("%08d", i);
+            json.append("{\"id\":{\"server\":\"c.us\",\"user\":\"").append(number).append("\",\"_serialized\":\"").append(number).append("@c.us\"},")
+                    .append("\"name\":\"Contato ").append(i).append("\",\"pushname\":\"Contato ").append(i).append("\",\"isMyContact\":true}");
+        }
+        json.append(']');
+        jsonNode = new ObjectMapper().readTree(json.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Benchmark
+    public void decodeContacts(Blackhole blackhole) {
+        for (JsonNode node : jsonNode) {
+            blackhole.consume(new Contact(null, node));
+        }
+    }
+
+    @Benchmark
+    public void decodeContactsAndFormat(Blackhole blackhole) {
+        for (JsonNode node : jsonNode) {
+            Contact contact = new Contact(null, node);
+            blackhole.consume(contact.getPhoneNumber());
+            blackhole.consume(contact.getPhoneNumberNoFormatted());
+        }
+    }
+
+    @Benchmark
+    public void decodeContactsMaskFormatter(Blackhole blackhole) throws ParseException {
+        for (JsonNode node : jsonNode) {
+            Contact contact = new Contact(null, node);
+            String phoneNumber = contact.getId().split("@")[0].substring(2);
+            if (phoneNumber.length() == 10 || phoneNumber.length() == 11) {
+                MaskFormatter maskFormatter = new MaskFormatter(phoneNumber.length() == 10 ? "(##) ####-####" : "(##) #####-####");
+                maskFormatter.setValueContainsLiteralCharacters(false);
+                phoneNumber = maskFormatter.valueToString(phoneNumber);
+            }
+            blackhole.consume(phoneNumber);
+            blackhole.consume(phoneNumber.replaceAll("[^0-9]+", ""));
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package br.com.zapia.wpp.client.docker;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventCoalescerTest {
+
+    private final ScheduledExecutorService scheduledExecutorService = Executors.newSingleThreadScheduledExecutor();
+    private final ExecutorService executorService = Executors.newCachedThreadPool();
+    private final StripedEventDispatcher dispatcher = new StripedEventDispatcher(2, executorService, runnable -> runnable, Throwable::printStackTrace);
+
+    @AfterEach
+    void shutdown() {
+        dispatcher.shutdown();
+        scheduledExecutorService.shutdownNow();
+        executorService.shutdownNow();
+    }
+
+    @Test
+    void foldsUpdatesWithinWindowIntoOneBatch() throws InterruptedException {
+        EventCoalescer coalescer = new EventCoalescer(Duration.ofMillis(50), scheduledExecutorService, dispatcher);
+        List<List<String>> delivered = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch flushed = new CountDownLatch(1);
+        Consumer<List<String>> flush = batch -> {
+            delivered.add(batch);
+            flushed.countDown();
+        };
+
+        dispatcher.sequence(() -> coalescer.offer("msgs:chat", List.of("a", "b"), EventCoalescerTest::concat, flush));
+        dispatcher.sequence(() -> coalescer.offer("msgs:chat", List.of("c"), EventCoalescerTest::concat, flush));
+
+        assertTrue(flushed.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(List.of("a", "b", "c")), delivered);
+        assertEquals(2, coalescer.getStats().getReceived());
+        assertEquals(1, coalescer.getStats().getFolded());
+        assertEquals(1, coalescer.getStats().getDispatched());
+    }
+
+    @Test
+    void flushesPendingUpdateBeforeLaterRemoval() throws InterruptedException {
+        EventCoalescer coalescer = new EventCoalescer(Duration.ofSeconds(10), scheduledExecutorService, dispatcher);
+        List<String> delivered = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch removed = new CountDownLatch(1);
+        List<Consumer<String>> listeners = List.of(event -> {
+            delivered.add(event);
+            if (event.startsWith("remove")) {
+                removed.countDown();
+            }
+        });
+
+        dispatcher.submit(() -> {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(50));
+            dispatcher.sequence(() -> coalescer.offer("chat:1", "update-1", (previous, next) -> next, update -> dispatcher.deliver("1", listeners, update)));
+        });
+        dispatcher.submit(() -> {
+            dispatcher.sequence(() -> coalescer.flush("chat:1"));
+            dispatcher.deliver("1", listeners, "remove-1");
+        });
+
+        assertTrue(removed.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("update-1", "remove-1"), delivered);
+        assertEquals(0, coalescer.getStats().getPending());
+    }
+
+    @Test
+    void staleTimerDoesNotFlushNewerEntryEarly() throws InterruptedException {
+        EventCoalescer coalescer = new EventCoalescer(Duration.ofMillis(400), scheduledExecutorService, dispatcher);
+        List<String> delivered = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch flushed = new CountDownLatch(2);
+        Consumer<String> flush = value -> {
+            delivered.add(value);
+            flushed.countDown();
+        };
+
+        dispatcher.sequence(() -> coalescer.offer("chat:1", "first", (previous, next) -> next, flush));
+        dispatcher.sequence(() -> coalescer.flush("chat:1"));
+        LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(200));
+        dispatcher.sequence(() -> coalescer.offer("chat:1", "second", (previous, next) -> next, flush));
+        LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(300));
+
+        assertEquals(List.of("first"), delivered);
+        assertTrue(flushed.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("first", "second"), delivered);
+    }
+
+    private static List<String> concat(List<String> previous, List<String> next) {
+        List<String> merged = new ArrayList<>(previous);
+        merged.addAll(next);
+        return merged;
+    }
+}
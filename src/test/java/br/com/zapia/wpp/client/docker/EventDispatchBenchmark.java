@@ -0,0 +1,66 @@
+package br.com.zapia.wpp.client.docker;
+
+import br.com.zapia.wpp.client.docker.model.Message;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventDispatchBenchmark {
+
+    @Param({"1", "5", "20"})
+    private int listeners;
+
+    private ObjectMapper objectMapper;
+    private byte[] payload;
+
+    @Setup
+    public void setup() {
+        objectMapper = new ObjectMapper();
+        var json = new StringBuilder("[");
+        for (int i = 0; i < 8; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"id\":{\"_serialized\":\"false_554499999999@c.us_3EB0").append(i).append("\"},")
+                    .append("\"type\":\"chat\",\"from\":\"554499999999@c.us\",\"t\":1672531200,\"isNew\":true,")
+                    .append("\"body\":\"Mensagem de teste ").append(i).append("\"}");
+        }
+        json.append(']');
+        payload = json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public void parsePerListener(Blackhole blackhole) throws IOException {
+        for (int i = 0; i < listeners; i++) {
+            blackhole.consume(buildMessages(objectMapper.readTree(payload)));
+        }
+    }
+
+    @Benchmark
+    public void parseOnceAndShare(Blackhole blackhole) throws IOException {
+        List<Message> messages = buildMessages(objectMapper.readTree(payload));
+        for (int i = 0; i < listeners; i++) {
+            blackhole.consume(messages);
+        }
+    }
+
+    private static List<Message> buildMessages(JsonNode jsonNode) {
+        var msgs = new ArrayList<Message>();
+        jsonNode.forEach(jsonNode1 -> msgs.add(Message.build(null, jsonNode1)));
+        return Collections.unmodifiableList(msgs);
+    }
+}
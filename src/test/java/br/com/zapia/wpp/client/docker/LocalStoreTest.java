@@ -0,0 +1,155 @@
+package br.com.zapia.wpp.client.docker;
+
+import br.com.zapia.wpp.client.docker.model.Chat;
+import br.com.zapia.wpp.client.docker.model.Contact;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalStoreTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final LocalStore localStore = new LocalStore();
+
+    @Test
+    void servesNothingUntilSeeded() throws IOException {
+        localStore.putChat(localStore.nextSequence(), chat("5511987654321@c.us", "before seed"));
+
+        assertNull(localStore.getChat("5511987654321@c.us"));
+        assertFalse(localStore.isReady());
+        assertEquals(0, localStore.getHits() + localStore.getMisses());
+
+        localStore.seed(localStore.nextSequence(), Collections.emptyList(), List.of(contact("5511987654321@c.us")));
+
+        assertTrue(localStore.isReady());
+        assertEquals("before seed", localStore.getChat("5511987654321@c.us").getFormattedTitle());
+        assertNotNull(localStore.getContact("5511987654321@c.us"));
+    }
+
+    @Test
+    void eventsNewerThanTheSeedSnapshotWin() throws IOException {
+        long seedSequence = localStore.nextSequence();
+        long eventSequence = localStore.nextSequence();
+        localStore.putChat(eventSequence, chat("a@c.us", "from event"));
+        localStore.removeChat(localStore.nextSequence(), "b@c.us");
+
+        localStore.seed(seedSequence, List.of(chat("a@c.us", "from seed"), chat("b@c.us", "removed"), chat("c@c.us", "only seed")), Collections.emptyList());
+
+        assertEquals("from event", localStore.getChat("a@c.us").getFormattedTitle());
+        assertNull(localStore.getChat("b@c.us"));
+        assertEquals("only seed", localStore.getChat("c@c.us").getFormattedTitle());
+        assertEquals(2, localStore.getChats());
+    }
+
+    @Test
+    void olderEventsDoNotOverwriteNewerOnes() throws IOException {
+        localStore.seed(localStore.nextSequence(), Collections.emptyList(), Collections.emptyList());
+        long older = localStore.nextSequence();
+        long newer = localStore.nextSequence();
+
+        localStore.putChat(newer, chat("a@c.us", "newer"));
+        localStore.putChat(older, chat("a@c.us", "older"));
+        localStore.removeChat(older, "a@c.us");
+
+        assertEquals("newer", localStore.getChat("a@c.us").getFormattedTitle());
+    }
+
+    @Test
+    void invalidateDropsStateAndStaleSeeds() throws IOException {
+        long staleSeed = localStore.nextSequence();
+        localStore.seed(localStore.nextSequence(), List.of(chat("5511987654321@c.us", "chat")), List.of(contact("5511987654321@c.us")));
+
+        localStore.invalidate();
+        localStore.seed(staleSeed, List.of(chat("a@c.us", "stale")), Collections.emptyList());
+
+        assertFalse(localStore.isReady());
+        assertEquals(0, localStore.getChats());
+        assertEquals(0, localStore.getContacts());
+        assertEquals(0, localStore.getIndexedNumbers());
+    }
+
+    @Test
+    void countsHitsAndMisses() throws IOException {
+        localStore.seed(localStore.nextSequence(), List.of(chat("a@c.us", "chat")), List.of(contact("b@c.us")));
+
+        assertNotNull(localStore.getChat("a@c.us"));
+        assertNotNull(localStore.getContact("b@c.us"));
+        assertNull(localStore.getChat("b@c.us"));
+        assertEquals(2, localStore.getHits());
+        assertEquals(1, localStore.getMisses());
+    }
+
+    @Test
+    void looksUpByFormattedNumberAndDropsRemovedChats() throws IOException {
+        localStore.seed(localStore.nextSequence(), List.of(chat("5511987654321@c.us", "chat")), List.of(contact("5511987654321@c.us")));
+
+        assertEquals("chat", localStore.getChatByNumber("+55 (11) 98765-4321").getFormattedTitle());
+        assertNotNull(localStore.getContactByNumber("551187654321"));
+        assertNull(localStore.getChatByNumber("5511900000000"));
+        assertEquals(2, localStore.getHits());
+        assertEquals(1, localStore.getMisses());
+
+        localStore.removeChat(localStore.nextSequence(), "5511987654321@c.us");
+
+        assertNull(localStore.getChatByNumber("5511987654321"));
+        assertEquals(1, localStore.getIndexedNumbers());
+    }
+
+    @Test
+    void tombstonesArePurgedOnceNoOlderWriteIsPending() throws IOException {
+        localStore.seed(localStore.nextSequence(), List.of(chat("a@c.us", "chat"), chat("b@c.us", "chat")), Collections.emptyList());
+        long inFlightLookup = localStore.nextSequence();
+
+        localStore.removeChat(localStore.nextSequence(), "a@c.us");
+        assertEquals(1, localStore.getTombstones());
+
+        localStore.putChat(inFlightLookup, chat("a@c.us", "stale lookup"));
+        assertNull(localStore.getChat("a@c.us"));
+        assertEquals(0, localStore.getTombstones());
+
+        localStore.removeChat(localStore.nextSequence(), "b@c.us");
+        assertEquals(0, localStore.getTombstones());
+        assertEquals(0, localStore.getChats());
+    }
+
+    @Test
+    void releasedSequencesDoNotHoldTombstones() throws IOException {
+        localStore.seed(localStore.nextSequence(), List.of(chat("a@c.us", "chat")), Collections.emptyList());
+        long failedLookup = localStore.nextSequence();
+        localStore.removeChat(localStore.nextSequence(), "a@c.us");
+
+        localStore.release(failedLookup);
+
+        assertEquals(0, localStore.getTombstones());
+    }
+
+    @Test
+    void contactsExpireAndAreRefreshedByLookups() throws Exception {
+        LocalStore expiring = new LocalStore(Duration.ofMillis(50));
+        expiring.seed(expiring.nextSequence(), Collections.emptyList(), List.of(contact("5511987654321@c.us")));
+        assertNotNull(expiring.getContact("5511987654321@c.us"));
+
+        Thread.sleep(100);
+
+        assertNull(expiring.getContact("5511987654321@c.us"));
+        assertNull(expiring.getContactByNumber("5511987654321"));
+
+        expiring.putContact(contact("5511987654321@c.us"));
+
+        assertNotNull(expiring.getContactByNumber("5511987654321"));
+    }
+
+    private Chat chat(String id, String title) throws IOException {
+        return Chat.build(null, objectMapper.readTree("{\"id\":\"" + id + "\",\"kind\":\"chat\",\"formattedTitle\":\"" + title + "\"}"));
+    }
+
+    private Contact contact(String id) throws IOException {
+        return new Contact(null, objectMapper.readTree("{\"id\":\"" + id + "\"}"));
+    }
+}
@@ -0,0 +1,162 @@
+package br.com.zapia.wpp.client.docker;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MediaCacheTest {
+
+    @TempDir
+    File directory;
+
+    private final List<File> returned = new ArrayList<>();
+
+    @AfterEach
+    void deleteReturnedFiles() {
+        for (File file : returned) {
+            file.delete();
+        }
+    }
+
+    @Test
+    void storesContentOnceAndResolvesAnyKey() throws IOException {
+        try (MediaCache mediaCache = new MediaCache(directory, 10_000, Duration.ofHours(1))) {
+            assertNull(mediaCache.get(MediaCache.messageKey("m1")));
+
+            File first = track(mediaCache.put(content(1000, 1), "photo.jpg", MediaCache.messageKey("m1"), MediaCache.mediaKey("h1")));
+            File second = track(mediaCache.put(content(1000, 1), "copy.jpg", MediaCache.messageKey("m2")));
+            File hit = track(mediaCache.get(MediaCache.messageKey("unknown"), MediaCache.mediaKey("h1")));
+
+            assertTrue(first.getName().startsWith("photo.jpg#"));
+            assertTrue(first.getName().endsWith(".jpg"));
+            assertTrue(second.getName().startsWith("copy.jpg#"));
+            assertEquals(1000, first.length());
+            assertNotEquals(first, second);
+            assertNotEquals(first, hit);
+            assertArrayEquals(Files.readAllBytes(first.toPath()), Files.readAllBytes(hit.toPath()));
+            assertEquals(1, mediaCache.getEntries());
+            assertEquals(1, mediaCache.getHits());
+            assertEquals(1, mediaCache.getMisses());
+            assertEquals(1000, mediaCache.getBytesSaved());
+        }
+    }
+
+    @Test
+    void returnedFilesAreIndependentOfTheCachedObject() throws IOException {
+        try (MediaCache mediaCache = new MediaCache(directory, 1500, Duration.ofHours(1))) {
+            File first = track(mediaCache.put(content(1000, 1), "a.png", MediaCache.messageKey("m1")));
+            File hit = track(mediaCache.get(MediaCache.messageKey("m1")));
+            assertTrue(first.delete());
+
+            track(mediaCache.put(content(1000, 2), "b.png", MediaCache.messageKey("m2")));
+
+            assertEquals(1, mediaCache.getEvictions());
+            assertNull(mediaCache.get(MediaCache.messageKey("m1")));
+            assertArrayEquals(bytes(1000, 1), Files.readAllBytes(hit.toPath()));
+        }
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedOverTheByteLimit() throws IOException {
+        try (MediaCache mediaCache = new MediaCache(directory, 3000, Duration.ofHours(1))) {
+            track(mediaCache.put(content(1000, 1), "a.png", MediaCache.messageKey("m1")));
+            track(mediaCache.put(content(1000, 2), "b.png", MediaCache.messageKey("m2")));
+            track(mediaCache.put(content(1000, 3), "c.png", MediaCache.messageKey("m3")));
+            assertNotNull(track(mediaCache.get(MediaCache.messageKey("m1"))));
+
+            track(mediaCache.put(content(1000, 4), "d.png", MediaCache.messageKey("m4")));
+
+            assertTrue(mediaCache.getBytes() <= 3000, "bytes " + mediaCache.getBytes());
+            assertEquals(1, mediaCache.getEvictions());
+            assertNull(mediaCache.get(MediaCache.messageKey("m2")));
+            assertNotNull(track(mediaCache.get(MediaCache.messageKey("m1"))));
+            assertNotNull(track(mediaCache.get(MediaCache.messageKey("m4"))));
+        }
+    }
+
+    @Test
+    void picturesExpireAndReplacementsDropTheOldObject() throws Exception {
+        try (MediaCache mediaCache = new MediaCache(directory, 10_000, Duration.ofMillis(50))) {
+            String pictureKey = MediaCache.pictureKey("5511987654321@c.us", false);
+            track(mediaCache.put(content(500, 1), "picture.jpg", pictureKey));
+            track(mediaCache.put(content(500, 2), "media.jpg", MediaCache.messageKey("m1")));
+            assertNotNull(track(mediaCache.get(pictureKey)));
+
+            Thread.sleep(100);
+
+            assertNull(mediaCache.get(pictureKey));
+            assertNotNull(track(mediaCache.get(MediaCache.messageKey("m1"))));
+
+            track(mediaCache.put(content(500, 3), "picture.jpg", pictureKey));
+
+            assertEquals(2, mediaCache.getEntries());
+            assertNotNull(track(mediaCache.get(pictureKey)));
+        }
+    }
+
+    @Test
+    void recoversIndexAndDropsUnreferencedFiles() throws IOException {
+        File stored;
+        try (MediaCache mediaCache = new MediaCache(directory, 10_000, Duration.ofHours(1))) {
+            stored = track(mediaCache.put(content(1000, 1), "a.png", MediaCache.messageKey("m1"), MediaCache.mediaKey("h1")));
+            track(mediaCache.put(content(1000, 2), "b.png", MediaCache.messageKey("m2")));
+        }
+        File objects = new File(directory, "objects");
+        File orphan = new File(objects, "0123abcd.bin");
+        Files.write(orphan.toPath(), new byte[10]);
+        File temp = new File(objects, "media-1.tmp");
+        Files.write(temp.toPath(), new byte[10]);
+        Files.write(new File(directory, "index.log").toPath(), "garbage line\n".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        try (MediaCache mediaCache = new MediaCache(directory, 10_000, Duration.ofHours(1))) {
+            assertEquals(2, mediaCache.getEntries());
+            assertEquals(2000, mediaCache.getBytes());
+            File hit = track(mediaCache.get(MediaCache.mediaKey("h1")));
+            assertTrue(hit.getName().startsWith("a.png#"));
+            assertArrayEquals(Files.readAllBytes(stored.toPath()), Files.readAllBytes(hit.toPath()));
+            assertNotNull(track(mediaCache.get(MediaCache.messageKey("m2"))));
+            assertFalse(orphan.exists());
+            assertFalse(temp.exists());
+        }
+    }
+
+    @Test
+    void buildsKeys() {
+        assertEquals("message:m1", MediaCache.messageKey("m1"));
+        assertEquals("picture:a@c.us:full", MediaCache.pictureKey("a@c.us", true));
+        assertNull(MediaCache.mediaKey(""));
+        assertNull(MediaCache.mediaKey(null));
+    }
+
+    private File track(File file) {
+        if (file != null) {
+            returned.add(file);
+        }
+        return file;
+    }
+
+    private static InputStream content(int size, int seed) {
+        return new ByteArrayInputStream(bytes(size, seed));
+    }
+
+    private static byte[] bytes(int size, int seed) {
+        byte[] bytes = new byte[size];
+        for (int i = 0; i < size; i++) {
+            bytes[i] = (byte) (i * seed);
+        }
+        return bytes;
+    }
+}
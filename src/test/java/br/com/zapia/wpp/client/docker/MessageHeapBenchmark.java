@@ -0,0 +1,87 @@
+package br.com.zapia.wpp.client.docker;
+
+import br.com.zapia.wpp.client.docker.model.Message;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g", "-XX:+UseParallelGC"})
+public class MessageHeapBenchmark {
+
+    @Param({"1000000"})
+    private int messages;
+
+    @Param({"false", "true"})
+    private boolean compact;
+
+    private ObjectReader treeReader;
+    private Object[] retained;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        treeReader = objectMapper.reader(compact ? CompactJsonNodeFactory.instance : objectMapper.getNodeFactory());
+        retained = null;
+    }
+
+    @Benchmark
+    public Object[] retainTrees(RetainedHeap retainedHeap) throws IOException {
+        long before = retainedHeap.usedHeap();
+        retained = new Object[messages];
+        for (int i = 0; i < messages; i++) {
+            retained[i] = treeReader.readTree(message(i));
+        }
+        retainedHeap.record(before, messages);
+        return retained;
+    }
+
+    @Benchmark
+    public Object[] retainMessages(RetainedHeap retainedHeap) throws IOException {
+        long before = retainedHeap.usedHeap();
+        retained = new Object[messages];
+        for (int i = 0; i < messages; i++) {
+            JsonNode jsonNode = treeReader.readTree(message(i));
+            retained[i] = Message.build(null, jsonNode);
+        }
+        retainedHeap.record(before, messages);
+        return retained;
+    }
+
+    private static byte[] message(int i) {
+        return ("{\"id\":{\"fromMe\":false,\"remote\":\"554499999999@c.us\",\"id\":\"3EB0" + Integer.toHexString(i) + "\",\"_serialized\":\"false_554499999999@c.us_3EB0" + Integer.toHexString(i) + "\"},"
+                + "\"type\":\"chat\",\"from\":\"554499999999@c.us\",\"to\":\"554488888888@c.us\",\"t\":" + (1672531200 + i) + ",\"isNew\":true,\"ack\":1,"
+                + "\"body\":\"Mensagem de teste " + i + "\"}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class RetainedHeap {
+
+        public long retainedBytesPerMessage;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            retainedBytesPerMessage = 0;
+        }
+
+        private long usedHeap() {
+            System.gc();
+            return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+        }
+
+        private void record(long before, int messages) {
+            retainedBytesPerMessage = (usedHeap() - before) / messages;
+        }
+    }
+}
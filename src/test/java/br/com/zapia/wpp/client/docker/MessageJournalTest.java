@@ -0,0 +1,223 @@
+package br.com.zapia.wpp.client.docker;
+
+import br.com.zapia.wpp.client.docker.model.Message;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MessageJournalTest {
+
+    private static final int SEGMENT_SIZE = 4096;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<Throwable> errors = new CopyOnWriteArrayList<>();
+
+    @TempDir
+    File directory;
+
+    @Test
+    void historyIsChronologicalAndSkipsRemovedMessages() throws IOException {
+        try (MessageJournal journal = open()) {
+            journal.append("new-msg", message("m3", "a@c.us", 30, "third"));
+            journal.append("new-msg", message("m1", "a@c.us", 10, "first"));
+            journal.append("new-msg", message("m2", "a@c.us", 20, "second"));
+            journal.append("new-msg", message("x1", "b@c.us", 15, "other chat"));
+            journal.append("update-msg", message("m1", "a@c.us", 10, "first edited"));
+            journal.append("remove-msg", message("m2", "a@c.us", 20, ""));
+
+            assertEquals(List.of("first edited", "third"), bodies(journal.history("a@c.us", Long.MAX_VALUE, 10, this::build)));
+            assertEquals(List.of("first edited"), bodies(journal.history("a@c.us", 30, 10, this::build)));
+            assertNull(journal.find("m2", this::build));
+            assertEquals(3, journal.getMessages());
+        }
+        assertTrue(errors.isEmpty());
+    }
+
+    @Test
+    void historyPagesBackwardsFromTheCursor() throws IOException {
+        try (MessageJournal journal = open()) {
+            journal.append("new-msg", message("m1", "a@c.us", 10, "first"));
+            journal.append("new-msg", message("m2", "a@c.us", 20, "second"));
+            journal.append("new-msg", message("m3", "a@c.us", 20, "second too"));
+            journal.append("new-msg", message("m4", "a@c.us", 30, "third"));
+            journal.append("new-msg", message("m5", "a@c.us", 40, "fourth"));
+
+            assertEquals(List.of("second", "second too"), bodies(journal.history("a@c.us", 30, 2, this::build)));
+            assertEquals(List.of("first"), bodies(journal.history("a@c.us", 20, 2, this::build)));
+            assertEquals(List.of("third", "fourth"), bodies(journal.history("a@c.us", 41, 2, this::build)));
+            assertTrue(journal.history("a@c.us", 10, 2, this::build).isEmpty());
+            assertTrue(journal.history("unknown@c.us", 50, 2, this::build).isEmpty());
+        }
+        assertTrue(errors.isEmpty());
+    }
+
+    @Test
+    void reopenLoadsChatIndexWithoutLosingMessages() throws IOException {
+        try (MessageJournal journal = open()) {
+            fill(journal, 0, 120);
+        }
+        assertTrue(new File(directory, "chats.idx").isFile());
+        try (MessageJournal journal = open()) {
+            assertEquals(120, journal.getMessages());
+            assertEquals(List.of("body 114", "body 117"), bodies(journal.history("0@c.us", Long.MAX_VALUE, 2, this::build)));
+            fill(journal, 120, 130);
+        }
+        try (MessageJournal journal = open()) {
+            assertEquals(130, journal.getMessages());
+            assertEquals("body 129", journal.find("m129", this::build).getBody());
+        }
+        assertTrue(errors.isEmpty());
+    }
+
+    @Test
+    void recoversAfterCrashWithStaleIndexAndTornTail() throws IOException {
+        MessageJournal crashed = open();
+        fill(crashed, 0, 40);
+        crashed.close();
+        MessageJournal reopened = open();
+        fill(reopened, 40, 100);
+        try (RandomAccessFile file = new RandomAccessFile(lastSegment(), "rw")) {
+            file.seek(firstFreeOffset(file));
+            file.writeInt(64);
+            file.writeInt(0xBADC0DE);
+        }
+
+        try (MessageJournal journal = open()) {
+            assertEquals(100, journal.getMessages());
+            assertEquals("body 99", journal.find("m99", this::build).getBody());
+            assertEquals("body 5", journal.find("m5", this::build).getBody());
+            fill(journal, 100, 101);
+            assertEquals("body 100", journal.find("m100", this::build).getBody());
+        }
+        assertTrue(errors.isEmpty());
+    }
+
+    @Test
+    void corruptChatIndexFallsBackToSegmentIndexes() throws IOException {
+        try (MessageJournal journal = open()) {
+            fill(journal, 0, 80);
+        }
+        File checkpoint = new File(directory, "chats.idx");
+        byte[] bytes = Files.readAllBytes(checkpoint.toPath());
+        bytes[bytes.length / 2] ^= 0x55;
+        Files.write(checkpoint.toPath(), bytes);
+
+        try (MessageJournal journal = open()) {
+            assertEquals(80, journal.getMessages());
+            assertEquals(List.of("body 75", "body 78"), bodies(journal.history("0@c.us", Long.MAX_VALUE, 2, this::build)));
+        }
+        assertTrue(errors.isEmpty());
+    }
+
+    @Test
+    void compactionKeepsLatestVersionsAndSurvivesReopen() throws IOException {
+        try (MessageJournal journal = open()) {
+            fill(journal, 0, 60);
+            for (int round = 0; round < 4; round++) {
+                for (int i = 0; i < 60; i++) {
+                    journal.append("update-msg", message("m" + i, (i % 3) + "@c.us", 1000 + i, "round " + round + " " + i));
+                }
+            }
+            for (int i = 0; i < 60; i += 5) {
+                journal.append("remove-msg", message("m" + i, (i % 3) + "@c.us", 1000 + i, ""));
+            }
+            journal.compact();
+
+            assertEquals(48, journal.getMessages());
+            assertEquals("round 3 7", journal.find("m7", this::build).getBody());
+            assertNull(journal.find("m10", this::build));
+            assertTrue(journal.getSegments() < 12, "segments " + journal.getSegments());
+        }
+        try (MessageJournal journal = open()) {
+            assertEquals(48, journal.getMessages());
+            assertEquals("round 3 7", journal.find("m7", this::build).getBody());
+            assertNull(journal.find("m10", this::build));
+            assertEquals(List.of("round 3 54", "round 3 57"), bodies(journal.history("0@c.us", Long.MAX_VALUE, 2, this::build)));
+        }
+        assertTrue(errors.isEmpty());
+    }
+
+    @Test
+    void readsStayConsistentWhileCompacting() throws Exception {
+        try (MessageJournal journal = open()) {
+            fill(journal, 0, 60);
+            for (int i = 0; i < 60; i++) {
+                journal.append("update-msg", message("m" + i, (i % 3) + "@c.us", 1000 + i, "edited " + i));
+            }
+            Thread compactor = new Thread(() -> {
+                try {
+                    journal.compact();
+                } catch (IOException e) {
+                    errors.add(e);
+                }
+            });
+            compactor.start();
+            while (compactor.isAlive()) {
+                for (int i = 0; i < 60; i += 7) {
+                    assertEquals("edited " + i, journal.find("m" + i, this::build).getBody());
+                }
+            }
+            compactor.join();
+            assertEquals(60, journal.history("1@c.us", Long.MAX_VALUE, 100, this::build).size() * 3);
+        }
+        assertTrue(errors.isEmpty());
+    }
+
+    private MessageJournal open() throws IOException {
+        return new MessageJournal(directory, SEGMENT_SIZE, objectMapper, Runnable::run, errors::add);
+    }
+
+    private Message build(JsonNode jsonNode) {
+        return Message.build(null, jsonNode);
+    }
+
+    private File lastSegment() {
+        File[] segments = directory.listFiles((dir, name) -> name.endsWith(".log"));
+        assertNotNull(segments);
+        File last = segments[0];
+        for (File segment : segments) {
+            if (segment.getName().compareTo(last.getName()) > 0) {
+                last = segment;
+            }
+        }
+        return last;
+    }
+
+    private static int firstFreeOffset(RandomAccessFile file) throws IOException {
+        int offset = 0;
+        while (true) {
+            file.seek(offset);
+            int length = file.readInt();
+            if (length <= 0) {
+                return offset;
+            }
+            offset += length;
+        }
+    }
+
+    private static void fill(MessageJournal journal, int from, int to) {
+        for (int i = from; i < to; i++) {
+            journal.append("new-msg", message("m" + i, (i % 3) + "@c.us", 1000 + i, "body " + i));
+        }
+    }
+
+    private static List<String> bodies(List<Message> messages) {
+        return messages.stream().map(Message::getBody).collect(Collectors.toList());
+    }
+
+    private static byte[] message(String id, String chatId, long timestamp, String body) {
+        return ("[{\"id\":{\"_serialized\":\"" + id + "\"},\"type\":\"chat\",\"from\":\"" + chatId + "\",\"t\":" + timestamp + ",\"body\":\"" + body + "\"}]").getBytes(StandardCharsets.UTF_8);
+    }
+}
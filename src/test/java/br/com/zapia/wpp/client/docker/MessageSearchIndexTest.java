@@ -0,0 +1,93 @@
+package br.com.zapia.wpp.client.docker;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MessageSearchIndexTest {
+
+    private final List<Throwable> errors = new CopyOnWriteArrayList<>();
+    private final MessageSearchIndex index = new MessageSearchIndex(new ObjectMapper(), Runnable::run, errors::add);
+
+    @Test
+    void tokenizesFoldingCaseAndAccents() {
+        Set<String> terms = new LinkedHashSet<>();
+
+        MessageSearchIndex.tokenize("Atenção: VOCÊ já pagou o boleto-123? Não!", terms);
+
+        assertEquals(List.of("atencao", "voce", "ja", "pagou", "o", "boleto", "123", "nao"), new ArrayList<>(terms));
+    }
+
+    @Test
+    void ranksMostRecentMatchesFirstAndHonoursLimit() {
+        index.append("new-msg", messages(
+                message("m1", "a@c.us", 100, "pedido confirmado"),
+                message("m2", "a@c.us", 300, "pedido enviado"),
+                message("m3", "b@c.us", 200, "seu pedido"),
+                message("m4", "b@c.us", 400, "outro assunto")));
+
+        assertEquals(List.of("m2", "m3", "m1"), index.search(null, "Pedido", 10));
+        assertEquals(List.of("m2", "m3"), index.search(null, "pedido", 2));
+        assertEquals(List.of("m2"), index.search(null, "PEDIDO enviado", 10));
+        assertEquals(List.of("m3"), index.search("b@c.us", "pedido", 10));
+        assertTrue(index.search(null, "inexistente", 10).isEmpty());
+        assertTrue(errors.isEmpty());
+    }
+
+    @Test
+    void updatesAndRemovalsReplaceIndexedText() {
+        index.append("new-msg", messages(message("m1", "a@c.us", 100, "texto antigo"), message("m2", "a@c.us", 200, "texto")));
+        index.append("update-msg", messages(message("m1", "a@c.us", 100, "texto novo")));
+        index.append("remove-msg", messages(message("m2", "a@c.us", 200, "")));
+
+        assertTrue(index.search(null, "antigo", 10).isEmpty());
+        assertEquals(List.of("m1"), index.search(null, "novo", 10));
+        assertEquals(List.of("m1"), index.search(null, "texto", 10));
+        assertEquals(1, index.getDocuments());
+    }
+
+    @Test
+    void unchangedUpdateDoesNotReindex() {
+        index.append("new-msg", messages(message("m1", "a@c.us", 100, "mesmo texto")));
+        index.append("update-msg", messages(message("m1", "a@c.us", 100, "mesmo texto")));
+        index.append("update-msg", messages(message("m1", "a@c.us", 100, "Mesmo TEXTO")));
+
+        assertEquals(0, index.getTombstones());
+        assertEquals(List.of("m1"), index.search(null, "mesmo", 10));
+    }
+
+    @Test
+    void rebuildsPostingsOnceTombstonesDominate() {
+        for (int round = 0; round < 3; round++) {
+            List<String> batch = new ArrayList<>();
+            for (int i = 0; i < 1000; i++) {
+                batch.add(message("m" + i, (i % 4) + "@c.us", 1000 + i, "rodada" + round + " comum " + (i % 2 == 0 ? "par" : "impar")));
+            }
+            index.append("update-msg", messages(batch.toArray(new String[0])));
+        }
+
+        assertEquals(1000, index.getDocuments());
+        assertTrue(index.getTombstones() < 1000, "tombstones " + index.getTombstones());
+        assertTrue(index.search(null, "rodada0", 10).isEmpty());
+        assertEquals(List.of("m999", "m997", "m995"), index.search(null, "rodada2 impar", 3));
+        assertEquals(List.of("m998", "m994"), index.search("2@c.us", "comum", 2));
+        assertEquals(250, index.search("1@c.us", "rodada2", 1000).size());
+        assertTrue(errors.isEmpty());
+    }
+
+    private static byte[] messages(String... messages) {
+        return ("[" + String.join(",", messages) + "]").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String message(String id, String chatId, long timestamp, String body) {
+        return "{\"id\":{\"_serialized\":\"" + id + "\"},\"type\":\"chat\",\"from\":\"" + chatId + "\",\"t\":" + timestamp + ",\"body\":\"" + body + "\"}";
+    }
+}
@@ -0,0 +1,172 @@
+package br.com.zapia.wpp.client.docker;
+
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.handler.codec.http.HttpObjectAggregator;
+import io.netty.handler.codec.http.HttpServerCodec;
+import io.netty.handler.codec.http.websocketx.CloseWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.TextWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.WebSocketServerProtocolHandler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NettyWsConnectionTest {
+
+    private final RecordingListener listener = new RecordingListener();
+    private EventLoopGroup serverGroup;
+    private Channel serverChannel;
+    private WhatsAppRuntime runtime;
+    private URI uri;
+
+    @BeforeEach
+    void startServer() throws Exception {
+        serverGroup = new NioEventLoopGroup(1);
+        serverChannel = new ServerBootstrap()
+                .group(serverGroup)
+                .channel(NioServerSocketChannel.class)
+                .childHandler(new ChannelInitializer<SocketChannel>() {
+                    @Override
+                    protected void initChannel(SocketChannel socketChannel) {
+                        socketChannel.pipeline().addLast(
+                                new HttpServerCodec(),
+                                new HttpObjectAggregator(64 * 1024),
+                                new WebSocketServerProtocolHandler("/api/ws", null, false, 16 * 1024 * 1024),
+                                new EchoHandler());
+                    }
+                })
+                .bind("127.0.0.1", 0).sync().channel();
+        uri = URI.create("ws://127.0.0.1:" + ((InetSocketAddress) serverChannel.localAddress()).getPort() + "/api/ws");
+        runtime = new WhatsAppRuntime();
+    }
+
+    @AfterEach
+    void stopServer() {
+        runtime.close();
+        serverChannel.close();
+        serverGroup.shutdownGracefully(0, 1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void echoesBatchedFramesInOrder() throws Exception {
+        NettyWsConnection connection = new NettyWsConnection(uri, listener, runtime.getEventLoopGroup());
+
+        assertTrue(connection.connectBlocking(10, TimeUnit.SECONDS));
+        assertEquals("open", listener.next());
+        assertTrue(connection.isOpen());
+        assertEquals(((InetSocketAddress) serverChannel.localAddress()).getPort(), connection.getRemoteSocketAddress().getPort());
+
+        StringBuilder large = new StringBuilder();
+        for (int i = 0; i < 300000; i++) {
+            large.append((char) ('a' + i % 26));
+        }
+        ByteBuffer first = frame("first");
+        connection.sendTextFrames(List.of(first, frame("Olá, ação 😀"), frame(large.toString())));
+
+        assertEquals(0, first.position());
+        assertEquals("message:first", listener.next());
+        assertEquals("message:Olá, ação 😀", listener.next());
+        assertEquals("message:" + large, listener.next());
+
+        connection.close();
+
+        assertEquals("close:1000::false", listener.next());
+        assertFalse(connection.isOpen());
+        assertNull(listener.events.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void reportsServerCloseAsRemote() throws Exception {
+        NettyWsConnection connection = new NettyWsConnection(uri, listener, runtime.getEventLoopGroup());
+        assertTrue(connection.connectBlocking(10, TimeUnit.SECONDS));
+        assertEquals("open", listener.next());
+
+        connection.sendTextFrames(List.of(frame("close")));
+
+        assertEquals("close:4001:bye:true", listener.next());
+        assertFalse(connection.isOpen());
+    }
+
+    @Test
+    void failedConnectsReportErrorAndCloseOnce() throws Exception {
+        int port;
+        try (ServerSocket serverSocket = new ServerSocket(0)) {
+            port = serverSocket.getLocalPort();
+        }
+        NettyWsConnection connection = new NettyWsConnection(URI.create("ws://127.0.0.1:" + port + "/api/ws"), listener, runtime.getEventLoopGroup());
+
+        assertFalse(connection.connectBlocking(5, TimeUnit.SECONDS));
+
+        assertTrue(listener.next().startsWith("error:"));
+        assertTrue(listener.next().startsWith("close:-1:"));
+        assertFalse(connection.isOpen());
+        assertThrows(IllegalStateException.class, () -> connection.sendTextFrames(List.of(frame("late"))));
+        assertNull(listener.events.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    private static ByteBuffer frame(String text) {
+        return ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static class RecordingListener implements WsConnection.Listener {
+
+        private final BlockingQueue<String> events = new LinkedBlockingQueue<>();
+
+        private String next() throws InterruptedException {
+            String event = events.poll(10, TimeUnit.SECONDS);
+            assertNotNull(event);
+            return event;
+        }
+
+        @Override
+        public void onOpen() {
+            events.add("open");
+        }
+
+        @Override
+        public void onMessage(String message) {
+            events.add("message:" + message);
+        }
+
+        @Override
+        public void onClose(int code, String reason, boolean remote) {
+            events.add("close:" + code + ":" + reason + ":" + remote);
+        }
+
+        @Override
+        public void onError(Exception e) {
+            events.add("error:" + e);
+        }
+    }
+
+    private static class EchoHandler extends SimpleChannelInboundHandler<TextWebSocketFrame> {
+
+        @Override
+        protected void channelRead0(ChannelHandlerContext ctx, TextWebSocketFrame frame) {
+            if (frame.text().equals("close")) {
+                ctx.writeAndFlush(new CloseWebSocketFrame(4001, "bye"));
+                return;
+            }
+            ctx.writeAndFlush(new TextWebSocketFrame(frame.text()));
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package br.com.zapia.wpp.client.docker;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PhoneIndexTest {
+
+    private final PhoneIndex phoneIndex = new PhoneIndex();
+
+    @Test
+    void normalizesFormattedNumbers() {
+        phoneIndex.put("5511987654321@c.us");
+
+        assertEquals("5511987654321@c.us", phoneIndex.get("5511987654321"));
+        assertEquals("5511987654321@c.us", phoneIndex.get("+55 (11) 98765-4321"));
+        assertEquals("5511987654321@c.us", phoneIndex.get("55.11.98765.4321"));
+        assertEquals("5511987654321@c.us", phoneIndex.get("5511987654321@c.us"));
+        assertNull(phoneIndex.get("55 11 98765 432l"));
+        assertNull(phoneIndex.get(""));
+        assertNull(phoneIndex.get(null));
+    }
+
+    @Test
+    void resolvesBrazilianMobilesWithOrWithoutTheNinthDigit() {
+        phoneIndex.put("551187654321@c.us");
+        phoneIndex.put("5521998765432@c.us");
+
+        assertEquals("551187654321@c.us", phoneIndex.get("5511987654321"));
+        assertEquals("5521998765432@c.us", phoneIndex.get("552198765432"));
+        assertNull(phoneIndex.get("5511887654321"));
+    }
+
+    @Test
+    void ignoresIdsThatAreNotUsers() {
+        phoneIndex.put("5511987654321-1600000000@g.us");
+        phoneIndex.put("status@broadcast");
+        phoneIndex.put("1234567890123456789@c.us");
+
+        assertEquals(0, phoneIndex.size());
+    }
+
+    @Test
+    void removeKeepsProbeChainsIntact() {
+        for (int i = 0; i < 1000; i++) {
+            phoneIndex.put((5511900000000L + i) + "@c.us");
+        }
+        for (int i = 0; i < 1000; i += 2) {
+            phoneIndex.remove((5511900000000L + i) + "@c.us");
+        }
+
+        assertEquals(500, phoneIndex.size());
+        for (int i = 0; i < 1000; i++) {
+            String id = (5511900000000L + i) + "@c.us";
+            assertEquals(i % 2 == 0 ? null : id, phoneIndex.get(String.valueOf(5511900000000L + i)));
+        }
+    }
+
+    @Test
+    void removeIgnoresADifferentIdForTheSameNumber() {
+        phoneIndex.put("5511987654321@c.us");
+
+        phoneIndex.remove("005511987654321@c.us");
+
+        assertEquals("5511987654321@c.us", phoneIndex.get("5511987654321"));
+        phoneIndex.clear();
+        assertNull(phoneIndex.get("5511987654321"));
+        assertEquals(0, phoneIndex.size());
+    }
+}
@@ -0,0 +1,134 @@
+package br.com.zapia.wpp.client.docker;
+
+import br.com.zapia.wpp.api.model.handlersWebSocket.EventWebSocket;
+import io.netty.util.Timeout;
+import io.netty.util.Timer;
+import io.netty.util.TimerTask;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestDeadlinesTest {
+
+    private final RecordingTimer timer = new RecordingTimer();
+
+    @Test
+    void timesOutPendingRequests() {
+        RequestDeadlines requestDeadlines = new RequestDeadlines(Duration.ofMillis(50), Collections.emptyMap(), WhatsAppRuntime.sharedTimer());
+        CompletableFuture<Object> future = new CompletableFuture<>();
+
+        requestDeadlines.arm(future, EventWebSocket.FindChat, null);
+
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> future.get(10, TimeUnit.SECONDS));
+        assertTrue(exception.getCause() instanceof TimeoutException);
+        assertTrue(exception.getCause().getMessage().contains("FindChat"));
+    }
+
+    @Test
+    void completedRequestsCancelTheirTimeout() throws Exception {
+        RequestDeadlines requestDeadlines = new RequestDeadlines(Duration.ofSeconds(30), Collections.emptyMap(), timer);
+        CompletableFuture<Object> future = new CompletableFuture<>();
+
+        requestDeadlines.arm(future, EventWebSocket.FindChat, null);
+        assertEquals(1, timer.timeouts.size());
+        assertFalse(timer.timeouts.get(0).isCancelled());
+
+        future.complete("done");
+
+        assertTrue(timer.timeouts.get(0).isCancelled());
+        timer.timeouts.get(0).task().run(timer.timeouts.get(0));
+        assertEquals("done", future.get());
+    }
+
+    @Test
+    void requestTimeoutOverridesEventTimeoutWhichOverridesTheDefault() {
+        RequestDeadlines requestDeadlines = new RequestDeadlines(Duration.ofSeconds(30), Map.of(EventWebSocket.SendMessage, Duration.ofSeconds(120)), timer);
+
+        requestDeadlines.arm(new CompletableFuture<>(), EventWebSocket.FindChat, null);
+        requestDeadlines.arm(new CompletableFuture<>(), EventWebSocket.SendMessage, null);
+        requestDeadlines.arm(new CompletableFuture<>(), EventWebSocket.SendMessage, Duration.ofSeconds(5));
+
+        assertEquals(List.of(Duration.ofSeconds(30), Duration.ofSeconds(120), Duration.ofSeconds(5)), timer.delays);
+    }
+
+    @Test
+    void missingOrZeroTimeoutsDoNotArm() {
+        RequestDeadlines noDefault = new RequestDeadlines(null, Map.of(EventWebSocket.SendMessage, Duration.ZERO), timer);
+        RequestDeadlines withDefault = new RequestDeadlines(Duration.ofSeconds(30), Collections.emptyMap(), timer);
+
+        noDefault.arm(new CompletableFuture<>(), EventWebSocket.FindChat, null);
+        noDefault.arm(new CompletableFuture<>(), EventWebSocket.SendMessage, null);
+        withDefault.arm(new CompletableFuture<>(), EventWebSocket.FindChat, Duration.ZERO);
+        withDefault.arm(CompletableFuture.completedFuture("done"), EventWebSocket.FindChat, null);
+
+        assertTrue(timer.timeouts.isEmpty());
+    }
+
+    private static class RecordingTimer implements Timer {
+
+        private final List<RecordedTimeout> timeouts = new ArrayList<>();
+        private final List<Duration> delays = new ArrayList<>();
+
+        @Override
+        public Timeout newTimeout(TimerTask task, long delay, TimeUnit unit) {
+            RecordedTimeout timeout = new RecordedTimeout(this, task);
+            timeouts.add(timeout);
+            delays.add(Duration.ofNanos(unit.toNanos(delay)));
+            return timeout;
+        }
+
+        @Override
+        public Set<Timeout> stop() {
+            return Collections.emptySet();
+        }
+    }
+
+    private static class RecordedTimeout implements Timeout {
+
+        private final Timer timer;
+        private final TimerTask task;
+        private volatile boolean cancelled;
+
+        private RecordedTimeout(Timer timer, TimerTask task) {
+            this.timer = timer;
+            this.task = task;
+        }
+
+        @Override
+        public Timer timer() {
+            return timer;
+        }
+
+        @Override
+        public TimerTask task() {
+            return task;
+        }
+
+        @Override
+        public boolean isExpired() {
+            return false;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        @Override
+        public boolean cancel() {
+            cancelled = true;
+            return true;
+        }
+    }
+}
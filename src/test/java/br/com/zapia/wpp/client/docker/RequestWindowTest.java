@@ -0,0 +1,81 @@
+package br.com.zapia.wpp.client.docker;
+
+import br.com.zapia.wpp.api.model.handlersWebSocket.EventWebSocket;
+import br.com.zapia.wpp.client.docker.model.RequestOverflowPolicy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestWindowTest {
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "request-window-test"));
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void queuedSendRunsOnExecutorInsteadOfReleasingThread() throws Exception {
+        RequestWindow requestWindow = new RequestWindow(1, Collections.emptyMap(), RequestOverflowPolicy.QUEUE, executor);
+        CompletableFuture<Object> first = new CompletableFuture<>();
+        CompletableFuture<String> queuedSendThread = new CompletableFuture<>();
+
+        requestWindow.submit(EventWebSocket.FindChat, first, () -> {
+        });
+        requestWindow.submit(EventWebSocket.FindChat, new CompletableFuture<>(), () -> queuedSendThread.complete(Thread.currentThread().getName()));
+        assertEquals(1, requestWindow.getQueued());
+
+        Thread timer = new Thread(() -> first.complete(null), "timer");
+        timer.start();
+        timer.join();
+
+        assertEquals("request-window-test", queuedSendThread.get(5, TimeUnit.SECONDS));
+        assertEquals(0, requestWindow.getQueued());
+        assertEquals(1, requestWindow.getInFlight());
+    }
+
+    @Test
+    void rejectsOverflowWhenConfigured() {
+        RequestWindow requestWindow = new RequestWindow(0, Map.of(EventWebSocket.SendMessage, 1), RequestOverflowPolicy.REJECT, executor);
+        AtomicInteger sent = new AtomicInteger();
+        CompletableFuture<Object> rejected = new CompletableFuture<>();
+
+        requestWindow.submit(EventWebSocket.SendMessage, new CompletableFuture<>(), sent::incrementAndGet);
+        requestWindow.submit(EventWebSocket.SendMessage, rejected, sent::incrementAndGet);
+        requestWindow.submit(EventWebSocket.FindChat, new CompletableFuture<>(), sent::incrementAndGet);
+
+        assertEquals(2, sent.get());
+        CompletionException exception = assertThrows(CompletionException.class, rejected::join);
+        assertTrue(exception.getCause() instanceof RejectedExecutionException);
+        assertEquals(1, requestWindow.getInFlight(EventWebSocket.SendMessage));
+    }
+
+    @Test
+    void failsQueuedRequestWhenExecutorIsShutdown() {
+        RequestWindow requestWindow = new RequestWindow(1, Collections.emptyMap(), RequestOverflowPolicy.QUEUE, executor);
+        CompletableFuture<Object> first = new CompletableFuture<>();
+        CompletableFuture<Object> queued = new CompletableFuture<>();
+
+        requestWindow.submit(EventWebSocket.FindChat, first, () -> {
+        });
+        requestWindow.submit(EventWebSocket.FindChat, queued, () -> {
+        });
+        executor.shutdownNow();
+        first.complete(null);
+
+        CompletionException exception = assertThrows(CompletionException.class, queued::join);
+        assertTrue(exception.getCause() instanceof RejectedExecutionException);
+    }
+}
@@ -0,0 +1,94 @@
+package br.com.zapia.wpp.client.docker;
+
+import br.com.zapia.wpp.api.model.handlersWebSocket.EventWebSocket;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RetryPolicyTest {
+
+    @Test
+    void delaysAreJitteredWithinTheExponentialCap() {
+        RetryPolicy retryPolicy = RetryPolicy.builder()
+                .maxRetries(6)
+                .initialDelay(Duration.ofMillis(100))
+                .maxDelay(Duration.ofMillis(1000))
+                .maxElapsed(null)
+                .build();
+
+        long[] caps = {100, 200, 400, 800, 1000, 1000};
+        for (int retry = 1; retry <= caps.length; retry++) {
+            for (int i = 0; i < 200; i++) {
+                long delay = retryPolicy.nextDelayMillis(retry, 0);
+                assertTrue(delay >= 0 && delay <= caps[retry - 1], "retry " + retry + " delay " + delay);
+            }
+        }
+        assertEquals(-1, retryPolicy.nextDelayMillis(7, 0));
+    }
+
+    @Test
+    void stopsOnceTheElapsedBudgetWouldBeExceeded() {
+        RetryPolicy retryPolicy = RetryPolicy.builder()
+                .initialDelay(Duration.ofMillis(500))
+                .maxElapsed(Duration.ofSeconds(1))
+                .build();
+
+        assertEquals(-1, retryPolicy.nextDelayMillis(1, 1001));
+        for (int i = 0; i < 200; i++) {
+            assertTrue(retryPolicy.nextDelayMillis(1, 400) >= 0);
+        }
+    }
+
+    @Test
+    void noneNeverRetries() {
+        assertEquals(0, RetryPolicy.NONE.getMaxRetries());
+        assertEquals(-1, RetryPolicy.NONE.nextDelayMillis(1, 0));
+    }
+
+    @Test
+    void matchesConfiguredStatuses() {
+        RetryPolicy retryPolicy = RetryPolicy.builder().retryOnStatus(503).retryOnSendFailure(false).build();
+
+        assertTrue(retryPolicy.retriesStatus(503));
+        assertFalse(retryPolicy.retriesStatus(500));
+        assertFalse(retryPolicy.retriesSendFailure());
+        assertTrue(RetryPolicy.nonIdempotent().retriesStatus(429));
+        assertFalse(RetryPolicy.nonIdempotent().retriesStatus(500));
+    }
+
+    @Test
+    void onlyIdempotentLookupsAreReadOnly() {
+        assertTrue(EventCategories.isReadOnly(EventWebSocket.FindChat));
+        assertTrue(EventCategories.isReadOnly(EventWebSocket.GetAllContacts));
+        assertFalse(EventCategories.isReadOnly(EventWebSocket.LoadEarly));
+        assertFalse(EventCategories.isReadOnly(EventWebSocket.DownloadMedia));
+        assertFalse(EventCategories.isReadOnly(null));
+    }
+
+    @Test
+    void resolvesPolicyByEventThenDefaultThenCategory() {
+        RetryPolicies categories = new RetryPolicies(null, Collections.emptyMap());
+        EventWebSocket uncategorized = Arrays.stream(EventWebSocket.values())
+                .filter(event -> !EventCategories.isReadOnly(event) && !EventCategories.isNonIdempotent(event))
+                .findFirst()
+                .orElseThrow();
+
+        assertEquals(5, categories.forEvent(EventWebSocket.FindChat).getMaxRetries());
+        assertTrue(categories.forEvent(EventWebSocket.SendMessage).retriesStatus(429));
+        assertFalse(categories.forEvent(EventWebSocket.SendMessage).retriesStatus(500));
+        assertEquals(3, categories.forEvent(uncategorized).getMaxRetries());
+        assertEquals(3, categories.forEvent(EventWebSocket.DownloadMedia).getMaxRetries());
+        assertFalse(categories.forEvent(EventWebSocket.LoadEarly).retriesStatus(500));
+        assertEquals(3, categories.forEvent(null).getMaxRetries());
+
+        RetryPolicies configured = new RetryPolicies(RetryPolicy.NONE, Map.of(EventWebSocket.FindChat, RetryPolicy.standard()));
+
+        assertSame(RetryPolicy.NONE, configured.forEvent(EventWebSocket.SendMessage));
+        assertEquals(3, configured.forEvent(EventWebSocket.FindChat).getMaxRetries());
+    }
+}
@@ -0,0 +1,85 @@
+package br.com.zapia.wpp.client.docker;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+
+    @Test
+    void concurrentCallersShareOneExecution() throws Exception {
+        CompletableFuture<String> request = new CompletableFuture<>();
+        AtomicInteger calls = new AtomicInteger();
+
+        CompletableFuture<String> first = singleFlight.execute("chat", () -> {
+            calls.incrementAndGet();
+            return request;
+        });
+        CompletableFuture<String> second = singleFlight.execute("chat", () -> {
+            calls.incrementAndGet();
+            return CompletableFuture.completedFuture("other");
+        });
+        assertEquals(1, singleFlight.getInFlight());
+
+        request.complete("result");
+
+        assertEquals("result", first.get());
+        assertEquals("result", second.get());
+        assertEquals(1, calls.get());
+        assertEquals(1, singleFlight.getExecuted());
+        assertEquals(1, singleFlight.getDeduplicated());
+        assertEquals(0, singleFlight.getInFlight());
+    }
+
+    @Test
+    void completedFlightsAreNotReused() throws Exception {
+        assertEquals("a", singleFlight.execute("chat", () -> CompletableFuture.completedFuture("a")).get());
+        assertEquals("b", singleFlight.execute("chat", () -> CompletableFuture.completedFuture("b")).get());
+
+        assertEquals(2, singleFlight.getExecuted());
+        assertEquals(0, singleFlight.getDeduplicated());
+    }
+
+    @Test
+    void failuresReachEveryCallerAndClearTheKey() throws Exception {
+        CompletableFuture<String> request = new CompletableFuture<>();
+        CompletableFuture<String> first = singleFlight.execute("chat", () -> request);
+        CompletableFuture<String> second = singleFlight.execute("chat", () -> request);
+
+        request.completeExceptionally(new IllegalStateException("boom"));
+
+        assertSame(IllegalStateException.class, assertThrows(ExecutionException.class, first::get).getCause().getClass());
+        assertSame(IllegalStateException.class, assertThrows(ExecutionException.class, second::get).getCause().getClass());
+        assertEquals(0, singleFlight.getInFlight());
+        assertEquals("retry", singleFlight.execute("chat", () -> CompletableFuture.completedFuture("retry")).get());
+    }
+
+    @Test
+    void supplierExceptionsFailTheFlight() {
+        CompletableFuture<String> flight = singleFlight.execute("chat", () -> {
+            throw new IllegalArgumentException("bad");
+        });
+
+        assertSame(IllegalArgumentException.class, assertThrows(ExecutionException.class, flight::get).getCause().getClass());
+        assertEquals(0, singleFlight.getInFlight());
+    }
+
+    @Test
+    void cancellingOneCallerDoesNotCancelTheSharedRequest() throws Exception {
+        CompletableFuture<String> request = new CompletableFuture<>();
+        CompletableFuture<String> first = singleFlight.execute("chat", () -> request);
+        CompletableFuture<String> second = singleFlight.execute("chat", () -> request);
+
+        first.cancel(true);
+        request.complete("result");
+
+        assertTrue(first.isCancelled());
+        assertEquals("result", second.get());
+    }
+}
@@ -0,0 +1,141 @@
+package br.com.zapia.wpp.client.docker;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamPublisherTest {
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "stream-publisher-test"));
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void deliversOnExecutorInsteadOfProducerThread() throws Exception {
+        StreamPublisher<Integer> publisher = new StreamPublisher<>(executor, 4, source -> {
+            source.next(1);
+            source.next(2);
+            source.complete();
+        });
+        RecordingSubscriber subscriber = new RecordingSubscriber(Long.MAX_VALUE);
+
+        publisher.subscribe(subscriber);
+
+        assertTrue(subscriber.completed.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(1, 2), subscriber.items);
+        assertEquals(List.of("stream-publisher-test", "stream-publisher-test"), subscriber.threads);
+    }
+
+    @Test
+    void reportsSaturationAndAsksForMoreOnceDrained() throws Exception {
+        AtomicReference<StreamPublisher<Integer>> source = new AtomicReference<>();
+        AtomicInteger demanded = new AtomicInteger();
+        StreamPublisher<Integer> publisher = new StreamPublisher<>(executor, 2, source::set);
+        publisher.setOnDemand(demanded::incrementAndGet);
+        RecordingSubscriber subscriber = new RecordingSubscriber(0);
+        publisher.subscribe(subscriber);
+
+        source.get().next(1);
+        source.get().next(2);
+        assertTrue(publisher.isSaturated());
+        assertEquals(0, demanded.get());
+
+        subscriber.subscription.request(1);
+        assertTrue(subscriber.received(1));
+        executor.submit(() -> {
+        }).get(5, TimeUnit.SECONDS);
+        assertEquals(1, demanded.get());
+        assertFalse(publisher.isSaturated());
+    }
+
+    @Test
+    void cancelReleasesTheUnderlyingRequest() throws Exception {
+        CompletableFuture<Object> request = new CompletableFuture<>();
+        AtomicReference<StreamPublisher<Integer>> source = new AtomicReference<>();
+        StreamPublisher<Integer> publisher = new StreamPublisher<>(executor, 2, source::set);
+        RecordingSubscriber subscriber = new RecordingSubscriber(1);
+        publisher.subscribe(subscriber);
+        source.get().setOnCancel(() -> request.cancel(false));
+
+        subscriber.subscription.cancel();
+        source.get().next(1);
+
+        assertTrue(request.isCancelled());
+        assertTrue(source.get().isCancelled());
+        executor.submit(() -> {
+        }).get(5, TimeUnit.SECONDS);
+        assertTrue(subscriber.items.isEmpty());
+    }
+
+    @Test
+    void cancelBeforeSourceRegistersStillReleases() {
+        CompletableFuture<Object> request = new CompletableFuture<>();
+        StreamPublisher<Integer> publisher = new StreamPublisher<>(executor, 2, source -> source.setOnCancel(() -> request.cancel(false)));
+        RecordingSubscriber subscriber = new RecordingSubscriber(1);
+        publisher.subscribe(subscriber);
+
+        subscriber.subscription.cancel();
+
+        assertTrue(request.isCancelled());
+    }
+
+    private static class RecordingSubscriber implements Flow.Subscriber<Integer> {
+
+        private final long initialDemand;
+        private final List<Integer> items = new CopyOnWriteArrayList<>();
+        private final List<String> threads = new CopyOnWriteArrayList<>();
+        private final CountDownLatch completed = new CountDownLatch(1);
+        private volatile Flow.Subscription subscription;
+
+        private RecordingSubscriber(long initialDemand) {
+            this.initialDemand = initialDemand;
+        }
+
+        private boolean received(int count) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (items.size() < count && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            return items.size() >= count;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (initialDemand > 0) {
+                subscription.request(initialDemand);
+            }
+        }
+
+        @Override
+        public void onNext(Integer item) {
+            items.add(item);
+            threads.add(Thread.currentThread().getName());
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            completed.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            completed.countDown();
+        }
+    }
+}
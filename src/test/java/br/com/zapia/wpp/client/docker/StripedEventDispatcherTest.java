@@ -0,0 +1,126 @@
+package br.com.zapia.wpp.client.docker;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StripedEventDispatcherTest {
+
+    private final List<Throwable> errors = Collections.synchronizedList(new ArrayList<>());
+    private final ExecutorService executorService = Executors.newCachedThreadPool();
+    private final StripedEventDispatcher dispatcher = new StripedEventDispatcher(4, executorService, runnable -> runnable, errors::add);
+
+    @AfterEach
+    void shutdown() {
+        dispatcher.shutdown();
+        executorService.shutdownNow();
+    }
+
+    @Test
+    void keepsPerKeyOrderWhileDecodingInParallel() throws InterruptedException {
+        int keys = 8;
+        int eventsPerKey = 200;
+        CountDownLatch delivered = new CountDownLatch(keys * eventsPerKey);
+        Map<String, List<Integer>> received = new ConcurrentHashMap<>();
+        AtomicInteger decoding = new AtomicInteger();
+        AtomicInteger maxDecoding = new AtomicInteger();
+        List<Consumer<int[]>> listeners = List.of(event -> {
+            received.computeIfAbsent("chat-" + event[0], key -> Collections.synchronizedList(new ArrayList<>())).add(event[1]);
+            delivered.countDown();
+        });
+
+        for (int sequence = 0; sequence < eventsPerKey; sequence++) {
+            for (int key = 0; key < keys; key++) {
+                int[] event = {key, sequence};
+                dispatcher.submit(() -> {
+                    maxDecoding.accumulateAndGet(decoding.incrementAndGet(), Math::max);
+                    LockSupport.parkNanos(ThreadLocalRandom.current().nextLong(20_000, 200_000));
+                    decoding.decrementAndGet();
+                    dispatcher.deliver("chat-" + event[0], listeners, event);
+                });
+            }
+        }
+
+        assertTrue(delivered.await(30, TimeUnit.SECONDS));
+        assertTrue(errors.isEmpty());
+        assertTrue(maxDecoding.get() > 1, "decoding should run on more than one worker");
+        for (List<Integer> sequences : received.values()) {
+            for (int i = 0; i < sequences.size(); i++) {
+                assertEquals(i, sequences.get(i));
+            }
+        }
+    }
+
+    @Test
+    void runsOnTheGivenExecutorWithBoundedParallelism() throws InterruptedException {
+        int tasks = 64;
+        CountDownLatch done = new CountDownLatch(tasks);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        AtomicInteger executed = new AtomicInteger();
+        StripedEventDispatcher bounded = new StripedEventDispatcher(2, runnable -> {
+            executed.incrementAndGet();
+            executorService.execute(runnable);
+        }, runnable -> runnable, errors::add);
+
+        for (int i = 0; i < tasks; i++) {
+            bounded.submit(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+                running.decrementAndGet();
+                done.countDown();
+            });
+        }
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertTrue(maxRunning.get() <= 2, "running " + maxRunning.get());
+        assertTrue(executed.get() > 0);
+        assertTrue(errors.isEmpty());
+        bounded.shutdown();
+    }
+
+    @Test
+    void runsSequencedActionsInSubmissionOrder() throws InterruptedException {
+        List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(1);
+
+        dispatcher.submit(() -> {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(50));
+            dispatcher.sequence(() -> order.add(1));
+        });
+        dispatcher.submit(() -> dispatcher.sequence(() -> order.add(2)));
+        dispatcher.sequence(() -> order.add(3));
+        dispatcher.submit(() -> dispatcher.sequence(done::countDown));
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(1, 2, 3), order);
+    }
+
+    @Test
+    void reportsFailingTaskAndKeepsReleasingLaterEvents() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(1);
+
+        dispatcher.submit(() -> {
+            throw new IllegalStateException("decode failed");
+        });
+        dispatcher.submit(() -> dispatcher.deliver("chat", List.<Consumer<String>>of(event -> done.countDown()), "event"));
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(1, errors.size());
+    }
+}
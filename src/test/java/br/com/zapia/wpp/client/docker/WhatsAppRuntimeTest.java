@@ -0,0 +1,84 @@
+package br.com.zapia.wpp.client.docker;
+
+import io.netty.channel.EventLoopGroup;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WhatsAppRuntimeTest {
+
+    @Test
+    void shutsDownOnlyWhenTheLastReferenceIsReleased() {
+        WhatsAppRuntime runtime = new WhatsAppRuntime();
+        assertSame(runtime, runtime.retain());
+        assertEquals(2, runtime.getReferenceCount());
+
+        assertFalse(runtime.release());
+        assertFalse(runtime.isShutdown());
+        assertFalse(runtime.getExecutorService().isShutdown());
+
+        runtime.close();
+
+        assertTrue(runtime.isShutdown());
+        assertTrue(runtime.getExecutorService().isShutdown());
+        assertTrue(runtime.getScheduledExecutorService().isShutdown());
+        assertThrows(IllegalStateException.class, runtime::retain);
+        assertThrows(IllegalStateException.class, runtime::release);
+        assertEquals(0, runtime.getReferenceCount());
+    }
+
+    @Test
+    void sharedRuntimeIsReusedUntilReleasedAndThenReplaced() {
+        WhatsAppRuntime first = WhatsAppRuntime.shared(false);
+        WhatsAppRuntime second = WhatsAppRuntime.shared(false);
+
+        assertSame(first, second);
+        assertEquals(2, first.getReferenceCount());
+
+        first.release();
+        second.release();
+        WhatsAppRuntime third = WhatsAppRuntime.shared(false);
+
+        assertTrue(first.isShutdown());
+        assertNotSame(first, third);
+        assertEquals(1, third.getReferenceCount());
+        third.close();
+    }
+
+    @Test
+    void everyRuntimeUsesTheProcessWideTimer() {
+        WhatsAppRuntime first = new WhatsAppRuntime();
+        WhatsAppRuntime second = new WhatsAppRuntime();
+
+        assertSame(first.getTimer(), second.getTimer());
+
+        first.close();
+        second.close();
+
+        assertSame(WhatsAppRuntime.sharedTimer(), second.getTimer());
+    }
+
+    @Test
+    void eventLoopGroupIsCreatedOnceAndShutdownWithTheRuntime() throws Exception {
+        WhatsAppRuntime runtime = new WhatsAppRuntime();
+        EventLoopGroup eventLoopGroup = runtime.getEventLoopGroup();
+
+        assertSame(eventLoopGroup, runtime.getEventLoopGroup());
+
+        runtime.close();
+
+        assertTrue(eventLoopGroup.awaitTermination(10, TimeUnit.SECONDS));
+        assertThrows(IllegalStateException.class, runtime::getEventLoopGroup);
+    }
+
+    @Test
+    void virtualThreadsRejectACustomThreadFactory() {
+        Assumptions.assumeTrue(WhatsAppRuntime.isVirtualThreadsSupported());
+
+        assertThrows(IllegalArgumentException.class, () -> new WhatsAppRuntime(2, Thread::new, true));
+        new WhatsAppRuntime(2, WhatsAppRuntime.DEFAULT_THREAD_FACTORY, true).close();
+    }
+}
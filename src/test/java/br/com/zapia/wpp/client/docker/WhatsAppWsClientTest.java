@@ -0,0 +1,109 @@
+package br.com.zapia.wpp.client.docker;
+
+import br.com.zapia.wpp.client.docker.model.Chat;
+import br.com.zapia.wpp.client.docker.model.Message;
+import br.com.zapia.wpp.client.docker.model.WsTransport;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.DeflaterOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WhatsAppWsClientTest {
+
+    private final List<Throwable> errors = Collections.synchronizedList(new ArrayList<>());
+    private final WhatsAppRuntime runtime = new WhatsAppRuntime();
+    private final WhatsAppClient whatsAppClient = new WhatsAppClient(new WebSocketConfig("localhost", 1, WsTransport.JAVA_WEBSOCKET), null, null, null, errors::add, null, null, null, null, null, runnable -> runnable, callable -> callable, WhatsAppRuntime.DEFAULT_THREAD_FACTORY, new WhatsAppClientOptions().runtime(runtime));
+    private final WhatsAppWsClient whatsAppWsClient = new WhatsAppWsClient(URI.create("ws://localhost:1/api/ws"), whatsAppClient, null, null, null, errors::add, null, null, null, null, runnable -> runnable, callable -> callable, WhatsAppRuntime.DEFAULT_THREAD_FACTORY, runtime.getExecutorService(), runtime.getScheduledExecutorService(), WsTransport.JAVA_WEBSOCKET);
+
+    @AfterEach
+    void shutdown() {
+        whatsAppClient.shutdown().join();
+        runtime.close();
+    }
+
+    @Test
+    void messageEventsAreParsedOnceAndSharedByEveryListener() throws Exception {
+        int listeners = 5;
+        CountDownLatch received = new CountDownLatch(listeners);
+        List<List<Message>> deliveries = Collections.synchronizedList(new ArrayList<>());
+        for (int i = 0; i < listeners; i++) {
+            whatsAppWsClient.addNewMessageListener(messages -> {
+                deliveries.add(messages);
+                received.countDown();
+            });
+        }
+
+        whatsAppWsClient.onMessage("new-msg," + zlib("[{\"id\":\"m1\",\"type\":\"chat\",\"body\":\"first\",\"from\":\"a@c.us\"},{\"id\":\"m2\",\"type\":\"image\",\"from\":\"a@c.us\"}]"));
+
+        assertTrue(received.await(10, TimeUnit.SECONDS));
+        List<Message> messages = deliveries.get(0);
+        assertEquals(2, messages.size());
+        assertEquals("first", messages.get(0).getBody());
+        for (List<Message> delivery : deliveries) {
+            assertSame(messages, delivery);
+        }
+        assertThrows(UnsupportedOperationException.class, () -> messages.add(messages.get(0)));
+        assertTrue(errors.isEmpty());
+    }
+
+    @Test
+    void chatEventsAreParsedOnceAndSharedByEveryListener() throws Exception {
+        int listeners = 3;
+        CountDownLatch received = new CountDownLatch(listeners);
+        List<Chat> deliveries = Collections.synchronizedList(new ArrayList<>());
+        for (int i = 0; i < listeners; i++) {
+            whatsAppWsClient.addNewChatListener(chat -> {
+                deliveries.add(chat);
+                received.countDown();
+            });
+        }
+
+        whatsAppWsClient.onMessage("new-chat," + zlib("{\"id\":\"a@c.us\",\"kind\":\"chat\",\"formattedTitle\":\"chat\"}"));
+
+        assertTrue(received.await(10, TimeUnit.SECONDS));
+        assertEquals("a@c.us", deliveries.get(0).getId());
+        for (Chat chat : deliveries) {
+            assertSame(deliveries.get(0), chat);
+        }
+    }
+
+    @Test
+    void malformedEventsAreReportedOnce() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            whatsAppWsClient.addNewMessageListener(messages -> fail("unexpected delivery"));
+        }
+
+        whatsAppWsClient.onMessage("new-msg," + zlib("{\"id\":"));
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (errors.isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        Thread.sleep(100);
+        assertEquals(1, errors.size());
+        assertTrue(errors.get(0) instanceof IOException);
+    }
+
+    private static String zlib(String value) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream outputStream = new DeflaterOutputStream(bytes)) {
+            outputStream.write(value.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return Base64.getEncoder().encodeToString(bytes.toByteArray());
+    }
+}
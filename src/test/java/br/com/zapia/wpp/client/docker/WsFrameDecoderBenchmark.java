@@ -0,0 +1,110 @@
+package br.com.zapia.wpp.client.docker;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import utils.Utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.DeflaterOutputStream;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-XX:+UseParallelGC"})
+public class WsFrameDecoderBenchmark {
+
+    @Param({"1", "64"})
+    private int messages;
+
+    private ObjectMapper objectMapper;
+    private WsFrameDecoder frameDecoder;
+    private String eventFrame;
+    private String responseFrame;
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(WsFrameDecoderBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+
+    @Setup
+    public void setup() throws IOException {
+        objectMapper = new ObjectMapper();
+        frameDecoder = new WsFrameDecoder();
+        var json = new StringBuilder("[");
+        for (int i = 0; i < messages; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"id\":{\"_serialized\":\"false_554499999999@c.us_3EB0").append(i).append("\"},")
+                    .append("\"type\":\"chat\",\"from\":\"554499999999@c.us\",\"t\":1672531200,\"isNew\":true,")
+                    .append("\"body\":\"Olá, tudo bem? Mensagem de teste número ").append(i).append("\"}");
+        }
+        json.append(']');
+        var compressed = compress(json.toString());
+        eventFrame = "new-msg," + compressed;
+        responseFrame = UUID.randomUUID() + "," + compress("{\"status\":200,\"response\":" + json + "}");
+    }
+
+    @TearDown
+    public void tearDown() {
+        frameDecoder.close();
+    }
+
+    @Benchmark
+    public JsonNode legacyEvent() throws IOException {
+        String[] split = eventFrame.split(",", 2);
+        split[1] = Utils.decompressB64(split[1]);
+        return objectMapper.readTree(split[1]);
+    }
+
+    @Benchmark
+    public JsonNode decoderEvent() throws IOException {
+        frameDecoder.decode(eventFrame);
+        try {
+            return objectMapper.readTree(frameDecoder.copyPayload());
+        } finally {
+            frameDecoder.release();
+        }
+    }
+
+    @Benchmark
+    public JsonNode legacyResponse() throws IOException {
+        String[] split = responseFrame.split(",", 2);
+        split[1] = Utils.decompressB64(split[1]);
+        UUID.fromString(split[0]);
+        return objectMapper.readTree(split[1]);
+    }
+
+    @Benchmark
+    public JsonNode decoderResponse() throws IOException {
+        frameDecoder.decode(responseFrame);
+        try {
+            frameDecoder.getTag();
+            return frameDecoder.readPayloadTree(objectMapper);
+        } finally {
+            frameDecoder.release();
+        }
+    }
+
+    private static String compress(String value) throws IOException {
+        var outputStream = new ByteArrayOutputStream();
+        try (var deflaterOutputStream = new DeflaterOutputStream(outputStream)) {
+            deflaterOutputStream.write(value.getBytes(StandardCharsets.UTF_8));
+        }
+        return Base64.getEncoder().encodeToString(outputStream.toByteArray());
+    }
+}
@@ -0,0 +1,121 @@
+package br.com.zapia.wpp.client.docker;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.UUID;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WsFrameDecoderTest {
+
+    private static final String JSON = "{\"body\":\"Olá, ação\",\"values\":[1,2,3]}";
+
+    private final WsFrameDecoder decoder = new WsFrameDecoder();
+
+    @AfterEach
+    void close() {
+        decoder.close();
+    }
+
+    @Test
+    void decodesResponseFramesInEveryCompressionFormat() throws IOException {
+        UUID tag = UUID.randomUUID();
+        for (String payload : new String[]{zlib(JSON), rawDeflate(JSON), gzip(JSON)}) {
+            decoder.decode(tag + "," + payload);
+
+            assertNull(decoder.getName());
+            assertEquals(tag, decoder.getTag());
+            assertEquals(JSON, decoder.payloadAsString());
+            assertArrayEquals(JSON.getBytes(StandardCharsets.UTF_8), decoder.copyPayload());
+        }
+    }
+
+    @Test
+    void decodesEventFramesWithAndWithoutPayload() throws IOException {
+        decoder.decode("new-msg," + zlib(JSON));
+
+        assertEquals("new-msg", decoder.getName());
+        JsonNode jsonNode = decoder.readPayloadTree(new ObjectMapper());
+        assertEquals("Olá, ação", jsonNode.get("body").asText());
+
+        decoder.decode("disconnect");
+
+        assertEquals("disconnect", decoder.getName());
+        assertFalse(decoder.hasPayload());
+        assertNull(decoder.payloadAsString());
+    }
+
+    @Test
+    void reusesBuffersAcrossLargeAndSmallFrames() throws IOException {
+        StringBuilder large = new StringBuilder();
+        for (int i = 0; i < 100000; i++) {
+            large.append("chunk").append(i);
+        }
+
+        decoder.decode("error," + zlib(large.toString()));
+        assertEquals(large.toString(), decoder.payloadAsString());
+        decoder.release();
+
+        decoder.decode("update-msg," + zlib(JSON).replace('+', '-').replace('/', '_').replace("=", ""));
+        assertEquals(JSON, decoder.payloadAsString());
+    }
+
+    @Test
+    void rejectsMalformedFrames() {
+        assertThrows(IOException.class, () -> decoder.decode("new-msg,ab$d"));
+        String truncated = zlib(JSON);
+        assertThrows(ZipException.class, () -> decoder.decode("new-msg," + truncated.substring(0, truncated.length() / 2)));
+        byte[] raw = Base64.getDecoder().decode(rawDeflate(JSON));
+        String rawTruncated = Base64.getEncoder().encodeToString(Arrays.copyOf(raw, raw.length / 2));
+        assertEquals("Truncated compressed frame", assertThrows(ZipException.class, () -> decoder.decode("new-msg," + rawTruncated)).getMessage());
+    }
+
+    @Test
+    void parsesUuidsLikeUuidFromString() {
+        UUID tag = UUID.randomUUID();
+
+        assertEquals(tag, WsFrameDecoder.parseUuid(tag + ",payload", 36));
+        assertEquals(UUID.fromString("1-2-3-4-5"), WsFrameDecoder.parseUuid("1-2-3-4-5", 9));
+        assertThrows(IllegalArgumentException.class, () -> WsFrameDecoder.parseUuid("zzzzzzzz-zzzz-zzzz-zzzz-zzzzzzzzzzzz", 36));
+    }
+
+    private static String zlib(String value) {
+        return compress(value, DeflaterOutputStream::new);
+    }
+
+    private static String rawDeflate(String value) {
+        return compress(value, outputStream -> new DeflaterOutputStream(outputStream, new Deflater(Deflater.DEFAULT_COMPRESSION, true)));
+    }
+
+    private static String gzip(String value) {
+        return compress(value, GZIPOutputStream::new);
+    }
+
+    private static String compress(String value, Compressor compressor) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream outputStream = compressor.wrap(bytes)) {
+            outputStream.write(value.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return Base64.getEncoder().encodeToString(bytes.toByteArray());
+    }
+
+    private interface Compressor {
+
+        OutputStream wrap(OutputStream outputStream) throws IOException;
+    }
+}
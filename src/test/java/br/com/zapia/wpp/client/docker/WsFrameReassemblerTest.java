@@ -0,0 +1,144 @@
+package br.com.zapia.wpp.client.docker;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WsFrameReassemblerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void parsesOneBasedFramesAsTheyArrive() throws IOException {
+        List<JsonNode> elements = new ArrayList<>();
+        WsFrameReassembler reassembler = new WsFrameReassembler(objectMapper, JsonNodeFactory.instance, 1, 3, elements::add);
+
+        assertFalse(reassembler.add(1, "[{\"id\":1},"));
+        assertEquals(1, elements.size());
+        assertFalse(reassembler.add(2, "{\"id\":2},"));
+        assertEquals(2, elements.size());
+        assertTrue(reassembler.add(3, "{\"id\":3}]"));
+
+        assertEquals(3, elements.size());
+        assertEquals(3, elements.get(2).get("id").asInt());
+    }
+
+    @Test
+    void holdsFramesWhileConsumerIsSaturated() throws IOException {
+        List<JsonNode> elements = new ArrayList<>();
+        boolean[] saturated = {false};
+        WsFrameReassembler reassembler = new WsFrameReassembler(objectMapper, JsonNodeFactory.instance, 1, 3, elements::add, () -> saturated[0]);
+
+        assertFalse(reassembler.add(1, "[{\"id\":1},"));
+        saturated[0] = true;
+        assertFalse(reassembler.add(2, "{\"id\":2},"));
+        assertFalse(reassembler.add(3, "{\"id\":3}]"));
+        assertEquals(1, elements.size());
+        assertFalse(reassembler.resume());
+
+        saturated[0] = false;
+        assertTrue(reassembler.resume());
+        assertEquals(3, elements.size());
+        assertFalse(reassembler.resume());
+    }
+
+    @Test
+    void reordersFramesArrivingOutOfOrder() throws IOException {
+        WsFrameReassembler reassembler = new WsFrameReassembler(objectMapper, JsonNodeFactory.instance, 1, 3);
+
+        assertFalse(reassembler.add(3, "3]}"));
+        assertFalse(reassembler.add(1, "{\"values\":[1,"));
+        assertTrue(reassembler.add(2, "2,"));
+
+        assertEquals(objectMapper.readTree("{\"values\":[1,2,3]}"), reassembler.getResponse());
+    }
+
+    @Test
+    void ignoresDuplicatedFrames() throws IOException {
+        WsFrameReassembler reassembler = new WsFrameReassembler(objectMapper, JsonNodeFactory.instance, 1, 2);
+
+        assertFalse(reassembler.add(1, "{\"name\":"));
+        assertFalse(reassembler.add(1, "{\"name\":"));
+        assertTrue(reassembler.add(2, "\"zapia\"}"));
+
+        assertEquals("zapia", ((JsonNode) reassembler.getResponse()).get("name").asText());
+    }
+
+    @Test
+    void joinsSurrogatePairSplitAcrossFrames() throws IOException {
+        String text = "oi 😀";
+        String json = "{\"body\":\"" + text + "\"}";
+        int split = json.indexOf('\uD83D') + 1;
+        WsFrameReassembler reassembler = new WsFrameReassembler(objectMapper, JsonNodeFactory.instance, 1, 2);
+
+        assertFalse(reassembler.add(1, json.substring(0, split)));
+        assertTrue(reassembler.add(2, json.substring(split)));
+
+        assertEquals(text, ((JsonNode) reassembler.getResponse()).get("body").asText());
+    }
+
+    @Test
+    void concatenatesPlainTextFrames() throws IOException {
+        WsFrameReassembler reassembler = new WsFrameReassembler(objectMapper, JsonNodeFactory.instance, 0, 2);
+
+        assertFalse(reassembler.add(0, "file-"));
+        assertTrue(reassembler.add(1, "key"));
+
+        assertEquals("file-key", reassembler.getResponse());
+    }
+
+    @Test
+    void learnsZeroBasedFramesFromTheFirstFrame() throws IOException {
+        List<JsonNode> elements = new ArrayList<>();
+        WsFrameReassembler reassembler = new WsFrameReassembler(objectMapper, JsonNodeFactory.instance, WsFrameReassembler.UNKNOWN_FIRST_FRAME_ID, 3, elements::add);
+
+        assertFalse(reassembler.add(0, "[{\"id\":0},"));
+        assertEquals(0, reassembler.getFirstFrameId());
+        assertEquals(1, elements.size());
+        assertFalse(reassembler.add(2, "{\"id\":2}]"));
+        assertTrue(reassembler.add(1, "{\"id\":1},"));
+
+        assertEquals(3, elements.size());
+        assertEquals(2, elements.get(2).get("id").asInt());
+    }
+
+    @Test
+    void learnsOneBasedFramesFromTheLastFrame() throws IOException {
+        WsFrameReassembler reassembler = new WsFrameReassembler(objectMapper, JsonNodeFactory.instance, WsFrameReassembler.UNKNOWN_FIRST_FRAME_ID, 3);
+
+        assertFalse(reassembler.add(1, "{\"values\":[1,"));
+        assertFalse(reassembler.add(2, "2,"));
+        assertEquals(WsFrameReassembler.UNKNOWN_FIRST_FRAME_ID, reassembler.getFirstFrameId());
+        assertTrue(reassembler.add(3, "3]}"));
+
+        assertEquals(1, reassembler.getFirstFrameId());
+        assertEquals(objectMapper.readTree("{\"values\":[1,2,3]}"), reassembler.getResponse());
+    }
+
+    @Test
+    void rejectsFrameOutsideOfRange() throws IOException {
+        WsFrameReassembler oneBased = new WsFrameReassembler(objectMapper, JsonNodeFactory.instance, 1, 2);
+        WsFrameReassembler unknown = new WsFrameReassembler(objectMapper, JsonNodeFactory.instance, WsFrameReassembler.UNKNOWN_FIRST_FRAME_ID, 2);
+
+        assertThrows(IOException.class, () -> oneBased.add(0, "{"));
+        assertThrows(IOException.class, () -> oneBased.add(3, "}"));
+        assertThrows(IOException.class, () -> unknown.add(-1, "{"));
+        assertFalse(unknown.add(0, "{"));
+        assertThrows(IOException.class, () -> unknown.add(2, "}"));
+    }
+
+    @Test
+    void failsOnIncompleteJson() throws IOException {
+        WsFrameReassembler reassembler = new WsFrameReassembler(objectMapper, JsonNodeFactory.instance, 1, 2);
+
+        assertFalse(reassembler.add(1, "{\"a\":"));
+        assertThrows(IOException.class, () -> reassembler.add(2, "[1,2"));
+    }
+}
@@ -0,0 +1,173 @@
+package br.com.zapia.wpp.client.docker;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WsFrameWriterTest {
+
+    private final List<Runnable> tasks = Collections.synchronizedList(new ArrayList<>());
+
+    @Test
+    void sendsDirectlyWhenIdle() {
+        List<List<ByteBuffer>> batches = new ArrayList<>();
+        WsFrameWriter frameWriter = new WsFrameWriter(frames -> batches.add(new ArrayList<>(frames)), tasks::add);
+        ByteBuffer frame = frame("first");
+
+        frameWriter.write(frame, e -> fail(e));
+
+        assertEquals(1, batches.size());
+        assertEquals(1, batches.get(0).size());
+        assertSame(frame, batches.get(0).get(0));
+        assertTrue(tasks.isEmpty());
+    }
+
+    @Test
+    void queuesCopiesWhileSendingAndDrainsThemInBatches() throws Exception {
+        BlockingSink sink = new BlockingSink();
+        WsFrameWriter frameWriter = new WsFrameWriter(sink, tasks::add);
+        Thread first = new Thread(() -> frameWriter.write(frame("first"), e -> fail(e)));
+        first.start();
+        assertTrue(sink.sending.await(10, TimeUnit.SECONDS));
+
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 1100; i++) {
+            ByteBuffer frame = frame("frame-" + i);
+            frameWriter.write(frame, e -> fail(e));
+            frame.put(0, (byte) 'X');
+            expected.add("frame-" + i);
+        }
+        sink.release.countDown();
+        first.join(10000);
+
+        assertEquals(1, tasks.size());
+        tasks.remove(0).run();
+        assertEquals(1 + 16, sink.batches.size());
+        assertEquals(1, tasks.size());
+        tasks.remove(0).run();
+        assertTrue(tasks.isEmpty());
+
+        List<String> sent = new ArrayList<>();
+        for (List<String> batch : sink.batches.subList(1, sink.batches.size())) {
+            assertTrue(batch.size() <= 64);
+            sent.addAll(batch);
+        }
+        assertEquals(expected, sent);
+    }
+
+    @Test
+    void failuresAreReportedToEveryFrameOfTheBatch() throws Exception {
+        BlockingSink sink = new BlockingSink();
+        sink.failure = new IOException("closed");
+        WsFrameWriter frameWriter = new WsFrameWriter(sink, Runnable::run);
+        List<Exception> failures = Collections.synchronizedList(new ArrayList<>());
+        Thread first = new Thread(() -> frameWriter.write(frame("first"), failures::add));
+        first.start();
+        assertTrue(sink.sending.await(10, TimeUnit.SECONDS));
+
+        for (int i = 0; i < 3; i++) {
+            frameWriter.write(frame("frame-" + i), failures::add);
+        }
+        sink.release.countDown();
+        first.join(10000);
+
+        assertEquals(4, failures.size());
+        for (Exception failure : failures) {
+            assertSame(sink.failure, failure);
+        }
+    }
+
+    @Test
+    void concurrentProducersNeverOverlapAndKeepTheirOrder() throws Exception {
+        int producers = 8;
+        int framesPerProducer = 2000;
+        AtomicInteger inSink = new AtomicInteger();
+        AtomicInteger overlaps = new AtomicInteger();
+        CountDownLatch delivered = new CountDownLatch(producers * framesPerProducer);
+        Map<Integer, List<Integer>> received = new HashMap<>();
+        ExecutorService executorService = Executors.newFixedThreadPool(producers + 1);
+        try {
+            WsFrameWriter frameWriter = new WsFrameWriter(frames -> {
+                if (inSink.incrementAndGet() != 1) {
+                    overlaps.incrementAndGet();
+                }
+                for (ByteBuffer frame : frames) {
+                    String[] parts = StandardCharsets.UTF_8.decode(frame.duplicate()).toString().split(":");
+                    received.computeIfAbsent(Integer.parseInt(parts[0]), integer -> new ArrayList<>()).add(Integer.parseInt(parts[1]));
+                    delivered.countDown();
+                }
+                inSink.decrementAndGet();
+            }, executorService);
+            CountDownLatch start = new CountDownLatch(1);
+            for (int producer = 0; producer < producers; producer++) {
+                int id = producer;
+                executorService.execute(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    for (int i = 0; i < framesPerProducer; i++) {
+                        frameWriter.write(frame(id + ":" + i), e -> fail(e));
+                    }
+                });
+            }
+            start.countDown();
+
+            assertTrue(delivered.await(30, TimeUnit.SECONDS));
+            assertEquals(0, overlaps.get());
+            for (int producer = 0; producer < producers; producer++) {
+                List<Integer> sequence = received.get(producer);
+                assertEquals(framesPerProducer, sequence.size());
+                for (int i = 0; i < framesPerProducer; i++) {
+                    assertEquals(i, sequence.get(i));
+                }
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    private static ByteBuffer frame(String text) {
+        return ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static class BlockingSink implements WsFrameWriter.FrameBatchSink {
+
+        private final CountDownLatch sending = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final List<List<String>> batches = Collections.synchronizedList(new ArrayList<>());
+        private Exception failure;
+
+        @Override
+        public void send(List<ByteBuffer> frames) throws Exception {
+            List<String> batch = new ArrayList<>();
+            for (ByteBuffer frame : frames) {
+                batch.add(StandardCharsets.UTF_8.decode(frame.duplicate()).toString());
+            }
+            batches.add(batch);
+            if (sending.getCount() > 0) {
+                sending.countDown();
+                release.await();
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+}
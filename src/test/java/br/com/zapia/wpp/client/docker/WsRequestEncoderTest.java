@@ -0,0 +1,82 @@
+package br.com.zapia.wpp.client.docker;
+
+import br.com.zapia.wpp.api.model.handlersWebSocket.EventWebSocket;
+import br.com.zapia.wpp.api.model.payloads.FindPictureRequest;
+import br.com.zapia.wpp.api.model.payloads.WebSocketRequest;
+import br.com.zapia.wpp.api.model.payloads.WebSocketRequestPayLoad;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WsRequestEncoderTest {
+
+    private final ObjectMapper baselineMapper = new ObjectMapper();
+    private final WsRequestEncoder encoder = new WsRequestEncoder(WhatsAppRuntime.newObjectMapper());
+
+    @Test
+    void encodesLikeTheBaselineTwoPassSerialization() throws IOException {
+        FindPictureRequest findPictureRequest = new FindPictureRequest();
+        findPictureRequest.setId("554499999999@c.us");
+        findPictureRequest.setFull(true);
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("text", "Olá \"mundo\"\n\t\\ 😀 \uD800 </script>");
+        map.put("numbers", List.of(1, 2.5, -3L));
+        map.put("nested", Map.of("empty", ""));
+        map.put("nothing", null);
+
+        for (Object payload : new Object[]{"554499999999@c.us", "", "{\"already\":\"json\"}", findPictureRequest, map, List.of("a", "b"), 42, true, null}) {
+            assertArrayEquals(baseline("tag-1", EventWebSocket.FindChat, payload), encode("tag-1", EventWebSocket.FindChat, payload), "payload " + payload);
+        }
+    }
+
+    @Test
+    void reusesBuffersWithoutLeakingPreviousFrames() throws IOException {
+        StringBuilder large = new StringBuilder();
+        for (int i = 0; i < 200000; i++) {
+            large.append('x');
+        }
+        Map<String, Object> big = Map.of("body", large.toString());
+
+        assertArrayEquals(baseline("big", EventWebSocket.SendMessage, big), encode("big", EventWebSocket.SendMessage, big));
+        assertArrayEquals(baseline("small", EventWebSocket.FindChat, Map.of("id", "a")), encode("small", EventWebSocket.FindChat, Map.of("id", "a")));
+        assertArrayEquals(baseline("string", EventWebSocket.FindChat, "a"), encode("string", EventWebSocket.FindChat, "a"));
+    }
+
+    private byte[] encode(String tag, EventWebSocket event, Object payload) throws IOException {
+        List<byte[]> frames = new ArrayList<>();
+        encoder.encode(request(tag, event, payload), frame -> {
+            byte[] bytes = new byte[frame.remaining()];
+            frame.get(bytes);
+            frames.add(bytes);
+        });
+        assertEquals(1, frames.size());
+        return frames.get(0);
+    }
+
+    private byte[] baseline(String tag, EventWebSocket event, Object payload) throws IOException {
+        WebSocketRequest webSocketRequest = request(tag, event, payload);
+        WebSocketRequestPayLoad payLoad = webSocketRequest.getWebSocketRequestPayLoad();
+        if (payLoad.getPayload() != null && !(payLoad.getPayload() instanceof String)) {
+            payLoad.setPayload(baselineMapper.writeValueAsString(payLoad.getPayload()));
+        }
+        return baselineMapper.writeValueAsString(webSocketRequest).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static WebSocketRequest request(String tag, EventWebSocket event, Object payload) {
+        WebSocketRequestPayLoad payLoad = new WebSocketRequestPayLoad();
+        payLoad.setEvent(event);
+        payLoad.setPayload(payload);
+        WebSocketRequest webSocketRequest = new WebSocketRequest();
+        webSocketRequest.setTag(tag);
+        webSocketRequest.setWebSocketRequestPayLoad(payLoad);
+        return webSocketRequest;
+    }
+}
@@ -0,0 +1,99 @@
+package br.com.zapia.wpp.client.docker;
+
+import br.com.zapia.wpp.api.model.payloads.WebSocketResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WsResponseDecoderTest {
+
+    private final ObjectMapper baselineMapper = new ObjectMapper();
+    private final ObjectMapper objectMapper = WhatsAppRuntime.newObjectMapper();
+
+    @Test
+    void decodesLikeTheBaselineTwoPassParsing() throws IOException {
+        String[] responses = {
+                "{\"id\":\"a@c.us\",\"msgs\":[{\"body\":\"Olá\"}],\"unread\":2}",
+                "[1,\"two\",{\"three\":3.5},null]",
+                "\"plain text\"",
+                "\"{\\\"json\\\":\\\"in a string\\\"}\"",
+                "\"[1,2]\"",
+                "\"123\"",
+                "\"-1.5e3\"",
+                "\"true\"",
+                "\"null\"",
+                "\"{broken\"",
+                "\"3EB0C431C26A1916\"",
+                "\"\"",
+                "42",
+                "1.25",
+                "true",
+                "null"
+        };
+        for (JsonNodeFactoryCase nodeFactory : JsonNodeFactoryCase.values()) {
+            WsResponseDecoder decoder = new WsResponseDecoder(objectMapper, nodeFactory.factory());
+            for (String response : responses) {
+                byte[] payload = ("{\"status\":200,\"response\":" + response + "}").getBytes(StandardCharsets.UTF_8);
+                WebSocketResponse expected = baseline(payload);
+                WebSocketResponse actual = decoder.readResponse(payload);
+                actual.setResponse(decoder.decode(actual.getResponse()));
+
+                assertEquals(expected.getStatus(), actual.getStatus());
+                assertEquals(normalize(expected.getResponse()), normalize(actual.getResponse()), nodeFactory + " response " + response);
+            }
+        }
+    }
+
+    @Test
+    void recognizesJsonValues() {
+        assertTrue(WsResponseDecoder.isJsonValue(" {\"a\":1} "));
+        assertTrue(WsResponseDecoder.isJsonValue("-0.5E+2"));
+        assertTrue(WsResponseDecoder.isJsonValue("false"));
+        assertFalse(WsResponseDecoder.isJsonValue("falsey"));
+        assertFalse(WsResponseDecoder.isJsonValue("1."));
+        assertFalse(WsResponseDecoder.isJsonValue("554499999999@c.us"));
+        assertFalse(WsResponseDecoder.isJsonValue("   "));
+    }
+
+    private WebSocketResponse baseline(byte[] payload) throws IOException {
+        WebSocketResponse response = baselineMapper.readValue(payload, WebSocketResponse.class);
+        if (response.getResponse() instanceof LinkedHashMap || response.getResponse() instanceof List) {
+            response.setResponse(baselineMapper.readTree(baselineMapper.writeValueAsString(response.getResponse())));
+        } else if (response.getResponse() instanceof String) {
+            try {
+                JsonNode jsonNode = baselineMapper.readTree((String) response.getResponse());
+                response.setResponse(jsonNode);
+            } catch (Exception e) {
+
+            }
+        }
+        return response;
+    }
+
+    private Object normalize(Object response) throws IOException {
+        if (response instanceof JsonNode) {
+            JsonNode jsonNode = (JsonNode) response;
+            if (jsonNode.isMissingNode()) {
+                return null;
+            }
+            return baselineMapper.readTree(baselineMapper.writeValueAsString(jsonNode));
+        }
+        return response;
+    }
+
+    private enum JsonNodeFactoryCase {
+        DEFAULT,
+        COMPACT;
+
+        private com.fasterxml.jackson.databind.node.JsonNodeFactory factory() {
+            return this == COMPACT ? CompactJsonNodeFactory.instance : com.fasterxml.jackson.databind.node.JsonNodeFactory.instance;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package br.com.zapia.wpp.client.docker;
+
+import br.com.zapia.wpp.client.docker.model.WsTransport;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.handler.codec.http.HttpObjectAggregator;
+import io.netty.handler.codec.http.HttpServerCodec;
+import io.netty.handler.codec.http.websocketx.TextWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.WebSocketServerProtocolHandler;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class WsTransportBenchmark {
+
+    @Param({"JAVA_WEBSOCKET", "NETTY"})
+    private WsTransport transport;
+
+    @Param({"100", "400"})
+    private int sessions;
+
+    private EventLoopGroup bossGroup;
+    private EventLoopGroup workerGroup;
+    private WhatsAppRuntime runtime;
+    private Channel serverChannel;
+    private Session[] connections;
+    private AtomicInteger next;
+    private byte[] payload;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        bossGroup = new NioEventLoopGroup(1);
+        workerGroup = new NioEventLoopGroup();
+        serverChannel = new ServerBootstrap()
+                .group(bossGroup, workerGroup)
+                .channel(NioServerSocketChannel.class)
+                .childHandler(new ChannelInitializer<SocketChannel>() {
+                    @Override
+                    protected void initChannel(SocketChannel socketChannel) {
+                        socketChannel.pipeline().addLast(
+                                new HttpServerCodec(),
+                                new HttpObjectAggregator(64 * 1024),
+                                new WebSocketServerProtocolHandler("/api/ws", null, false, 16 * 1024 * 1024),
+                                new EchoHandler());
+                    }
+                })
+                .bind(0).sync().channel();
+        int port = ((InetSocketAddress) serverChannel.localAddress()).getPort();
+        URI uri = URI.create("ws://127.0.0.1:" + port + "/api/ws");
+        runtime = new WhatsAppRuntime();
+        int threadsBefore = ManagementFactory.getThreadMXBean().getThreadCount();
+        connections = new Session[sessions];
+        for (int i = 0; i < sessions; i++) {
+            connections[i] = new Session(uri, transport, runtime);
+            if (!connections[i].connection.connectBlocking(10, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Session {" + i + "} failed to connect");
+            }
+        }
+        int threadsAfter = ManagementFactory.getThreadMXBean().getThreadCount();
+        System.out.println("transport=" + transport + " sessions=" + sessions + " clientThreads=" + (threadsAfter - threadsBefore));
+        next = new AtomicInteger();
+        payload = "{\"tag\":\"7c9e6679-7425-40de-944b-e07fc1f90ae7\",\"webSocketRequestPayLoad\":{\"event\":\"FindChat\",\"payload\":\"554499999999@c.us\"}}".getBytes(StandardCharsets.UTF_8);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        for (Session session : connections) {
+            if (session != null) {
+                session.connection.close();
+            }
+        }
+        runtime.close();
+        serverChannel.close();
+        bossGroup.shutdownGracefully();
+        workerGroup.shutdownGracefully();
+    }
+
+    @Benchmark
+    public String roundTrip() throws Exception {
+        return connections[Math.floorMod(next.getAndIncrement(), connections.length)].roundTrip(payload);
+    }
+
+    private static class Session implements WsConnection.Listener {
+
+        private final WsConnection connection;
+        private volatile CompletableFuture<String> pending;
+
+        private Session(URI uri, WsTransport transport, WhatsAppRuntime runtime) {
+            this.connection = transport == WsTransport.NETTY ? new NettyWsConnection(uri, this, runtime.getEventLoopGroup()) : new JavaWebSocketConnection(uri, this);
+        }
+
+        private synchronized String roundTrip(byte[] payload) throws Exception {
+            CompletableFuture<String> response = new CompletableFuture<>();
+            pending = response;
+            connection.sendTextFrames(List.of(ByteBuffer.wrap(payload)));
+            return response.get(10, TimeUnit.SECONDS);
+        }
+
+        @Override
+        public void onOpen() {
+        }
+
+        @Override
+        public void onMessage(String message) {
+            CompletableFuture<String> response = pending;
+            if (response != null) {
+                response.complete(message);
+            }
+        }
+
+        @Override
+        public void onClose(int code, String reason, boolean remote) {
+        }
+
+        @Override
+        public void onError(Exception e) {
+            CompletableFuture<String> response = pending;
+            if (response != null) {
+                response.completeExceptionally(e);
+            }
+        }
+    }
+
+    private static class EchoHandler extends SimpleChannelInboundHandler<TextWebSocketFrame> {
+
+        @Override
+        protected void channelRead0(ChannelHandlerContext ctx, TextWebSocketFrame frame) {
+            ctx.writeAndFlush(new TextWebSocketFrame(frame.text()));
+        }
+    }
+}
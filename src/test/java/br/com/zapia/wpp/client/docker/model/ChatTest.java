@@ -0,0 +1,56 @@
+package br.com.zapia.wpp.client.docker.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChatTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void decodesMessagesOnceAndIndexesThem() throws IOException {
+        Chat chat = chat("a@c.us", "{\"id\":\"m1\",\"type\":\"chat\",\"body\":\"first\"}", "{\"id\":\"m2\",\"type\":\"chat\",\"body\":\"second\"}");
+
+        List<Message> messages = chat.getAllMessages();
+
+        assertSame(messages, chat.getAllMessages());
+        assertEquals(2, chat.getMessagesCount());
+        assertSame(messages.get(1), chat.getLastMsg());
+        assertSame(messages.get(0), chat.getMessage(0));
+        assertSame(messages.get(1), chat.getMessageById("m2"));
+        assertNull(chat.getMessageById("m3"));
+        assertThrows(UnsupportedOperationException.class, () -> messages.add(messages.get(0)));
+    }
+
+    @Test
+    void updateRebuildsTheCache() throws IOException {
+        Chat chat = chat("a@c.us", "{\"id\":\"m1\",\"type\":\"chat\",\"body\":\"first\"}");
+        List<Message> before = chat.getAllMessages();
+
+        chat.update(chat("a@c.us", "{\"id\":\"m1\",\"type\":\"chat\",\"body\":\"first\"}", "{\"id\":\"m2\",\"type\":\"chat\",\"body\":\"second\"}"));
+
+        assertNotSame(before, chat.getAllMessages());
+        assertEquals(2, chat.getMessagesCount());
+        assertEquals("second", chat.getLastMsg().getBody());
+        assertEquals("second", chat.getMessageById("m2").getBody());
+    }
+
+    @Test
+    void chatWithoutMessagesIsEmpty() throws IOException {
+        Chat chat = Chat.build(null, objectMapper.readTree("{\"id\":\"a@c.us\",\"kind\":\"chat\"}"));
+
+        assertTrue(chat.getAllMessages().isEmpty());
+        assertEquals(0, chat.getMessagesCount());
+        assertNull(chat.getLastMsg());
+        assertNull(chat.getMessageById("m1"));
+    }
+
+    private Chat chat(String id, String... messages) throws IOException {
+        return Chat.build(null, objectMapper.readTree("{\"id\":\"" + id + "\",\"kind\":\"chat\",\"msgs\":[" + String.join(",", messages) + "]}"));
+    }
+}
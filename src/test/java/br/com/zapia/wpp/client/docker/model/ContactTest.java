@@ -0,0 +1,62 @@
+package br.com.zapia.wpp.client.docker.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.text.MaskFormatter;
+import java.text.ParseException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContactTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void formatsPhoneNumbersLikeTheMaskFormatter() throws ParseException {
+        String[] ids = {
+                "5511987654321@c.us",
+                "551187654321@c.us",
+                "5511987654321",
+                "55119876543@c.us",
+                "551198765432100@c.us",
+                "5511ab7654321@c.us",
+                "55 1187654321@c.us",
+                "55١١٩٨٧٦٥٤٣٢١@c.us",
+                "120363041234567890@g.us",
+                "status@broadcast",
+                "55@c.us"
+        };
+        for (String id : ids) {
+            Contact contact = new Contact(null, objectMapper.createObjectNode().put("id", id));
+            String expected = maskFormatted(id);
+
+            assertEquals(expected, contact.getPhoneNumber(), id);
+            assertEquals(expected.replaceAll("[^0-9]+", ""), contact.getPhoneNumberNoFormatted(), id);
+        }
+    }
+
+    @Test
+    void formatsOnceAndReusesTheResult() {
+        Contact contact = new Contact(null, JsonNodeFactory.instance.objectNode().put("id", "5511987654321@c.us"));
+
+        assertEquals("(11) 98765-4321", contact.getPhoneNumber());
+        assertSame(contact.getPhoneNumber(), contact.getPhoneNumber());
+    }
+
+    private static String maskFormatted(String id) throws ParseException {
+        String phoneTemp = id.split("@")[0].substring(2);
+        String mask = phoneTemp.length() == 10 ? "(##) ####-####" : phoneTemp.length() == 11 ? "(##) #####-####" : null;
+        if (mask == null) {
+            return phoneTemp;
+        }
+        MaskFormatter formatador = new MaskFormatter(mask);
+        formatador.setValueContainsLiteralCharacters(false);
+        try {
+            return formatador.valueToString(phoneTemp);
+        } catch (ParseException e) {
+            return phoneTemp;
+        }
+    }
+}
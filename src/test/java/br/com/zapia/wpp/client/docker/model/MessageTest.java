@@ -0,0 +1,75 @@
+package br.com.zapia.wpp.client.docker.model;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MessageTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void cachedFieldsMatchTheJsonNode() throws IOException {
+        String[] messages = {
+                "{\"id\":{\"fromMe\":false,\"remote\":{\"_serialized\":\"5511987654321@c.us\"},\"_serialized\":\"m1\"},\"type\":\"chat\",\"body\":\"Olá\",\"from\":\"5511987654321@c.us\",\"t\":1672531200,\"isNew\":true}",
+                "{\"id\":{\"fromMe\":false,\"remote\":\"120363041234567890@g.us\",\"_serialized\":\"m2\"},\"type\":\"image\",\"author\":\"5511987654321@c.us\",\"from\":\"120363041234567890@g.us\",\"t\":\"1672531201\"}",
+                "{\"id\":{\"fromMe\":true,\"_serialized\":\"m3\"},\"type\":\"revoked\",\"from\":\"me@c.us\",\"to\":\"5511987654321@c.us\",\"isNew\":false}",
+                "{\"id\":\"m4\",\"type\":\"ptt\",\"body\":null,\"author\":null,\"from\":\"5511987654321@c.us\",\"isNew\":\"true\"}",
+                "{\"id\":\"m5\",\"from\":null}"
+        };
+        for (String json : messages) {
+            JsonNode jsonNode = objectMapper.readTree(json);
+            Message message = Message.build(null, jsonNode);
+
+            assertEquals(jsonNode.get("type") == null ? "" : jsonNode.get("type").asText(), message.getType(), json);
+            assertEquals(jsonNode.get("body") == null ? "" : jsonNode.get("body").asText(), message.getBody(), json);
+            assertEquals(jsonNode.has("author") ? jsonNode.get("author").asText() : jsonNode.get("from").asText(), message.getSenderId(), json);
+            assertEquals(jsonNode.get("isNew") != null && jsonNode.get("isNew").asBoolean(false), message.isNew(), json);
+            assertEquals(jsonNode.path("t").asLong(), message.getTimestamp(), json);
+            assertEquals(chatId(jsonNode), message.getChatId(), json);
+        }
+    }
+
+    @Test
+    void buildsTheSubclassForTheType() throws IOException {
+        assertEquals(MediaMessage.class, Message.build(null, objectMapper.readTree("{\"id\":\"m1\",\"type\":\"sticker\"}")).getClass());
+        assertEquals(AudioMessage.class, Message.build(null, objectMapper.readTree("{\"id\":\"m1\",\"type\":\"ptt\"}")).getClass());
+        assertEquals(GeoMessage.class, Message.build(null, objectMapper.readTree("{\"id\":\"m1\",\"type\":\"location\"}")).getClass());
+        assertEquals(VCardMessage.class, Message.build(null, objectMapper.readTree("{\"id\":\"m1\",\"type\":\"vcard\"}")).getClass());
+        assertEquals(Message.class, Message.build(null, objectMapper.readTree("{\"id\":\"m1\"}")).getClass());
+    }
+
+    @Test
+    void updateRefreshesTheCachedFields() throws IOException {
+        Message message = Message.build(null, objectMapper.readTree("{\"id\":\"m1\",\"type\":\"chat\",\"body\":\"first\",\"from\":\"a@c.us\",\"t\":1,\"isNew\":true}"));
+
+        message.update(Message.build(null, objectMapper.readTree("{\"id\":\"m1\",\"type\":\"revoked\",\"author\":\"b@c.us\",\"from\":\"g@g.us\",\"t\":2}")));
+
+        assertEquals("revoked", message.getType());
+        assertTrue(message.isRevoked());
+        assertEquals("", message.getBody());
+        assertEquals("b@c.us", message.getSenderId());
+        assertEquals("g@g.us", message.getChatId());
+        assertEquals(2, message.getTimestamp());
+        assertFalse(message.isNew());
+    }
+
+    private static String chatId(JsonNode jsonNode) {
+        JsonNode id = jsonNode.get("id");
+        if (id != null && id.hasNonNull("remote")) {
+            JsonNode remote = id.get("remote");
+            if (remote.get("_serialized") != null) {
+                return remote.get("_serialized").asText();
+            }
+            return remote.asText();
+        }
+        if (id != null && id.path("fromMe").asBoolean(false) && jsonNode.hasNonNull("to")) {
+            return jsonNode.get("to").asText();
+        }
+        return jsonNode.hasNonNull("from") ? jsonNode.get("from").asText() : null;
+    }
+}